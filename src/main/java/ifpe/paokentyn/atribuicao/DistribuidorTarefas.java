@@ -0,0 +1,397 @@
+package ifpe.paokentyn.atribuicao;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.Tarefa;
+import ifpe.paokentyn.indice.HeapIndexado;
+import ifpe.paokentyn.persistence.OuvinteCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.mappings.ObjectReferenceMapping;
+
+/**
+ * Atribui tarefas novas ao funcionário menos carregado da padaria, entre
+ * os cargos aceitos. A carga de um funcionário é o número de tarefas em
+ * aberto; no empate vence o menor id.
+ *
+ * Cada padaria tem sua equipe em memória: um {@link HeapIndexado} de
+ * cargas por cargo, protegido por uma trava da própria equipe. Gerentes de padarias
+ * diferentes não disputam trava nenhuma, e na mesma padaria a trava só
+ * cobre a escolha no heap, nunca o acesso ao banco. A equipe é carregada
+ * na primeira atribuição (duas consultas) e a partir daí as cargas são
+ * mantidas por incremento: a escolha reserva uma vaga no funcionário até
+ * a tarefa ser gravada, e um listener na sessão do EclipseLink acompanha
+ * as transações confirmadas (tarefas novas, concluídas, excluídas ou
+ * passadas para outro funcionário), venham de onde vierem. Mudança de
+ * cargo ou de padaria, contratação e demissão descartam a equipe, assim
+ * como UPDATE/DELETE em massa ou SQL nativo em TB_TAREFA ou
+ * TB_FUNCIONARIO. Uma carga que ficaria negativa mostra que a contagem
+ * se perdeu, e a equipe também é descartada em vez de seguir com o erro.
+ * Feche o distribuidor para remover o listener.
+ *
+ * @author isabe
+ */
+public class DistribuidorTarefas implements AutoCloseable {
+
+    private final EntityManagerFactory emf;
+    private final Sincronizacao sincronizacao;
+
+    private final ConcurrentHashMap<Long, Equipe> equipes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Equipe> equipeDoFuncionario = new ConcurrentHashMap<>();
+    // Tarefas em aberto (já confirmadas) dos funcionários das equipes carregadas
+    private final ConcurrentHashMap<Long, Long> abertas = new ConcurrentHashMap<>();
+
+    public DistribuidorTarefas(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.sincronizacao = new Sincronizacao();
+    }
+
+    /**
+     * Grava a tarefa atribuída ao funcionário menos carregado da padaria
+     * cujo cargo esteja em {@code cargos} (qualquer cargo, se nenhum for
+     * informado). Sem data de início ou situação, a tarefa começa agora e
+     * em aberto.
+     *
+     * @throws EntityNotFoundException se a padaria não tiver funcionário
+     * com um dos cargos
+     */
+    public Tarefa atribuir(long idPadaria, Tarefa tarefa, String... cargos) {
+        Equipe equipe;
+        long idFuncionario;
+        while (true) {
+            equipe = equipe(idPadaria);
+            equipe.trava.lock();
+            try {
+                // Descartada enquanto esperava a trava: pega a equipe nova
+                if (!equipe.valida) {
+                    continue;
+                }
+                idFuncionario = equipe.reservar(cargos);
+                break;
+            } finally {
+                equipe.trava.unlock();
+            }
+        }
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            tarefa.setFuncionario(em.getReference(Funcionario.class, idFuncionario));
+            if (tarefa.getDataInicio() == null) {
+                tarefa.setDataInicio(new Date());
+            }
+            if (tarefa.getConcluida() == null) {
+                tarefa.setConcluida(false);
+            }
+            em.persist(tarefa);
+            em.getTransaction().commit();
+            return tarefa;
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+            // Confirmada, a tarefa já entrou na carga pelo listener
+            liberar(equipe, idFuncionario);
+        }
+    }
+
+    /**
+     * Carga atual do funcionário (tarefas em aberto mais atribuições em
+     * andamento), ou -1 se ele não for da padaria.
+     */
+    public int carga(long idPadaria, long idFuncionario) {
+        Equipe equipe = equipe(idPadaria);
+        equipe.trava.lock();
+        try {
+            return equipe.carga(idFuncionario);
+        } finally {
+            equipe.trava.unlock();
+        }
+    }
+
+    /** Descarta as cargas em memória; a próxima atribuição recarrega. */
+    public void descartar() {
+        equipes.values().forEach(this::descartar);
+    }
+
+    @Override
+    public void close() {
+        sincronizacao.close();
+    }
+
+    private Equipe equipe(long idPadaria) {
+        while (true) {
+            Equipe equipe = equipes.computeIfAbsent(idPadaria, Equipe::new);
+            if (!equipe.carregada) {
+                equipe.trava.lock();
+                try {
+                    if (!equipe.carregada && equipe.valida) {
+                        carregar(equipe);
+                    }
+                } finally {
+                    equipe.trava.unlock();
+                }
+            }
+            if (equipe.valida) {
+                return equipe;
+            }
+        }
+    }
+
+    /**
+     * Roda com a trava da equipe. Os funcionários passam a apontar para a
+     * equipe antes da contagem: o que for confirmado depois espera a trava
+     * e entra pela diferença com {@link #abertas}, sem contar duas vezes.
+     */
+    private void carregar(Equipe equipe) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Object[]> funcionarios = em.createQuery(
+                    "SELECT f.id, f.cargo FROM Funcionario f WHERE f.padaria.id = :padaria", Object[].class)
+                    .setParameter("padaria", equipe.idPadaria)
+                    .getResultList();
+            for (Object[] funcionario : funcionarios) {
+                equipe.adicionar((Long) funcionario[0], (String) funcionario[1]);
+                equipeDoFuncionario.put((Long) funcionario[0], equipe);
+            }
+
+            List<Object[]> tarefas = em.createQuery(
+                    "SELECT t.id, t.funcionario.id FROM Tarefa t "
+                    + "WHERE t.concluida = false AND t.funcionario.padaria.id = :padaria", Object[].class)
+                    .setParameter("padaria", equipe.idPadaria)
+                    .getResultList();
+            for (Object[] tarefa : tarefas) {
+                if (abertas.putIfAbsent((Long) tarefa[0], (Long) tarefa[1]) == null) {
+                    equipe.ajustar((Long) tarefa[1], 1);
+                }
+            }
+            equipe.carregada = true;
+        } catch (RuntimeException e) {
+            descartar(equipe);
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private void descartar(Equipe equipe) {
+        equipe.trava.lock();
+        try {
+            equipe.valida = false;
+            abertas.values().removeIf(equipe::contem);
+            equipe.funcionarios().forEach(id -> equipeDoFuncionario.remove(id, equipe));
+            equipes.remove(equipe.idPadaria, equipe);
+        } finally {
+            equipe.trava.unlock();
+        }
+    }
+
+    private void liberar(Equipe equipe, long idFuncionario) {
+        equipe.trava.lock();
+        try {
+            if (!equipe.ajustar(idFuncionario, -1)) {
+                descartar(equipe);
+            }
+        } finally {
+            equipe.trava.unlock();
+        }
+    }
+
+    /** Aplica a situação confirmada de uma tarefa: funcionário, ou null se fechada. */
+    private void aplicar(long idTarefa, Long idFuncionario) {
+        Long anterior = abertas.get(idTarefa);
+        if (Objects.equals(anterior, idFuncionario)) {
+            return;
+        }
+        if (anterior != null) {
+            Equipe equipe = equipeDoFuncionario.get(anterior);
+            if (equipe == null) {
+                abertas.remove(idTarefa, anterior);
+            } else {
+                equipe.trava.lock();
+                try {
+                    if (abertas.remove(idTarefa, anterior) && !equipe.ajustar(anterior, -1)) {
+                        descartar(equipe);
+                    }
+                } finally {
+                    equipe.trava.unlock();
+                }
+            }
+        }
+        if (idFuncionario != null) {
+            Equipe equipe = equipeDoFuncionario.get(idFuncionario);
+            if (equipe != null) {
+                equipe.trava.lock();
+                try {
+                    if (equipe.valida && abertas.putIfAbsent(idTarefa, idFuncionario) == null) {
+                        equipe.ajustar(idFuncionario, 1);
+                    }
+                } finally {
+                    equipe.trava.unlock();
+                }
+            }
+        }
+    }
+
+    private static final class Equipe {
+
+        private final long idPadaria;
+        private final ReentrantLock trava = new ReentrantLock();
+        private final Map<String, HeapIndexado> porCargo = new HashMap<>();
+        private final Map<Long, HeapIndexado> heapDoFuncionario = new HashMap<>();
+        private volatile boolean carregada;
+        private volatile boolean valida = true;
+
+        private Equipe(long idPadaria) {
+            this.idPadaria = idPadaria;
+        }
+
+        private void adicionar(long idFuncionario, String cargo) {
+            HeapIndexado heap = porCargo.computeIfAbsent(cargo, c -> new HeapIndexado());
+            heap.definir(idFuncionario, 0);
+            heapDoFuncionario.put(idFuncionario, heap);
+        }
+
+        private long reservar(String[] cargos) {
+            Iterable<HeapIndexado> candidatos = cargos.length == 0 ? porCargo.values()
+                    : Arrays.stream(cargos).map(porCargo::get).filter(Objects::nonNull).toList();
+            HeapIndexado melhor = null;
+            for (HeapIndexado heap : candidatos) {
+                if (!heap.isEmpty() && (melhor == null || heap.menorValor() < melhor.menorValor()
+                        || (heap.menorValor() == melhor.menorValor() && heap.menorId() < melhor.menorId()))) {
+                    melhor = heap;
+                }
+            }
+            if (melhor == null) {
+                throw new EntityNotFoundException("Nenhum funcionário da padaria " + idPadaria
+                        + (cargos.length == 0 ? "" : " com cargo " + String.join(", ", cargos)));
+            }
+            long idFuncionario = melhor.menorId();
+            melhor.ajustar(idFuncionario, 1);
+            return idFuncionario;
+        }
+
+        /** Falso se a carga ficou negativa: a equipe precisa ser recarregada. */
+        private boolean ajustar(long idFuncionario, int delta) {
+            HeapIndexado heap = heapDoFuncionario.get(idFuncionario);
+            return heap == null || !heap.ajustar(idFuncionario, delta) || heap.valor(idFuncionario) >= 0;
+        }
+
+        private int carga(long idFuncionario) {
+            HeapIndexado heap = heapDoFuncionario.get(idFuncionario);
+            return heap == null ? -1 : heap.valor(idFuncionario).intValue();
+        }
+
+        private boolean contem(Long idFuncionario) {
+            return heapDoFuncionario.containsKey(idFuncionario);
+        }
+
+        private Iterable<Long> funcionarios() {
+            return heapDoFuncionario.keySet();
+        }
+    }
+
+    private static final class Mudancas {
+
+        // {id da tarefa, funcionário ou null se fechada}
+        private final List<Long[]> tarefas = new ArrayList<>();
+        private final List<Long> tarefasExcluidas = new ArrayList<>();
+        private final List<Long> funcionarios = new ArrayList<>();
+        private final List<Long> padarias = new ArrayList<>();
+    }
+
+    private final class Sincronizacao extends OuvinteCommit<Mudancas> {
+
+        private final AbstractSession sessao;
+        private final ObjectReferenceMapping funcionarioDaTarefa;
+        private final ObjectReferenceMapping padariaDoFuncionario;
+
+        private Sincronizacao() {
+            super(emf, List.of(Tarefa.class, Funcionario.class), List.of("TB_TAREFA", "TB_FUNCIONARIO"));
+            this.sessao = emf.unwrap(JpaEntityManagerFactory.class).getServerSession();
+            this.funcionarioDaTarefa = (ObjectReferenceMapping) sessao.getDescriptor(Tarefa.class)
+                    .getMappingForAttributeName("funcionario");
+            this.padariaDoFuncionario = (ObjectReferenceMapping) sessao.getDescriptor(Funcionario.class)
+                    .getMappingForAttributeName("padaria");
+        }
+
+        @Override
+        protected Mudancas iniciar() {
+            return new Mudancas();
+        }
+
+        @Override
+        protected void alterada(ObjectChangeSet mudanca, Mudancas mudancas) {
+            Object clone = mudanca.getUnitOfWorkClone();
+            if (clone instanceof Tarefa tarefa) {
+                // A chave sai da linha lida, sem carregar o funcionário preguiçoso
+                Long idFuncionario = Boolean.TRUE.equals(tarefa.getConcluida()) ? null
+                        : (Long) funcionarioDaTarefa.extractPrimaryKeysForReferenceObject(tarefa, sessao);
+                mudancas.tarefas.add(new Long[] {tarefa.getId(), idFuncionario});
+            } else if (clone instanceof Funcionario funcionario) {
+                if (!mudanca.isNew() && mudanca.getChangesForAttributeNamed("cargo") == null
+                        && mudanca.getChangesForAttributeNamed("padaria") == null) {
+                    return;
+                }
+                if (funcionario.getId() != null) {
+                    mudancas.funcionarios.add(funcionario.getId());
+                }
+                // Idem para a padaria do funcionário
+                Long idPadaria = (Long) padariaDoFuncionario.extractPrimaryKeysForReferenceObject(funcionario, sessao);
+                if (idPadaria != null) {
+                    mudancas.padarias.add(idPadaria);
+                }
+            }
+        }
+
+        @Override
+        protected void excluida(ObjectChangeSet mudanca, Mudancas mudancas) {
+            if (Tarefa.class.getName().equals(mudanca.getClassName())) {
+                mudancas.tarefasExcluidas.add((Long) mudanca.getId());
+            } else {
+                mudancas.funcionarios.add((Long) mudanca.getId());
+            }
+        }
+
+        @Override
+        protected void confirmar(Mudancas mudancas, boolean emMassa) {
+            if (emMassa) {
+                descartar();
+                return;
+            }
+            for (Long[] tarefa : mudancas.tarefas) {
+                aplicar(tarefa[0], tarefa[1]);
+            }
+            mudancas.tarefasExcluidas.forEach(id -> aplicar(id, null));
+            mudancas.funcionarios.forEach(this::descartarEquipeDo);
+            mudancas.padarias.forEach(id -> {
+                Equipe equipe = equipes.get(id);
+                if (equipe != null) {
+                    descartar(equipe);
+                }
+            });
+        }
+
+        private void descartarEquipeDo(Long idFuncionario) {
+            Equipe equipe = equipeDoFuncionario.get(idFuncionario);
+            if (equipe != null) {
+                descartar(equipe);
+            }
+        }
+    }
+}
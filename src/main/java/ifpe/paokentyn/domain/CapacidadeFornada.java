@@ -0,0 +1,45 @@
+package ifpe.paokentyn.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * Quantas unidades de um pão uma fornada produz. É o teto de itens de
+ * pedido daquele pão que podem ser atendidos pela fornada. Como
+ * {@link VendaHora}, guarda só os ids, sem chaves estrangeiras.
+ *
+ * @author isabe
+ */
+@Entity
+@Table(name = "TB_CAPACIDADE_FORNADA")
+@IdClass(CapacidadeFornadaId.class)
+public class CapacidadeFornada implements Serializable {
+
+    @Id
+    @Column(name = "ID_FORNADA")
+    private Long idFornada;
+
+    @Id
+    @Column(name = "ID_PAO")
+    private Long idPao;
+
+    @NotNull(message = "{capacidadefornada.quantidade.notnull}")
+    @Min(value = 0, message = "{capacidadefornada.quantidade.min}")
+    @Column(name = "NUM_QUANTIDADE", nullable = false)
+    private Integer quantidade;
+
+    public Long getIdFornada() { return idFornada; }
+    public Long getIdPao() { return idPao; }
+    public Integer getQuantidade() { return quantidade; }
+    public void setQuantidade(Integer quantidade) { this.quantidade = quantidade; }
+
+    protected CapacidadeFornada() {}
+
+    public CapacidadeFornada(Long idFornada, Long idPao, Integer quantidade) {
+        this.idFornada = idFornada;
+        this.idPao = idPao;
+        this.quantidade = quantidade;
+    }
+}
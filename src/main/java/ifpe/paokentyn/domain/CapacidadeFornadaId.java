@@ -0,0 +1,40 @@
+package ifpe.paokentyn.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Chave de {@link CapacidadeFornada}.
+ *
+ * @author isabe
+ */
+public class CapacidadeFornadaId implements Serializable {
+
+    private Long idFornada;
+    private Long idPao;
+
+    public CapacidadeFornadaId() {}
+
+    public CapacidadeFornadaId(Long idFornada, Long idPao) {
+        this.idFornada = idFornada;
+        this.idPao = idPao;
+    }
+
+    public Long getIdFornada() { return idFornada; }
+    public Long getIdPao() { return idPao; }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idFornada, idPao);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof CapacidadeFornadaId)) {
+            return false;
+        }
+        CapacidadeFornadaId other = (CapacidadeFornadaId) object;
+        return Objects.equals(idFornada, other.idFornada)
+                && Objects.equals(idPao, other.idPao);
+    }
+}
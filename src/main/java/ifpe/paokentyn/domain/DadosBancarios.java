@@ -21,7 +21,9 @@ import ifpe.paokentyn.validation.SemNumero;
 public class DadosBancarios implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_DADOS_BANCARIOS")
+    @TableGenerator(name = "SEQ_DADOS_BANCARIOS", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_DADOS_BANCARIOS", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "{dadosbancarios.banco.notblank}")
@@ -7,9 +7,18 @@ import java.util.List;
 
 @Entity
 @Table(name = "TB_FORNADA")
+@NamedEntityGraph(name = "Fornada.itensVendidos",
+        attributeNodes = {
+            @NamedAttributeNode("padaria"),
+            @NamedAttributeNode(value = "itensPedidos", subgraph = "itensPedidos")
+        },
+        subgraphs = @NamedSubgraph(name = "itensPedidos", attributeNodes = @NamedAttributeNode("pao"))
+)
 public class Fornada {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_FORNADA")
+    @TableGenerator(name = "SEQ_FORNADA", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_FORNADA", allocationSize = 50)
     private Long id; 
     
     @NotNull(message = "{fornada.padaria.notnull}")
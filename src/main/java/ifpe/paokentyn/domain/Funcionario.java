@@ -14,13 +14,20 @@ import ifpe.paokentyn.validation.SemNumero;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.List;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 
 @Entity
 @Table(name = "TB_FUNCIONARIO")
+@NamedEntityGraph(name = "Funcionario.tarefas",
+        attributeNodes = @NamedAttributeNode("tarefas")
+)
 public class Funcionario implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_FUNCIONARIO")
+    @TableGenerator(name = "SEQ_FUNCIONARIO", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_FUNCIONARIO", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "{funcionario.padaria.notnull}")
@@ -36,7 +43,7 @@ public class Funcionario implements Serializable {
 
     @NotBlank(message = "{funcionario.cpf.notblank}")
     @CPF(message = "{funcionario.cpf.invalido}")
-    @Column(name = "TXT_CPF", nullable = false, length = 14)
+    @Column(name = "TXT_CPF", nullable = false, length = 14, unique = true)
     private String cpf;
     
     @NotBlank(message = "{funcionario.email.notblank}")
@@ -62,6 +69,7 @@ public class Funcionario implements Serializable {
     private List<Tarefa> tarefas;
 
     @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchFetch(BatchFetchType.IN)
     @JoinColumn(name = "ID_DADOS_BANCARIOS", referencedColumnName = "ID", unique = true)
     private DadosBancarios dadosBancarios;
 
@@ -17,11 +17,14 @@ import ifpe.paokentyn.validation.SemNumero;
  * @author isabe
  */
 @Entity
+@Cacheable
 @Table(name = "TB_INGREDIENTE")
 public class Ingrediente implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_INGREDIENTE")
+    @TableGenerator(name = "SEQ_INGREDIENTE", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_INGREDIENTE", allocationSize = 50)
     @Column(name = "ID")
     private Long id;
 
@@ -7,7 +7,9 @@ import jakarta.validation.constraints.NotNull;
 @Table(name = "TB_ITEM_PEDIDO")
 public class ItemPedido {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_ITEM_PEDIDO")
+    @TableGenerator(name = "SEQ_ITEM_PEDIDO", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_ITEM_PEDIDO", allocationSize = 50)
     private Long id; 
     
     @NotNull(message = "{itempedido.quantidade.notnull}")
@@ -16,7 +18,7 @@ public class ItemPedido {
     private Integer quantidade;
 
     @NotNull(message = "{itempedido.pedido.notnull}")
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_PEDIDO", nullable = false, referencedColumnName = "ID")
     private Pedido pedido;
     
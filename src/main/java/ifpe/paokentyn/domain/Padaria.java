@@ -9,10 +9,17 @@ import jakarta.validation.constraints.Pattern;
 import ifpe.paokentyn.validation.CepPernambuco;
 
 @Entity
+@Cacheable
 @Table(name = "TB_PADARIA")
+@NamedEntityGraph(name = "Padaria.equipeComDadosBancarios",
+        attributeNodes = @NamedAttributeNode(value = "funcionarios", subgraph = "funcionarios"),
+        subgraphs = @NamedSubgraph(name = "funcionarios", attributeNodes = @NamedAttributeNode("dadosBancarios"))
+)
 public class Padaria {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_PADARIA")
+    @TableGenerator(name = "SEQ_PADARIA", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_PADARIA", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "{padaria.nome.notblank}")
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import java.io.Serializable;
 import java.util.List;
@@ -11,11 +12,17 @@ import java.util.List;
 import ifpe.paokentyn.validation.SemNumero;
 
 @Entity
+@Cacheable
 @Table(name = "TB_PAO")
+@NamedEntityGraph(name = "Pao.ingredientes",
+        attributeNodes = @NamedAttributeNode("ingredientes")
+)
 public class Pao implements Serializable { 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_PAO")
+    @TableGenerator(name = "SEQ_PAO", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_PAO", allocationSize = 50)
     @Column(name = "ID") 
     private Long id;
 
@@ -30,10 +37,15 @@ public class Pao implements Serializable {
     @Column(name = "NUM_PRECO", nullable = false)
     private Double preco;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "BIN_IMAGEM")
-    private byte[] imagem;
+    // SHA-256 da foto no ArmazemImagens; o conteúdo não fica na linha
+    @Pattern(regexp = "[0-9a-f]{64}", message = "{pao.imagem.hash}")
+    @Column(name = "TXT_HASH_IMAGEM", length = 64)
+    private String hashImagem;
+
+    // Pães desativados saem do catálogo sem apagar receita nem histórico
+    @NotNull(message = "{pao.ativo.notnull}")
+    @Column(name = "FLG_ATIVO", nullable = false)
+    private Boolean ativo = true;
 
     @OneToMany(mappedBy = "pao", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ItemPedido> itensPedidos;
@@ -53,8 +65,10 @@ public class Pao implements Serializable {
     public void setNomePao(String nomePao) { this.nomePao = nomePao; }
     public Double getPreco() { return preco; }
     public void setPreco(Double preco) { this.preco = preco; }
-    public byte[] getImagem() { return imagem; }
-    public void setImagem(byte[] imagem) { this.imagem = imagem; }
+    public String getHashImagem() { return hashImagem; }
+    public void setHashImagem(String hashImagem) { this.hashImagem = hashImagem; }
+    public Boolean getAtivo() { return ativo; }
+    public void setAtivo(Boolean ativo) { this.ativo = ativo; }
     public List<ItemPedido> getItensPedidos() { return itensPedidos; }
     public void setItensPedidos(List<ItemPedido> itensPedidos) { this.itensPedidos = itensPedidos; }
     public List<Ingrediente> getIngredientes() {
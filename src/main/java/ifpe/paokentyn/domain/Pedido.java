@@ -7,10 +7,16 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "TB_PEDIDO")
+@Table(name = "TB_PEDIDO", indexes = @Index(name = "IX_PEDIDO_DATA_ID", columnList = "DT_PEDIDO, ID"))
+@NamedEntityGraph(name = "Pedido.itensComPaes",
+        attributeNodes = @NamedAttributeNode(value = "itens", subgraph = "itens"),
+        subgraphs = @NamedSubgraph(name = "itens", attributeNodes = @NamedAttributeNode("pao"))
+)
 public class Pedido {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_PEDIDO")
+    @TableGenerator(name = "SEQ_PEDIDO", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_PEDIDO", allocationSize = 50)
     private Long id; 
     
     @NotNull(message = "{pedido.valortotal.notnull}")
@@ -0,0 +1,37 @@
+package ifpe.paokentyn.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Quanto de um ingrediente vai em uma unidade de um pão. Mapeia a mesma
+ * tabela de junção de {@link Pao#getIngredientes()}, acrescentando a
+ * quantidade; as linhas continuam sendo criadas e removidas pela
+ * coleção do pão.
+ *
+ * @author isabe
+ */
+@Entity
+@Table(name = "TB_PAO_INGREDIENTE")
+@IdClass(ReceitaIngredienteId.class)
+public class ReceitaIngrediente implements Serializable {
+
+    @Id
+    @Column(name = "ID_PAO")
+    private Long idPao;
+
+    @Id
+    @Column(name = "ID_INGREDIENTE")
+    private Long idIngrediente;
+
+    // Na unidade de compra do ingrediente; nula enquanto não informada
+    @Column(name = "NUM_QUANTIDADE")
+    private Double quantidade;
+
+    public Long getIdPao() { return idPao; }
+    public Long getIdIngrediente() { return idIngrediente; }
+    public Double getQuantidade() { return quantidade; }
+    public void setQuantidade(Double quantidade) { this.quantidade = quantidade; }
+
+    protected ReceitaIngrediente() {}
+}
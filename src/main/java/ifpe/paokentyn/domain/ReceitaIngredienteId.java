@@ -0,0 +1,40 @@
+package ifpe.paokentyn.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Chave de {@link ReceitaIngrediente}.
+ *
+ * @author isabe
+ */
+public class ReceitaIngredienteId implements Serializable {
+
+    private Long idPao;
+    private Long idIngrediente;
+
+    public ReceitaIngredienteId() {}
+
+    public ReceitaIngredienteId(Long idPao, Long idIngrediente) {
+        this.idPao = idPao;
+        this.idIngrediente = idIngrediente;
+    }
+
+    public Long getIdPao() { return idPao; }
+    public Long getIdIngrediente() { return idIngrediente; }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idPao, idIngrediente);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof ReceitaIngredienteId)) {
+            return false;
+        }
+        ReceitaIngredienteId other = (ReceitaIngredienteId) object;
+        return Objects.equals(idPao, other.idPao)
+                && Objects.equals(idIngrediente, other.idIngrediente);
+    }
+}
@@ -8,10 +8,14 @@ import jakarta.validation.constraints.Size;
 import java.util.Date;
 
 @Entity
-@Table(name = "TB_TAREFA")
+@Table(name = "TB_TAREFA", indexes = {
+        @Index(name = "IX_TAREFA_PREVISAO_ID", columnList = "DT_PREVISAO, ID"),
+        @Index(name = "IX_TAREFA_ABERTA_PREVISAO", columnList = "FLG_CONCLUIDA, DT_PREVISAO")})
 public class Tarefa {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "SEQ_TAREFA")
+    @TableGenerator(name = "SEQ_TAREFA", table = "TB_SEQUENCIA", pkColumnName = "TXT_NOME",
+            valueColumnName = "NUM_VALOR", pkColumnValue = "TB_TAREFA", allocationSize = 50)
     private Long id; 
     
     @NotNull(message = "{tarefa.funcionario.notnull}")
@@ -0,0 +1,49 @@
+package ifpe.paokentyn.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Vendas consolidadas por padaria, pão e hora. Tabela de resumo mantida
+ * pelo ResumoVendasService: não tem chaves estrangeiras e não é alterada
+ * pelo JPA, só lida.
+ *
+ * Itens vendidos sem fornada não têm padaria e entram com
+ * {@link #SEM_PADARIA}.
+ *
+ * @author isabe
+ */
+@Entity
+@Table(name = "TB_VENDA_HORA")
+@IdClass(VendaHoraId.class)
+public class VendaHora implements Serializable {
+
+    public static final long SEM_PADARIA = 0L;
+
+    @Id
+    @Column(name = "ID_PADARIA")
+    private Long idPadaria;
+
+    @Id
+    @Column(name = "ID_PAO")
+    private Long idPao;
+
+    // Hora no formato aaaammddhh (ex.: 2025111009), no fuso do servidor
+    @Id
+    @Column(name = "NUM_HORA")
+    private Long hora;
+
+    @Column(name = "NUM_QUANTIDADE", nullable = false)
+    private Long quantidade;
+
+    @Column(name = "NUM_VALOR", nullable = false)
+    private Double valor;
+
+    public Long getIdPadaria() { return idPadaria; }
+    public Long getIdPao() { return idPao; }
+    public Long getHora() { return hora; }
+    public Long getQuantidade() { return quantidade; }
+    public Double getValor() { return valor; }
+
+    protected VendaHora() {}
+}
@@ -0,0 +1,44 @@
+package ifpe.paokentyn.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Chave de {@link VendaHora}.
+ *
+ * @author isabe
+ */
+public class VendaHoraId implements Serializable {
+
+    private Long idPadaria;
+    private Long idPao;
+    private Long hora;
+
+    public VendaHoraId() {}
+
+    public VendaHoraId(Long idPadaria, Long idPao, Long hora) {
+        this.idPadaria = idPadaria;
+        this.idPao = idPao;
+        this.hora = hora;
+    }
+
+    public Long getIdPadaria() { return idPadaria; }
+    public Long getIdPao() { return idPao; }
+    public Long getHora() { return hora; }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idPadaria, idPao, hora);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof VendaHoraId)) {
+            return false;
+        }
+        VendaHoraId other = (VendaHoraId) object;
+        return Objects.equals(idPadaria, other.idPadaria)
+                && Objects.equals(idPao, other.idPao)
+                && Objects.equals(hora, other.hora);
+    }
+}
@@ -0,0 +1,199 @@
+package ifpe.paokentyn.folha;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Arquivo de remessa de pagamentos de um banco, em registros de largura
+ * fixa ({@value #TAMANHO_REGISTRO} posições, terminados por CRLF):
+ *
+ * <pre>
+ * Header   (0): banco 2-31, competência AAAAMM 32-37, geração AAAAMMDD 38-45
+ * Detalhe  (1): sequencial 2-7, funcionário 8-17, nome 18-57, agência 58-67,
+ *               conta 68-87, bruto 88-102, INSS 103-117, IRRF 118-132,
+ *               líquido 133-147
+ * Trailer  (9): quantidade de detalhes 2-7, total líquido 8-24
+ * </pre>
+ *
+ * Números alinhados à direita com zeros (valores em centavos), textos à
+ * esquerda com espaços, em maiúsculas e sem acentos. Os registros são
+ * montados num buffer direto e descarregados no {@link FileChannel} em
+ * blocos; {@link #descarregar()} também força a gravação em disco, para
+ * que a posição devolvida possa servir de ponto de retomada.
+ *
+ * @author isabe
+ */
+public final class ArquivoRemessa implements Closeable {
+
+    public static final int TAMANHO_REGISTRO = 240;
+    public static final int TAMANHO_LINHA = TAMANHO_REGISTRO + 2;
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final DateTimeFormatter AAAAMM = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter AAAAMMDD = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER - TAMANHO_BUFFER % TAMANHO_LINHA);
+    private final byte[] linha = new byte[TAMANHO_LINHA];
+    private int registros;
+    private long totalLiquido;
+
+    private ArquivoRemessa(FileChannel canal, int registros, long totalLiquido) {
+        this.canal = canal;
+        this.registros = registros;
+        this.totalLiquido = totalLiquido;
+    }
+
+    /** Cria (ou sobrescreve) o arquivo e grava o header. */
+    public static ArquivoRemessa criar(Path arquivo, String banco, YearMonth competencia, LocalDate geracao)
+            throws IOException {
+        FileChannel canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ArquivoRemessa remessa = new ArquivoRemessa(canal, 0, 0);
+        remessa.iniciar('0')
+                .texto(2, 30, banco)
+                .texto(32, 6, AAAAMM.format(competencia))
+                .texto(38, 8, AAAAMMDD.format(geracao))
+                .gravar();
+        return remessa;
+    }
+
+    /**
+     * Reabre um arquivo interrompido: descarta o que passou de
+     * {@code posicao} (o último ponto descarregado) e continua dali.
+     */
+    public static ArquivoRemessa retomar(Path arquivo, long posicao, int registros, long totalLiquido)
+            throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() < posicao) {
+                throw new IOException("Arquivo " + arquivo + " menor que o ponto de retomada " + posicao);
+            }
+            canal.truncate(posicao);
+            canal.position(posicao);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+        return new ArquivoRemessa(canal, registros, totalLiquido);
+    }
+
+    public void detalhe(long idFuncionario, String nome, String agencia, String conta, Pagamento pagamento)
+            throws IOException {
+        registros++;
+        totalLiquido += pagamento.liquido();
+        iniciar('1')
+                .numero(2, 6, registros)
+                .numero(8, 10, idFuncionario)
+                .texto(18, 40, nome)
+                .texto(58, 10, agencia)
+                .texto(68, 20, conta)
+                .numero(88, 15, pagamento.bruto())
+                .numero(103, 15, pagamento.inss())
+                .numero(118, 15, pagamento.irrf())
+                .numero(133, 15, pagamento.liquido())
+                .gravar();
+    }
+
+    /** Grava o trailer e fecha o arquivo. */
+    public void finalizar() throws IOException {
+        iniciar('9')
+                .numero(2, 6, registros)
+                .numero(8, 17, totalLiquido)
+                .gravar();
+        descarregar();
+        canal.close();
+    }
+
+    /** Esvazia o buffer no canal e força a gravação em disco. */
+    public void descarregar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+        canal.force(false);
+    }
+
+    /** Bytes já entregues ao canal (sem contar o que está no buffer). */
+    public long posicao() throws IOException {
+        return canal.position();
+    }
+
+    public int registros() {
+        return registros;
+    }
+
+    public long totalLiquido() {
+        return totalLiquido;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private ArquivoRemessa iniciar(char tipo) {
+        Arrays.fill(linha, (byte) ' ');
+        linha[0] = (byte) tipo;
+        linha[TAMANHO_REGISTRO] = '\r';
+        linha[TAMANHO_REGISTRO + 1] = '\n';
+        return this;
+    }
+
+    // Posições contadas a partir de 1, como no layout
+    private ArquivoRemessa texto(int inicio, int tamanho, String valor) {
+        String limpo = normalizar(valor);
+        for (int i = 0; i < tamanho && i < limpo.length(); i++) {
+            linha[inicio - 1 + i] = (byte) limpo.charAt(i);
+        }
+        return this;
+    }
+
+    private ArquivoRemessa numero(int inicio, int tamanho, long valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor negativo na remessa: " + valor);
+        }
+        for (int i = inicio - 1 + tamanho - 1; i >= inicio - 1; i--) {
+            linha[i] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        }
+        if (valor != 0) {
+            throw new IllegalArgumentException("Valor não cabe em " + tamanho + " posições");
+        }
+        return this;
+    }
+
+    private void gravar() throws IOException {
+        if (buffer.remaining() < TAMANHO_LINHA) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+        buffer.put(linha);
+    }
+
+    static String normalizar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        String semAcentos = Normalizer.normalize(valor, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        StringBuilder ascii = new StringBuilder(semAcentos.length());
+        for (char c : semAcentos.toUpperCase(Locale.ROOT).toCharArray()) {
+            ascii.append(c >= ' ' && c < 127 ? c : ' ');
+        }
+        return ascii.toString();
+    }
+}
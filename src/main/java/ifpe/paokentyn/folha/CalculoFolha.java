@@ -0,0 +1,57 @@
+package ifpe.paokentyn.folha;
+
+/**
+ * Cálculo do salário líquido mensal: desconta o INSS (tabela progressiva
+ * de 2025) e o IRRF sobre o que sobra (tabela de maio de 2025, sem
+ * dependentes nem desconto simplificado).
+ *
+ * Tudo em centavos, com aritmética inteira; cada imposto é arredondado
+ * (meio para cima) só no final.
+ *
+ * @author isabe
+ */
+public final class CalculoFolha {
+
+    // Faixas do INSS: teto da faixa em centavos e alíquota em milésimos
+    private static final long[] INSS_TETOS = {151800, 279388, 419083, 815741};
+    private static final long[] INSS_ALIQUOTAS = {75, 90, 120, 140};
+
+    // Faixas do IRRF: teto da faixa, alíquota em milésimos e parcela a deduzir em centavos
+    private static final long[] IRRF_TETOS = {242880, 282665, 375105, 466468, Long.MAX_VALUE};
+    private static final long[] IRRF_ALIQUOTAS = {0, 75, 150, 225, 275};
+    private static final long[] IRRF_DEDUCOES = {0, 18216, 39416, 67549, 90873};
+
+    private CalculoFolha() {
+    }
+
+    public static Pagamento calcular(double salario) {
+        return calcular(Math.round(salario * 100));
+    }
+
+    public static Pagamento calcular(long bruto) {
+        if (bruto < 0) {
+            throw new IllegalArgumentException("Salário negativo: " + bruto);
+        }
+        long inss = inss(bruto);
+        long irrf = irrf(bruto - inss);
+        return new Pagamento(bruto, inss, irrf, bruto - inss - irrf);
+    }
+
+    static long inss(long bruto) {
+        long milesimos = 0;
+        long piso = 0;
+        for (int i = 0; i < INSS_TETOS.length && bruto > piso; i++) {
+            milesimos += (Math.min(bruto, INSS_TETOS[i]) - piso) * INSS_ALIQUOTAS[i];
+            piso = INSS_TETOS[i];
+        }
+        return (milesimos + 500) / 1000;
+    }
+
+    static long irrf(long base) {
+        int faixa = 0;
+        while (base > IRRF_TETOS[faixa]) {
+            faixa++;
+        }
+        return Math.max(0, (base * IRRF_ALIQUOTAS[faixa] + 500) / 1000 - IRRF_DEDUCOES[faixa]);
+    }
+}
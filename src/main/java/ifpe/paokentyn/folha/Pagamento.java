@@ -0,0 +1,9 @@
+package ifpe.paokentyn.folha;
+
+/**
+ * Valores de um pagamento da folha, em centavos.
+ *
+ * @author isabe
+ */
+public record Pagamento(long bruto, long inss, long irrf, long liquido) {
+}
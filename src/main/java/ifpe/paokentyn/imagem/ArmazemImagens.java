@@ -0,0 +1,199 @@
+package ifpe.paokentyn.imagem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Armazém de imagens em disco, endereçado pelo conteúdo.
+ *
+ * Cada imagem é gravada uma única vez, num arquivo cujo nome é o SHA-256
+ * do conteúdo (em {@code raiz/ab/abcdef...}); gravar de novo a mesma foto
+ * não ocupa mais espaço. A gravação e a leitura são em fluxo, em blocos de
+ * {@value #TAMANHO_BLOCO} bytes, e o envio usa
+ * {@link FileChannel#transferTo}, que deixa o sistema operacional copiar
+ * do disco para o destino sem passar pelo heap.
+ *
+ * @author isabe
+ */
+public class ArmazemImagens {
+
+    static final int TAMANHO_BLOCO = 64 * 1024;
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String TEMPORARIOS = "tmp";
+
+    private final Path raiz;
+
+    public ArmazemImagens(Path raiz) throws IOException {
+        this.raiz = raiz;
+        Files.createDirectories(raiz.resolve(TEMPORARIOS));
+    }
+
+    /**
+     * Grava o conteúdo lido de {@code entrada} (sem fechá-la) e devolve o
+     * hash que o identifica.
+     */
+    public String gravar(InputStream entrada) throws IOException {
+        try (Recebimento recebimento = receber(entrada)) {
+            recebimento.guardar();
+            return recebimento.getHash();
+        }
+    }
+
+    /**
+     * Lê o conteúdo de {@code entrada} (sem fechá-la) para um arquivo
+     * temporário e calcula o hash, sem ainda colocar a imagem no armazém.
+     * Assim quem chama pode coordenar {@link Recebimento#guardar()} com
+     * remoções da mesma imagem.
+     */
+    public Recebimento receber(InputStream entrada) throws IOException {
+        MessageDigest digest = sha256();
+        Path temporario = Files.createTempFile(raiz.resolve(TEMPORARIOS), "img", null);
+        try {
+            ReadableByteChannel origem = Channels.newChannel(entrada);
+            try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+                ByteBuffer bloco = ByteBuffer.allocate(TAMANHO_BLOCO);
+                while (origem.read(bloco) >= 0) {
+                    bloco.flip();
+                    digest.update(bloco.array(), 0, bloco.limit());
+                    while (bloco.hasRemaining()) {
+                        destino.write(bloco);
+                    }
+                    bloco.clear();
+                }
+                destino.force(true);
+            }
+            return new Recebimento(HexFormat.of().formatHex(digest.digest()), temporario);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+    }
+
+    public boolean existe(String hash) {
+        return Files.exists(caminho(hash));
+    }
+
+    public long tamanho(String hash) throws IOException {
+        return Files.size(arquivo(hash));
+    }
+
+    /**
+     * Abre a imagem para leitura em fluxo. Quem chama fecha o stream.
+     */
+    public InputStream abrir(String hash) throws IOException {
+        return Files.newInputStream(arquivo(hash));
+    }
+
+    /**
+     * Envia {@code quantidade} bytes da imagem, a partir de {@code inicio},
+     * para o canal de destino (por exemplo, o socket de uma resposta HTTP
+     * com Range). Devolve quantos bytes foram enviados, que é menor que
+     * {@code quantidade} quando o intervalo passa do fim do arquivo.
+     */
+    public long enviar(String hash, long inicio, long quantidade, WritableByteChannel destino) throws IOException {
+        if (inicio < 0 || quantidade < 0) {
+            throw new IllegalArgumentException("Intervalo inválido: " + inicio + "+" + quantidade);
+        }
+        try (FileChannel origem = FileChannel.open(arquivo(hash), StandardOpenOption.READ)) {
+            long fim = Math.min(origem.size(), inicio + quantidade);
+            long posicao = inicio;
+            while (posicao < fim) {
+                long enviados = origem.transferTo(posicao, fim - posicao, destino);
+                if (enviados <= 0) {
+                    break;
+                }
+                posicao += enviados;
+            }
+            return Math.max(0, posicao - inicio);
+        }
+    }
+
+    /**
+     * Envia a imagem inteira para o canal de destino.
+     */
+    public long enviar(String hash, WritableByteChannel destino) throws IOException {
+        return enviar(hash, 0, Long.MAX_VALUE, destino);
+    }
+
+    public boolean remover(String hash) throws IOException {
+        return Files.deleteIfExists(caminho(hash));
+    }
+
+    private Path arquivo(String hash) throws NoSuchFileException {
+        Path arquivo = caminho(hash);
+        if (!Files.exists(arquivo)) {
+            throw new NoSuchFileException(arquivo.toString(), null, "Imagem não encontrada: " + hash);
+        }
+        return arquivo;
+    }
+
+    private Path caminho(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Hash de imagem inválido: " + hash);
+        }
+        return raiz.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Imagem recebida e ainda fora do armazém. Fechar apaga o temporário.
+     */
+    public final class Recebimento implements Closeable {
+
+        private final String hash;
+        private final Path temporario;
+
+        private Recebimento(String hash, Path temporario) {
+            this.hash = hash;
+            this.temporario = temporario;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        /**
+         * Coloca a imagem no armazém, se ela ainda não estiver lá.
+         */
+        public void guardar() throws IOException {
+            Path arquivo = caminho(hash);
+            if (!Files.exists(arquivo)) {
+                Files.createDirectories(arquivo.getParent());
+                try {
+                    Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Outra gravação da mesma imagem chegou antes
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(temporario);
+        }
+    }
+}
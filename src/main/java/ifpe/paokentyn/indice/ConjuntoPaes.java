@@ -0,0 +1,82 @@
+package ifpe.paokentyn.indice;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Conjunto imutável de pães, resultado de uma consulta ao
+ * {@link IndiceIngredientes}. As operações não alteram os operandos e só
+ * valem entre conjuntos da mesma versão do índice.
+ *
+ * @author isabe
+ */
+public final class ConjuntoPaes {
+
+    private final IndiceIngredientes.Versao versao;
+    private final BitSet bits;
+
+    ConjuntoPaes(IndiceIngredientes.Versao versao, BitSet bits) {
+        this.versao = versao;
+        this.bits = bits;
+    }
+
+    /** Pães que estão nos dois conjuntos. */
+    public ConjuntoPaes e(ConjuntoPaes outro) {
+        BitSet resultado = copiar(outro);
+        resultado.and(outro.bits);
+        return new ConjuntoPaes(versao, resultado);
+    }
+
+    /** Pães que estão em algum dos dois conjuntos. */
+    public ConjuntoPaes ou(ConjuntoPaes outro) {
+        BitSet resultado = copiar(outro);
+        resultado.or(outro.bits);
+        return new ConjuntoPaes(versao, resultado);
+    }
+
+    /** Pães deste conjunto que não estão no outro. */
+    public ConjuntoPaes exceto(ConjuntoPaes outro) {
+        BitSet resultado = copiar(outro);
+        resultado.andNot(outro.bits);
+        return new ConjuntoPaes(versao, resultado);
+    }
+
+    public boolean contem(long idPao) {
+        int posicao = versao.posicao(idPao);
+        return posicao >= 0 && bits.get(posicao);
+    }
+
+    public int tamanho() {
+        return bits.cardinality();
+    }
+
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    /** Ids dos pães, em ordem crescente. */
+    public long[] ids() {
+        long[] ids = new long[bits.cardinality()];
+        int i = 0;
+        for (int posicao = bits.nextSetBit(0); posicao >= 0; posicao = bits.nextSetBit(posicao + 1)) {
+            ids[i++] = versao.idPao(posicao);
+        }
+        return ids;
+    }
+
+    public List<Long> listar() {
+        List<Long> lista = new ArrayList<>(bits.cardinality());
+        for (long id : ids()) {
+            lista.add(id);
+        }
+        return lista;
+    }
+
+    private BitSet copiar(ConjuntoPaes outro) {
+        if (outro.versao != versao) {
+            throw new IllegalArgumentException("Conjuntos de versões diferentes do índice");
+        }
+        return (BitSet) bits.clone();
+    }
+}
@@ -0,0 +1,76 @@
+package ifpe.paokentyn.indice;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para chaves {@code long}: diz com certeza que uma chave
+ * nunca foi adicionada, ou que talvez tenha sido (com a taxa de falsos
+ * positivos escolhida, enquanto não passar da capacidade). Aceita
+ * inclusões concorrentes; não tem remoção.
+ *
+ * As posições vêm de hash duplo sobre o espalhamento da chave (o
+ * finalizador do SplitMix64): {@code h1 + i * h2}.
+ *
+ * @author isabe
+ */
+final class FiltroBloom {
+
+    private final AtomicLongArray palavras;
+    private final long bits;
+    private final int funcoes;
+
+    FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Taxa de falso positivo inválida: " + taxaFalsoPositivo);
+        }
+        long n = Math.max(1, capacidade);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        m = Math.min(Math.max(64, m), (long) Integer.MAX_VALUE * 64);
+        this.palavras = new AtomicLongArray((int) ((m + 63) / 64));
+        this.bits = palavras.length() * 64L;
+        this.funcoes = (int) Math.max(1, Math.round((double) bits / n * Math.log(2)));
+    }
+
+    void adicionar(long chave) {
+        long h = espalhar(chave);
+        long h1 = h & 0xFFFFFFFFL;
+        long h2 = (h >>> 32) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = palavras.get(palavra);
+            while ((atual & mascara) == 0 && !palavras.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = palavras.get(palavra);
+            }
+        }
+    }
+
+    boolean talvezContenha(long chave) {
+        long h = espalhar(chave);
+        long h1 = h & 0xFFFFFFFFL;
+        long h2 = (h >>> 32) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bits() {
+        return bits;
+    }
+
+    int funcoes() {
+        return funcoes;
+    }
+
+    private static long espalhar(long chave) {
+        long z = chave + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
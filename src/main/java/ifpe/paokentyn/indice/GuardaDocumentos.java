@@ -0,0 +1,338 @@
+package ifpe.paokentyn.indice;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.Padaria;
+import ifpe.paokentyn.persistence.OuvinteCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+
+/**
+ * Confere, antes do INSERT, se um CNPJ de padaria ou CPF de funcionário
+ * já está em uso, para que cargas em lote descartem as linhas repetidas
+ * sem um SELECT por linha e sem derrubar a transação do lote inteiro na
+ * violação de unicidade.
+ *
+ * Cada tipo de documento tem um {@link FiltroBloom} aquecido com
+ * {@code TB_PADARIA.TXT_CNPJ} e {@code TB_FUNCIONARIO.TXT_CPF} no primeiro
+ * uso (ou em {@link #carregar()}). Se o filtro diz que o documento nunca
+ * foi visto, ele está livre; só os positivos (repetidos de verdade ou
+ * falsos positivos) vão ao banco para a confirmação exata. Os documentos
+ * são comparados pelos dígitos, com ou sem máscara.
+ *
+ * {@link #reservarCnpj}/{@link #reservarCpf} também seguram o documento
+ * para quem reservou primeiro, de modo que duas linhas iguais no mesmo
+ * lote (ou em lotes concorrentes) não passem as duas. Padarias e
+ * funcionários gravados com sucesso entram no filtro quando a transação é
+ * confirmada e a reserva é solta; linhas que desistiram do documento
+ * devolvem com {@link #liberarCnpj}/{@link #liberarCpf}. Inclusões por SQL
+ * nativo não são vistas até o próximo {@link #carregar()}.
+ *
+ * @author isabe
+ */
+public class GuardaDocumentos implements AutoCloseable {
+
+    public static final double TAXA_FALSO_POSITIVO_PADRAO = 0.001;
+    public static final int CAPACIDADE_MINIMA = 10_000;
+
+    private final EntityManagerFactory emf;
+    private final Sincronizacao sincronizacao;
+    private final double taxaFalsoPositivo;
+
+    private final Documentos cnpjs = new Documentos("SELECT p.cnpj FROM Padaria p",
+            "SELECT COUNT(p) FROM Padaria p", "SELECT COUNT(p) FROM Padaria p WHERE p.cnpj IN :formas", 14);
+    private final Documentos cpfs = new Documentos("SELECT f.cpf FROM Funcionario f",
+            "SELECT COUNT(f) FROM Funcionario f", "SELECT COUNT(f) FROM Funcionario f WHERE f.cpf IN :formas", 11);
+
+    private final AtomicLong consultasExatas = new AtomicLong();
+    private final AtomicLong falsosPositivos = new AtomicLong();
+
+    public GuardaDocumentos(EntityManagerFactory emf) {
+        this(emf, TAXA_FALSO_POSITIVO_PADRAO);
+    }
+
+    public GuardaDocumentos(EntityManagerFactory emf, double taxaFalsoPositivo) {
+        if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Taxa de falso positivo inválida: " + taxaFalsoPositivo);
+        }
+        this.emf = emf;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.sincronizacao = new Sincronizacao();
+    }
+
+    /** (Re)aquece os filtros com os documentos gravados. */
+    public void carregar() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            cnpjs.carregar(em);
+            cpfs.carregar(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    /** Se o CNPJ já está gravado ou reservado. */
+    public boolean existeCnpj(String cnpj) {
+        return cnpjs.existe(chave(cnpj));
+    }
+
+    /** Se o CPF já está gravado ou reservado. */
+    public boolean existeCpf(String cpf) {
+        return cpfs.existe(chave(cpf));
+    }
+
+    /**
+     * Reserva o CNPJ para uma nova padaria.
+     *
+     * @return falso se ele já está gravado ou reservado
+     */
+    public boolean reservarCnpj(String cnpj) {
+        return cnpjs.reservar(chave(cnpj));
+    }
+
+    /**
+     * Reserva o CPF para um novo funcionário.
+     *
+     * @return falso se ele já está gravado ou reservado
+     */
+    public boolean reservarCpf(String cpf) {
+        return cpfs.reservar(chave(cpf));
+    }
+
+    public void liberarCnpj(String cnpj) {
+        cnpjs.reservados.remove(chave(cnpj));
+    }
+
+    public void liberarCpf(String cpf) {
+        cpfs.reservados.remove(chave(cpf));
+    }
+
+    /** Consultas ao banco feitas para confirmar um positivo do filtro. */
+    public long getConsultasExatas() {
+        return consultasExatas.get();
+    }
+
+    /** Positivos do filtro que o banco desmentiu. */
+    public long getFalsosPositivos() {
+        return falsosPositivos.get();
+    }
+
+    @Override
+    public void close() {
+        sincronizacao.close();
+    }
+
+    /** Os dígitos do documento como número; a máscara é ignorada. */
+    static long chave(String documento) {
+        if (documento == null) {
+            throw new IllegalArgumentException("Documento nulo");
+        }
+        long chave = 0;
+        int digitos = 0;
+        for (int i = 0; i < documento.length(); i++) {
+            char c = documento.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > 18) {
+                    throw new IllegalArgumentException("Documento inválido: " + documento);
+                }
+                chave = chave * 10 + (c - '0');
+            }
+        }
+        if (digitos == 0) {
+            throw new IllegalArgumentException("Documento inválido: " + documento);
+        }
+        return chave;
+    }
+
+    // Documentos já gravados sem dígitos (ou vazios) ficam de fora
+    private static long chaveGravada(String documento) {
+        try {
+            return chave(documento);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private final class Documentos {
+
+        private final String selecao;
+        private final String contagem;
+        private final String existencia;
+        private final int digitos;
+        private final Set<Long> reservados = ConcurrentHashMap.newKeySet();
+        // Guarda a publicação do filtro e os confirmados durante uma carga
+        private final Object trava = new Object();
+        private volatile FiltroBloom filtro;
+        private List<Long> confirmadosNaCarga;
+
+        private Documentos(String selecao, String contagem, String existencia, int digitos) {
+            this.selecao = selecao;
+            this.contagem = contagem;
+            this.existencia = existencia;
+            this.digitos = digitos;
+        }
+
+        private boolean existe(long chave) {
+            return reservados.contains(chave) || gravado(chave);
+        }
+
+        // Reserva antes de olhar o filtro: quem grava inclui no filtro antes de soltar a reserva
+        private boolean reservar(long chave) {
+            if (!reservados.add(chave)) {
+                return false;
+            }
+            if (gravado(chave)) {
+                reservados.remove(chave);
+                return false;
+            }
+            return true;
+        }
+
+        private boolean gravado(long chave) {
+            if (!filtro().talvezContenha(chave)) {
+                return false;
+            }
+            consultasExatas.incrementAndGet();
+            EntityManager em = emf.createEntityManager();
+            try {
+                boolean existe = em.createQuery(existencia, Long.class)
+                        .setParameter("formas", formas(chave))
+                        .getSingleResult() > 0;
+                if (!existe) {
+                    falsosPositivos.incrementAndGet();
+                }
+                return existe;
+            } finally {
+                em.close();
+            }
+        }
+
+        // Como o documento pode estar gravado: só dígitos ou com a máscara
+        private List<String> formas(long chave) {
+            String numero = String.format("%0" + digitos + "d", chave);
+            if (digitos == 11) {
+                return List.of(numero, numero.substring(0, 3) + "." + numero.substring(3, 6) + "."
+                        + numero.substring(6, 9) + "-" + numero.substring(9));
+            }
+            return List.of(numero, numero.substring(0, 2) + "." + numero.substring(2, 5) + "."
+                    + numero.substring(5, 8) + "/" + numero.substring(8, 12) + "-" + numero.substring(12));
+        }
+
+        private FiltroBloom filtro() {
+            FiltroBloom atual = filtro;
+            if (atual == null) {
+                synchronized (this) {
+                    atual = filtro;
+                    if (atual == null) {
+                        EntityManager em = emf.createEntityManager();
+                        try {
+                            atual = carregar(em);
+                        } finally {
+                            em.close();
+                        }
+                    }
+                }
+            }
+            return atual;
+        }
+
+        /**
+         * O filtro novo só é publicado cheio; até lá o anterior continua
+         * valendo. O que for confirmado durante a leitura entra no anterior
+         * e é guardado para entrar no novo antes da publicação.
+         */
+        private synchronized FiltroBloom carregar(EntityManager em) {
+            synchronized (trava) {
+                confirmadosNaCarga = new ArrayList<>();
+            }
+            try {
+                long quantidade = em.createQuery(contagem, Long.class).getSingleResult();
+                FiltroBloom novo = new FiltroBloom((int) Math.min(Integer.MAX_VALUE,
+                        Math.max(CAPACIDADE_MINIMA, quantidade * 2)), taxaFalsoPositivo);
+                try (Stream<String> documentos = em.createQuery(selecao, String.class)
+                        .setHint(QueryHints.READ_ONLY, true)
+                        .setHint(QueryHints.JDBC_FETCH_SIZE, 1000)
+                        .getResultStream()) {
+                    documentos.mapToLong(GuardaDocumentos::chaveGravada)
+                            .filter(chave -> chave >= 0)
+                            .forEach(novo::adicionar);
+                }
+                synchronized (trava) {
+                    confirmadosNaCarga.forEach(novo::adicionar);
+                    filtro = novo;
+                }
+                return novo;
+            } finally {
+                synchronized (trava) {
+                    confirmadosNaCarga = null;
+                }
+            }
+        }
+
+        // Entram no filtro (ou na carga em curso) antes de a reserva ser solta
+        private void gravados(List<Long> chaves) {
+            synchronized (trava) {
+                FiltroBloom atual = filtro;
+                for (Long chave : chaves) {
+                    if (atual != null) {
+                        atual.adicionar(chave);
+                    }
+                    if (confirmadosNaCarga != null) {
+                        confirmadosNaCarga.add(chave);
+                    }
+                }
+            }
+            chaves.forEach(reservados::remove);
+        }
+    }
+
+    private static final class Mudancas {
+
+        private final List<Long> cnpjs = new ArrayList<>();
+        private final List<Long> cpfs = new ArrayList<>();
+    }
+
+    private final class Sincronizacao extends OuvinteCommit<Mudancas> {
+
+        private Sincronizacao() {
+            super(emf, List.of(Padaria.class, Funcionario.class), List.of());
+        }
+
+        @Override
+        protected Mudancas iniciar() {
+            return new Mudancas();
+        }
+
+        @Override
+        protected void alterada(ObjectChangeSet mudanca, Mudancas mudancas) {
+            Object clone = mudanca.getUnitOfWorkClone();
+            if (clone instanceof Padaria && (mudanca.isNew() || mudanca.getChangesForAttributeNamed("cnpj") != null)) {
+                adicionar(mudancas.cnpjs, ((Padaria) clone).getCnpj());
+            } else if (clone instanceof Funcionario
+                    && (mudanca.isNew() || mudanca.getChangesForAttributeNamed("cpf") != null)) {
+                adicionar(mudancas.cpfs, ((Funcionario) clone).getCpf());
+            }
+        }
+
+        // SQL nativo não é visto até o próximo carregar()
+        @Override
+        protected void confirmar(Mudancas mudancas, boolean emMassa) {
+            cnpjs.gravados(mudancas.cnpjs);
+            cpfs.gravados(mudancas.cpfs);
+        }
+
+        private void adicionar(List<Long> chaves, String documento) {
+            long chave = chaveGravada(documento);
+            if (chave >= 0) {
+                chaves.add(chave);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ifpe.paokentyn.indice;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Heap mínimo indexado de ids por um valor {@code long} (prazo, carga);
+ * no empate vence o menor id. Valores e ids ficam em arrays primitivos
+ * paralelos; um mapa do id para a posição no heap permite mudar o valor
+ * ou remover um id em O(log n). Não é thread-safe.
+ *
+ * @author isabe
+ */
+public final class HeapIndexado {
+
+    private long[] valores = new long[16];
+    private long[] ids = new long[16];
+    private final Map<Long, Integer> posicoes = new HashMap<>();
+    private int tamanho;
+
+    /** Inclui o id com o valor, ou troca o valor se ele já estiver no heap. */
+    public void definir(long id, long valor) {
+        Integer posicao = posicoes.get(id);
+        if (posicao != null) {
+            valores[posicao] = valor;
+            reposicionar(posicao);
+            return;
+        }
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, tamanho * 2);
+            ids = Arrays.copyOf(ids, tamanho * 2);
+        }
+        valores[tamanho] = valor;
+        ids[tamanho] = id;
+        posicoes.put(id, tamanho);
+        subir(tamanho++);
+    }
+
+    /** Soma {@code delta} ao valor do id; falso se ele não está no heap. */
+    public boolean ajustar(long id, long delta) {
+        Integer posicao = posicoes.get(id);
+        if (posicao == null) {
+            return false;
+        }
+        valores[posicao] += delta;
+        reposicionar(posicao);
+        return true;
+    }
+
+    public boolean remover(long id) {
+        Integer posicao = posicoes.remove(id);
+        if (posicao == null) {
+            return false;
+        }
+        tamanho--;
+        if (posicao != tamanho) {
+            valores[posicao] = valores[tamanho];
+            ids[posicao] = ids[tamanho];
+            posicoes.put(ids[posicao], posicao);
+            reposicionar(posicao);
+        }
+        return true;
+    }
+
+    /** Valor do id, ou null se ele não está no heap. */
+    public Long valor(long id) {
+        Integer posicao = posicoes.get(id);
+        return posicao == null ? null : valores[posicao];
+    }
+
+    public boolean contem(long id) {
+        return posicoes.containsKey(id);
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /** Id de menor valor; só com o heap não vazio. */
+    public long menorId() {
+        return ids[0];
+    }
+
+    /** Menor valor; só com o heap não vazio. */
+    public long menorValor() {
+        return valores[0];
+    }
+
+    public void limpar() {
+        posicoes.clear();
+        tamanho = 0;
+    }
+
+    private boolean antes(int a, int b) {
+        return valores[a] < valores[b] || (valores[a] == valores[b] && ids[a] < ids[b]);
+    }
+
+    private void reposicionar(int posicao) {
+        if (posicao > 0 && antes(posicao, (posicao - 1) / 2)) {
+            subir(posicao);
+        } else {
+            descer(posicao);
+        }
+    }
+
+    private void subir(int posicao) {
+        while (posicao > 0) {
+            int pai = (posicao - 1) / 2;
+            if (!antes(posicao, pai)) {
+                break;
+            }
+            trocar(posicao, pai);
+            posicao = pai;
+        }
+    }
+
+    private void descer(int posicao) {
+        while (true) {
+            int menor = posicao;
+            int esquerda = 2 * posicao + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && antes(esquerda, menor)) {
+                menor = esquerda;
+            }
+            if (direita < tamanho && antes(direita, menor)) {
+                menor = direita;
+            }
+            if (menor == posicao) {
+                return;
+            }
+            trocar(posicao, menor);
+            posicao = menor;
+        }
+    }
+
+    private void trocar(int a, int b) {
+        long valor = valores[a];
+        long id = ids[a];
+        valores[a] = valores[b];
+        ids[a] = ids[b];
+        valores[b] = valor;
+        ids[b] = id;
+        posicoes.put(ids[a], a);
+        posicoes.put(ids[b], b);
+    }
+}
@@ -0,0 +1,189 @@
+package ifpe.paokentyn.indice;
+
+import ifpe.paokentyn.domain.Ingrediente;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.ReceitaIngrediente;
+import ifpe.paokentyn.persistence.OuvinteCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice invertido em memória de ingrediente para pães, para filtrar o
+ * cardápio ("sem ovos e sem polvilho", "com farinha e gergilim") sem ir
+ * ao banco.
+ *
+ * Só entram os pães ativos. Eles são numerados de 0 a n-1 pela ordem do
+ * id, e cada ingrediente guarda um {@link BitSet} dessas posições; com a
+ * numeração densa o bitset tem um bit por pão do cardápio, e as operações
+ * de conjunto são AND/OR/ANDNOT sobre palavras de 64 bits.
+ *
+ * O índice se mantém atualizado sozinho: um listener na sessão do
+ * EclipseLink marca o índice como desatualizado sempre que uma transação
+ * confirmada alterar pães, ingredientes ou receitas (inclusive por
+ * UPDATE/DELETE em massa ou SQL nativo nessas tabelas). A próxima
+ * consulta recarrega o índice com duas consultas. Feche o índice para
+ * remover o listener.
+ *
+ * @author isabe
+ */
+public class IndiceIngredientes implements AutoCloseable {
+
+    private final EntityManagerFactory emf;
+    private final Sincronizacao sincronizacao;
+
+    private volatile Versao versao;
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    public IndiceIngredientes(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.sincronizacao = new Sincronizacao();
+    }
+
+    /** Todos os pães do cardápio. */
+    public ConjuntoPaes todos() {
+        Versao atual = atual();
+        return new ConjuntoPaes(atual, atual.todos);
+    }
+
+    /** Pães que levam o ingrediente. */
+    public ConjuntoPaes com(long idIngrediente) {
+        Versao atual = atual();
+        return new ConjuntoPaes(atual, atual.paes(idIngrediente));
+    }
+
+    /** Pães que levam todos os ingredientes. */
+    public ConjuntoPaes comTodos(long... idsIngrediente) {
+        Versao atual = atual();
+        BitSet bits = (BitSet) atual.todos.clone();
+        for (long id : idsIngrediente) {
+            bits.and(atual.paes(id));
+        }
+        return new ConjuntoPaes(atual, bits);
+    }
+
+    /** Pães que levam pelo menos um dos ingredientes. */
+    public ConjuntoPaes comAlgum(long... idsIngrediente) {
+        Versao atual = atual();
+        BitSet bits = new BitSet(atual.idsPao.length);
+        for (long id : idsIngrediente) {
+            bits.or(atual.paes(id));
+        }
+        return new ConjuntoPaes(atual, bits);
+    }
+
+    /** Pães que não levam nenhum dos ingredientes. */
+    public ConjuntoPaes semNenhum(long... idsIngrediente) {
+        Versao atual = atual();
+        BitSet bits = (BitSet) atual.todos.clone();
+        for (long id : idsIngrediente) {
+            bits.andNot(atual.paes(id));
+        }
+        return new ConjuntoPaes(atual, bits);
+    }
+
+    /** Descarta o índice atual; a próxima consulta recarrega. */
+    public void invalidar() {
+        invalidacoes.incrementAndGet();
+        versao = null;
+    }
+
+    @Override
+    public void close() {
+        sincronizacao.close();
+    }
+
+    private Versao atual() {
+        Versao atual = versao;
+        if (atual == null) {
+            synchronized (this) {
+                atual = versao;
+                if (atual == null) {
+                    long antes = invalidacoes.get();
+                    atual = carregar();
+                    // Se o catálogo mudou durante a carga, a próxima consulta recarrega
+                    if (invalidacoes.get() == antes) {
+                        versao = atual;
+                    }
+                }
+            }
+        }
+        return atual;
+    }
+
+    private Versao carregar() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Long> paes = em.createQuery("SELECT p.id FROM Pao p WHERE p.ativo = true ORDER BY p.id", Long.class)
+                    .getResultList();
+            List<Object[]> receitas = em.createQuery(
+                    "SELECT r.idIngrediente, r.idPao FROM ReceitaIngrediente r", Object[].class).getResultList();
+
+            long[] idsPao = paes.stream().mapToLong(Long::longValue).toArray();
+            BitSet todos = new BitSet(idsPao.length);
+            todos.set(0, idsPao.length);
+
+            Map<Long, BitSet> porIngrediente = new HashMap<>();
+            for (Object[] receita : receitas) {
+                int posicao = Arrays.binarySearch(idsPao, (Long) receita[1]);
+                if (posicao >= 0) {
+                    porIngrediente.computeIfAbsent((Long) receita[0], k -> new BitSet(idsPao.length)).set(posicao);
+                }
+            }
+            return new Versao(idsPao, todos, porIngrediente);
+        } finally {
+            em.close();
+        }
+    }
+
+    static final class Versao {
+
+        private static final BitSet VAZIO = new BitSet();
+
+        private final long[] idsPao;
+        private final BitSet todos;
+        private final Map<Long, BitSet> porIngrediente;
+
+        private Versao(long[] idsPao, BitSet todos, Map<Long, BitSet> porIngrediente) {
+            this.idsPao = idsPao;
+            this.todos = todos;
+            this.porIngrediente = porIngrediente;
+        }
+
+        int posicao(long idPao) {
+            return Arrays.binarySearch(idsPao, idPao);
+        }
+
+        long idPao(int posicao) {
+            return idsPao[posicao];
+        }
+
+        // Nunca devolve o bitset guardado para quem vai alterá-lo
+        private BitSet paes(long idIngrediente) {
+            return (BitSet) porIngrediente.getOrDefault(idIngrediente, VAZIO).clone();
+        }
+    }
+
+    private final class Sincronizacao extends OuvinteCommit<Void> {
+
+        private Sincronizacao() {
+            super(emf, List.of(Pao.class, Ingrediente.class, ReceitaIngrediente.class),
+                    List.of("TB_PAO", "TB_INGREDIENTE"));
+        }
+
+        @Override
+        protected Void iniciar() {
+            return null;
+        }
+
+        @Override
+        protected void confirmar(Void mudancas, boolean emMassa) {
+            invalidar();
+        }
+    }
+}
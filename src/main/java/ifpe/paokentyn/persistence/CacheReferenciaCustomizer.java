@@ -0,0 +1,69 @@
+package ifpe.paokentyn.persistence;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionCustomizer;
+
+/**
+ * Configura o cache compartilhado das entidades de referência (as marcadas
+ * com {@code @Cacheable}; as demais ficam isoladas pelo
+ * {@code shared-cache-mode} ENABLE_SELECTIVE).
+ *
+ * Cada entidade em cache usa um LRU de tamanho fixo e, opcionalmente, um
+ * tempo de vida. Os valores vêm das propriedades da unidade de
+ * persistência, com sufixo opcional pelo nome da entidade:
+ * <pre>
+ * paokentyn.cache.tamanho=1000
+ * paokentyn.cache.tamanho.Pao=500
+ * paokentyn.cache.ttl-segundos=3600
+ * </pre>
+ *
+ * @author isabe
+ */
+public class CacheReferenciaCustomizer implements SessionCustomizer {
+
+    public static final String PROPRIEDADE_TAMANHO = "paokentyn.cache.tamanho";
+    public static final String PROPRIEDADE_TTL_SEGUNDOS = "paokentyn.cache.ttl-segundos";
+
+    public static final int TAMANHO_PADRAO = 1000;
+
+    @Override
+    public void customize(Session session) throws Exception {
+        EstatisticasCache estatisticas = new EstatisticasCache();
+        session.setProperty(EstatisticasCache.PROPRIEDADE, estatisticas);
+
+        for (ClassDescriptor descriptor : session.getDescriptors().values()) {
+            if (!descriptor.getCachePolicy().isSharedIsolation()) {
+                continue;
+            }
+            String entidade = descriptor.getAlias();
+
+            descriptor.setIdentityMapClass(CacheReferenciaIdentityMap.class);
+            descriptor.setIdentityMapSize(inteiro(session, PROPRIEDADE_TAMANHO, entidade, TAMANHO_PADRAO));
+
+            long ttlSegundos = inteiro(session, PROPRIEDADE_TTL_SEGUNDOS, entidade, 0);
+            if (ttlSegundos > 0) {
+                descriptor.setCacheInvalidationPolicy(new TimeToLiveCacheInvalidationPolicy(ttlSegundos * 1000));
+            }
+            estatisticas.de(descriptor.getJavaClass());
+        }
+
+        session.setProfiler(new CacheReferenciaProfiler(estatisticas));
+    }
+
+    private static int inteiro(Session session, String propriedade, String entidade, int padrao) {
+        Object valor = session.getProperty(propriedade + "." + entidade);
+        if (valor == null) {
+            valor = session.getProperty(propriedade);
+        }
+        if (valor == null || valor.toString().isBlank()) {
+            return padrao;
+        }
+        int numero = Integer.parseInt(valor.toString().trim());
+        if (numero < 0) {
+            throw new IllegalArgumentException(propriedade + " não pode ser negativo: " + numero);
+        }
+        return numero;
+    }
+}
@@ -0,0 +1,32 @@
+package ifpe.paokentyn.persistence;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.identitymaps.CacheIdentityMap;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * Cache LRU de tamanho fixo que conta os objetos despejados ao atingir o
+ * limite.
+ *
+ * @author isabe
+ */
+public class CacheReferenciaIdentityMap extends CacheIdentityMap {
+
+    private final EstatisticasCache.Contadores contadores;
+
+    public CacheReferenciaIdentityMap(int size, ClassDescriptor descriptor, AbstractSession session, boolean isolated) {
+        super(size, descriptor, session, isolated);
+        EstatisticasCache estatisticas = session == null ? null : EstatisticasCache.de(session);
+        this.contadores = estatisticas == null || descriptor == null ? null : estatisticas.de(descriptor.getJavaClass());
+    }
+
+    @Override
+    protected void ensureFixedSize() {
+        int antes = getSize();
+        super.ensureFixedSize();
+        int despejados = antes - getSize();
+        if (despejados > 0 && contadores != null) {
+            contadores.registrarDespejos(despejados);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ifpe.paokentyn.persistence;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+
+/**
+ * Recebe os eventos de acerto e falha de cache do EclipseLink e repassa
+ * para as {@link EstatisticasCache} das entidades monitoradas.
+ */
+class CacheReferenciaProfiler extends SessionProfilerAdapter {
+
+    private final EstatisticasCache estatisticas;
+
+    CacheReferenciaProfiler(EstatisticasCache estatisticas) {
+        this.estatisticas = estatisticas;
+    }
+
+    @Override
+    public void occurred(String operacao, DatabaseQuery query, AbstractSession session) {
+        if (query == null || query.getReferenceClass() == null
+                || !estatisticas.isMonitorada(query.getReferenceClass())) {
+            return;
+        }
+        if (SessionProfiler.CacheHits.equals(operacao)) {
+            estatisticas.de(query.getReferenceClass()).registrarAcerto();
+        } else if (SessionProfiler.CacheMisses.equals(operacao)) {
+            estatisticas.de(query.getReferenceClass()).registrarFalha();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ifpe.paokentyn.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * Contadores do cache compartilhado por entidade: acertos e falhas nas
+ * buscas por ID (find e relacionamentos *-to-one) e despejos por limite
+ * de tamanho.
+ *
+ * @author isabe
+ */
+public class EstatisticasCache {
+
+    static final String PROPRIEDADE = EstatisticasCache.class.getName();
+
+    private final Map<Class<?>, Contadores> porEntidade = new ConcurrentHashMap<>();
+
+    public static EstatisticasCache de(EntityManagerFactory emf) {
+        return de(emf.unwrap(JpaEntityManagerFactory.class).getServerSession());
+    }
+
+    static EstatisticasCache de(Session session) {
+        return (EstatisticasCache) session.getProperty(PROPRIEDADE);
+    }
+
+    public Contadores de(Class<?> entidade) {
+        return porEntidade.computeIfAbsent(entidade, e -> new Contadores());
+    }
+
+    public boolean isMonitorada(Class<?> entidade) {
+        return porEntidade.containsKey(entidade);
+    }
+
+    public static class Contadores {
+
+        private final LongAdder acertos = new LongAdder();
+        private final LongAdder falhas = new LongAdder();
+        private final LongAdder despejos = new LongAdder();
+
+        void registrarAcerto() {
+            acertos.increment();
+        }
+
+        void registrarFalha() {
+            falhas.increment();
+        }
+
+        void registrarDespejos(int quantidade) {
+            despejos.add(quantidade);
+        }
+
+        public long getAcertos() {
+            return acertos.sum();
+        }
+
+        public long getFalhas() {
+            return falhas.sum();
+        }
+
+        public long getDespejos() {
+            return despejos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "acertos=" + getAcertos() + ", falhas=" + getFalhas() + ", despejos=" + getDespejos();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ifpe.paokentyn.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.queries.DataModifyQuery;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ModifyAllQuery;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventManager;
+
+/**
+ * Acompanha as transações confirmadas que mexem em algumas entidades, para
+ * manter estruturas em memória (índices, filas, saldos) de acordo com o
+ * banco sem consultá-lo a cada uso.
+ *
+ * Durante a transação, as mudanças das entidades observadas são passadas a
+ * {@link #alterada} (inclusões e alterações, no cálculo do conjunto de
+ * mudanças) e a {@link #excluida} (exclusões, que o EclipseLink só expõe no
+ * commit), que as acumulam num objeto do tipo {@code M} da transação.
+ * UPDATE/DELETE em massa de uma das entidades, ou SQL nativo que cite uma
+ * das tabelas, não dizem quais linhas mudaram: a transação é marcada como
+ * alterada em massa. Só depois do commit {@link #confirmar} recebe o que
+ * foi acumulado; num rollback, tudo é descartado.
+ *
+ * As subclasses devem ler nos ganchos só o que já está no clone ou no
+ * conjunto de mudanças: relacionamentos preguiçosos carregados ali geram
+ * consultas durante o commit.
+ *
+ * @param <M> o que cada transação acumula
+ * @author isabe
+ */
+public abstract class OuvinteCommit<M> extends SessionEventAdapter implements AutoCloseable {
+
+    private final String propriedade = getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(this));
+    private final SessionEventManager eventos;
+    private final Set<String> classes;
+    private final List<String> tabelas;
+
+    /**
+     * Registra o ouvinte na sessão da fábrica.
+     *
+     * @param entidades entidades observadas
+     * @param tabelas tabelas procuradas no SQL nativo, em maiúsculas
+     */
+    protected OuvinteCommit(EntityManagerFactory emf, Collection<Class<?>> entidades, Collection<String> tabelas) {
+        this.classes = entidades.stream().map(Class::getName).collect(Collectors.toUnmodifiableSet());
+        this.tabelas = List.copyOf(tabelas);
+        this.eventos = emf.unwrap(JpaEntityManagerFactory.class).getServerSession().getEventManager();
+        eventos.addListener(this);
+    }
+
+    /** O acumulador de uma transação, criado na primeira mudança observada. */
+    protected abstract M iniciar();
+
+    /** Inclusão ou alteração de uma entidade observada. */
+    protected void alterada(ObjectChangeSet mudanca, M mudancas) {
+    }
+
+    /** Exclusão de uma entidade observada. */
+    protected void excluida(ObjectChangeSet mudanca, M mudancas) {
+    }
+
+    /**
+     * Chamado depois do commit de uma transação que mexeu nas entidades
+     * observadas.
+     *
+     * @param emMassa se houve UPDATE/DELETE em massa ou SQL nativo nelas
+     */
+    protected abstract void confirmar(M mudancas, boolean emMassa);
+
+    /** Se o conjunto de mudanças é de uma das entidades observadas. */
+    protected final boolean observada(ObjectChangeSet mudanca) {
+        return classes.contains(mudanca.getClassName());
+    }
+
+    @Override
+    public void close() {
+        eventos.removeListener(this);
+    }
+
+    @Override
+    public final void postExecuteQuery(SessionEvent event) {
+        if (emMassa(event.getQuery())) {
+            transacao(event).emMassa = true;
+        }
+    }
+
+    @Override
+    public final void postCalculateUnitOfWorkChangeSet(SessionEvent event) {
+        UnitOfWorkChangeSet mudancas = (UnitOfWorkChangeSet) event.getProperty("UnitOfWorkChangeSet");
+        if (mudancas == null) {
+            return;
+        }
+        for (ObjectChangeSet mudanca : mudancas.getAllChangeSets().keySet()) {
+            if (observada(mudanca)) {
+                alterada(mudanca, transacao(event).mudancas);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void postCommitUnitOfWork(SessionEvent event) {
+        // As exclusões só entram no conjunto de mudanças durante o commit
+        if (event.getSession() instanceof UnitOfWorkImpl unitOfWork
+                && unitOfWork.getUnitOfWorkChangeSet() instanceof UnitOfWorkChangeSet mudancas) {
+            for (ObjectChangeSet mudanca : mudancas.getDeletedObjects().keySet()) {
+                if (observada(mudanca)) {
+                    excluida(mudanca, transacao(event).mudancas);
+                }
+            }
+        }
+        Transacao transacao = (Transacao) event.getSession().getProperty(propriedade);
+        if (transacao != null) {
+            event.getSession().removeProperty(propriedade);
+            confirmar(transacao.mudancas, transacao.emMassa);
+        }
+    }
+
+    @Override
+    public final void postRollbackTransaction(SessionEvent event) {
+        event.getSession().removeProperty(propriedade);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Transacao transacao(SessionEvent event) {
+        Transacao transacao = (Transacao) event.getSession().getProperty(propriedade);
+        if (transacao == null) {
+            transacao = new Transacao(iniciar());
+            event.getSession().setProperty(propriedade, transacao);
+        }
+        return transacao;
+    }
+
+    private boolean emMassa(DatabaseQuery query) {
+        if (query instanceof ModifyAllQuery) {
+            return classes.contains(((ModifyAllQuery) query).getReferenceClassName());
+        }
+        if (query instanceof DataModifyQuery && query.getSQLString() != null) {
+            String sql = query.getSQLString().toUpperCase(Locale.ROOT);
+            return tabelas.stream().anyMatch(sql::contains);
+        }
+        return false;
+    }
+
+    private final class Transacao {
+
+        private final M mudancas;
+        private boolean emMassa;
+
+        private Transacao(M mudancas) {
+            this.mudancas = mudancas;
+        }
+    }
+}
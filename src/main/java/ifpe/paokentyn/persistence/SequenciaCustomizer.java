@@ -0,0 +1,37 @@
+package ifpe.paokentyn.persistence;
+
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sessions.DatasourceLogin;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionCustomizer;
+
+/**
+ * Ajusta o tamanho do bloco de IDs pré-alocados de todas as sequências
+ * (TB_SEQUENCIA) a partir da propriedade {@value #PROPRIEDADE_TAMANHO_BLOCO}
+ * da unidade de persistência. Sem a propriedade, vale o allocationSize
+ * declarado em cada entidade.
+ *
+ * @author isabe
+ */
+public class SequenciaCustomizer implements SessionCustomizer {
+
+    public static final String PROPRIEDADE_TAMANHO_BLOCO = "paokentyn.sequencia.tamanho-bloco";
+
+    @Override
+    public void customize(Session session) throws Exception {
+        Object valor = session.getProperty(PROPRIEDADE_TAMANHO_BLOCO);
+        if (valor == null || valor.toString().isBlank()) {
+            return;
+        }
+
+        int tamanhoBloco = Integer.parseInt(valor.toString().trim());
+        if (tamanhoBloco < 1) {
+            throw new IllegalArgumentException(PROPRIEDADE_TAMANHO_BLOCO + " deve ser maior que zero: " + tamanhoBloco);
+        }
+
+        DatasourceLogin login = (DatasourceLogin) session.getDatasourceLogin();
+        for (Sequence sequencia : login.getSequences().values()) {
+            sequencia.setPreallocationSize(tamanhoBloco);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ifpe.paokentyn.persistence;
+
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionCustomizer;
+
+/**
+ * Customizador registrado na unidade de persistência DSC; aplica os
+ * ajustes de sequência e de cache.
+ *
+ * @author isabe
+ */
+public class SessaoCustomizer implements SessionCustomizer {
+
+    @Override
+    public void customize(Session session) throws Exception {
+        new SequenciaCustomizer().customize(session);
+        new CacheReferenciaCustomizer().customize(session);
+    }
+}
@@ -0,0 +1,340 @@
+package ifpe.paokentyn.prazo;
+
+import ifpe.paokentyn.domain.Tarefa;
+import ifpe.paokentyn.indice.HeapIndexado;
+import ifpe.paokentyn.persistence.OuvinteCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Acompanha os prazos ({@code dataPrevisao}) das tarefas em aberto e avisa
+ * o {@link OuvintePrazos} quando uma delas vence sem ser concluída.
+ *
+ * As tarefas abertas ficam numa fila de prioridade em memória (um
+ * {@link HeapIndexado} pelo prazo); uma única thread dorme até o prazo
+ * mais próximo, sem consultar a tabela. {@link #iniciar()} monta a fila
+ * com uma consulta pelo índice (FLG_CONCLUIDA, DT_PREVISAO), o que também
+ * recupera o estado depois de um reinício: tarefas que venceram com o
+ * monitor parado são avisadas logo na partida.
+ *
+ * Depois disso a fila acompanha as transações confirmadas por um listener
+ * na sessão do EclipseLink: tarefa nova ou remarcada entra (ou muda de
+ * lugar) na fila, tarefa concluída ou excluída sai. UPDATE/DELETE em
+ * massa ou SQL nativo em TB_TAREFA fazem a fila ser remontada do banco.
+ * Cada prazo é avisado uma vez; remarcar a tarefa rearma o aviso.
+ *
+ * @author isabe
+ */
+public class MonitorPrazos implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorPrazos.class);
+
+    private static final int TAMANHO_LOTE_CARGA = 1000;
+
+    private final EntityManagerFactory emf;
+    private final OuvintePrazos ouvinte;
+    private Sincronizacao sincronizacao;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition mudou = trava.newCondition();
+
+    // Protegidos pela trava
+    private HeapIndexado fila = new HeapIndexado();
+    private final Map<Long, Long> avisadas = new HashMap<>();
+    private Set<Long> alteradasNaCarga;
+    private boolean recarregar;
+
+    private final AtomicLong alertasDisparados = new AtomicLong();
+    private final AtomicLong cargas = new AtomicLong();
+
+    private Thread vigia;
+    private volatile boolean aberto = true;
+
+    public MonitorPrazos(EntityManagerFactory emf, OuvintePrazos ouvinte) {
+        this.emf = emf;
+        this.ouvinte = ouvinte;
+    }
+
+    /**
+     * Carrega as tarefas em aberto e começa a vigiar os prazos.
+     */
+    public synchronized void iniciar() {
+        if (vigia != null || !aberto) {
+            throw new IllegalStateException("O monitor já foi iniciado");
+        }
+        // O listener entra antes da carga para não perder o que for confirmado durante ela
+        sincronizacao = new Sincronizacao();
+        try {
+            carregar();
+        } catch (RuntimeException e) {
+            sincronizacao.close();
+            sincronizacao = null;
+            throw e;
+        }
+        vigia = new Thread(this::vigiar, "prazos-tarefas");
+        vigia.setDaemon(true);
+        vigia.start();
+    }
+
+    /** Quantas tarefas em aberto ainda aguardam o prazo. */
+    public int getTarefasMonitoradas() {
+        trava.lock();
+        try {
+            return fila.tamanho();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public long getAlertasDisparados() {
+        return alertasDisparados.get();
+    }
+
+    /** Quantas vezes a fila foi montada a partir do banco. */
+    public long getCargas() {
+        return cargas.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        aberto = false;
+        if (sincronizacao != null) {
+            sincronizacao.close();
+        }
+        trava.lock();
+        try {
+            mudou.signalAll();
+        } finally {
+            trava.unlock();
+        }
+        if (vigia != null) {
+            try {
+                vigia.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void carregar() {
+        trava.lock();
+        try {
+            alteradasNaCarga = new HashSet<>();
+        } finally {
+            trava.unlock();
+        }
+
+        List<Object[]> abertas;
+        EntityManager em = emf.createEntityManager();
+        try {
+            abertas = em.createQuery(
+                    "SELECT t.id, t.dataPrevisao FROM Tarefa t WHERE t.concluida = false ORDER BY t.dataPrevisao",
+                    Object[].class)
+                    .setHint(QueryHints.READ_ONLY, true)
+                    .setHint(QueryHints.JDBC_FETCH_SIZE, TAMANHO_LOTE_CARGA)
+                    .getResultList();
+        } catch (RuntimeException e) {
+            trava.lock();
+            try {
+                alteradasNaCarga = null;
+            } finally {
+                trava.unlock();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+
+        trava.lock();
+        try {
+            HeapIndexado nova = new HeapIndexado();
+            Map<Long, Long> aindaAbertas = new HashMap<>();
+            for (Object[] linha : abertas) {
+                long id = (Long) linha[0];
+                long prazo = ((Date) linha[1]).getTime();
+                if (alteradasNaCarga.contains(id)) {
+                    continue;
+                }
+                Long avisada = avisadas.get(id);
+                if (avisada != null && avisada == prazo) {
+                    aindaAbertas.put(id, prazo);
+                } else {
+                    nova.definir(id, prazo);
+                }
+            }
+            // O que foi confirmado durante a carga vale mais que a leitura
+            for (Long id : alteradasNaCarga) {
+                Long prazo = fila.valor(id);
+                if (prazo != null) {
+                    nova.definir(id, prazo);
+                } else if (avisadas.containsKey(id)) {
+                    aindaAbertas.put(id, avisadas.get(id));
+                }
+            }
+            avisadas.clear();
+            avisadas.putAll(aindaAbertas);
+            fila = nova;
+            alteradasNaCarga = null;
+            cargas.incrementAndGet();
+            mudou.signalAll();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void vigiar() {
+        while (aberto) {
+            long id = 0;
+            long prazo = 0;
+            boolean deveRecarregar;
+            trava.lock();
+            try {
+                while (aberto && !recarregar && !venceu()) {
+                    if (fila.isEmpty()) {
+                        mudou.await();
+                    } else {
+                        long espera = fila.menorValor() - System.currentTimeMillis();
+                        mudou.await(espera, TimeUnit.MILLISECONDS);
+                    }
+                }
+                if (!aberto) {
+                    return;
+                }
+                deveRecarregar = recarregar;
+                recarregar = false;
+                if (!deveRecarregar) {
+                    id = fila.menorId();
+                    prazo = fila.menorValor();
+                    fila.remover(id);
+                    avisadas.put(id, prazo);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                trava.unlock();
+            }
+
+            if (deveRecarregar) {
+                try {
+                    carregar();
+                } catch (RuntimeException e) {
+                    logger.error("Falha ao recarregar os prazos das tarefas", e);
+                }
+                continue;
+            }
+
+            alertasDisparados.incrementAndGet();
+            try {
+                ouvinte.atrasada(id, new Date(prazo));
+            } catch (RuntimeException e) {
+                logger.error("Falha ao avisar o atraso da tarefa {}", id, e);
+            }
+        }
+    }
+
+    private boolean venceu() {
+        return !fila.isEmpty() && fila.menorValor() <= System.currentTimeMillis();
+    }
+
+    private void aplicar(List<Tarefa> alteradas, List<Object> excluidas) {
+        trava.lock();
+        try {
+            for (Tarefa tarefa : alteradas) {
+                long id = tarefa.getId();
+                if (Boolean.TRUE.equals(tarefa.getConcluida()) || tarefa.getDataPrevisao() == null) {
+                    fila.remover(id);
+                    avisadas.remove(id);
+                } else {
+                    long prazo = tarefa.getDataPrevisao().getTime();
+                    Long avisada = avisadas.get(id);
+                    // Alterar outra coisa numa tarefa já avisada não repete o aviso
+                    if (avisada == null || avisada != prazo) {
+                        avisadas.remove(id);
+                        fila.definir(id, prazo);
+                    }
+                }
+                anotarNaCarga(id);
+            }
+            for (Object id : excluidas) {
+                fila.remover((Long) id);
+                avisadas.remove(id);
+                anotarNaCarga((Long) id);
+            }
+            mudou.signalAll();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void anotarNaCarga(long id) {
+        if (alteradasNaCarga != null) {
+            alteradasNaCarga.add(id);
+        }
+    }
+
+    private void pedirRecarga() {
+        trava.lock();
+        try {
+            recarregar = true;
+            mudou.signalAll();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private static final class Mudancas {
+
+        private final List<Tarefa> alteradas = new ArrayList<>();
+        private final List<Object> excluidas = new ArrayList<>();
+    }
+
+    private final class Sincronizacao extends OuvinteCommit<Mudancas> {
+
+        private Sincronizacao() {
+            super(emf, List.of(Tarefa.class), List.of("TB_TAREFA"));
+        }
+
+        @Override
+        protected Mudancas iniciar() {
+            return new Mudancas();
+        }
+
+        @Override
+        protected void alterada(ObjectChangeSet mudanca, Mudancas mudancas) {
+            if (mudanca.getUnitOfWorkClone() instanceof Tarefa tarefa) {
+                mudancas.alteradas.add(tarefa);
+            }
+        }
+
+        @Override
+        protected void excluida(ObjectChangeSet mudanca, Mudancas mudancas) {
+            if (mudanca.getId() != null) {
+                mudancas.excluidas.add(mudanca.getId());
+            }
+        }
+
+        @Override
+        protected void confirmar(Mudancas mudancas, boolean emMassa) {
+            if (emMassa) {
+                pedirRecarga();
+            } else {
+                aplicar(mudancas.alteradas, mudancas.excluidas);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ifpe.paokentyn.prazo;
+
+import java.util.Date;
+
+/**
+ * Recebe os avisos de tarefas que passaram do prazo sem serem concluídas.
+ * É chamado na thread do {@link MonitorPrazos}: não deve bloquear.
+ *
+ * @author isabe
+ */
+@FunctionalInterface
+public interface OuvintePrazos {
+
+    void atrasada(long idTarefa, Date prazo);
+}
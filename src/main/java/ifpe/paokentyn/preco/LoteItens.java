@@ -0,0 +1,112 @@
+package ifpe.paokentyn.preco;
+
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pedido;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Itens de vários pedidos em arrays primitivos paralelos. Os itens do
+ * pedido {@code p} ocupam as posições {@code inicio[p]} até
+ * {@code inicio[p + 1] - 1} de {@code idsPao} e {@code quantidades}.
+ *
+ * @author isabe
+ */
+public final class LoteItens {
+
+    private final long[] idsPedido;
+    private final int[] inicio;
+    private final long[] idsPao;
+    private final int[] quantidades;
+
+    private LoteItens(Construtor c) {
+        this.idsPedido = Arrays.copyOf(c.idsPedido, c.pedidos);
+        this.inicio = Arrays.copyOf(c.inicio, c.pedidos + 1);
+        this.inicio[c.pedidos] = c.itens;
+        this.idsPao = Arrays.copyOf(c.idsPao, c.itens);
+        this.quantidades = Arrays.copyOf(c.quantidades, c.itens);
+    }
+
+    public static Construtor construtor() {
+        return new Construtor();
+    }
+
+    /**
+     * Monta o lote a partir de pedidos já carregados (com itens e pães).
+     */
+    public static LoteItens de(Collection<Pedido> pedidos) {
+        Construtor construtor = construtor();
+        for (Pedido pedido : pedidos) {
+            construtor.pedido(pedido.getId() == null ? 0 : pedido.getId());
+            if (pedido.getItens() != null) {
+                for (ItemPedido item : pedido.getItens()) {
+                    construtor.item(item.getPao().getId(), item.getQuantidade());
+                }
+            }
+        }
+        return construtor.construir();
+    }
+
+    public int pedidos() {
+        return idsPedido.length;
+    }
+
+    public long idPedido(int pedido) {
+        return idsPedido[pedido];
+    }
+
+    int inicio(int pedido) {
+        return inicio[pedido];
+    }
+
+    long idPao(int item) {
+        return idsPao[item];
+    }
+
+    int quantidade(int item) {
+        return quantidades[item];
+    }
+
+    public static final class Construtor {
+
+        private long[] idsPedido = new long[16];
+        private int[] inicio = new int[17];
+        private long[] idsPao = new long[32];
+        private int[] quantidades = new int[32];
+        private int pedidos;
+        private int itens;
+
+        private Construtor() {
+        }
+
+        /** Abre um novo pedido; os itens seguintes pertencem a ele. */
+        public Construtor pedido(long idPedido) {
+            if (pedidos == idsPedido.length) {
+                idsPedido = Arrays.copyOf(idsPedido, pedidos * 2);
+                inicio = Arrays.copyOf(inicio, pedidos * 2 + 1);
+            }
+            idsPedido[pedidos] = idPedido;
+            inicio[pedidos] = itens;
+            pedidos++;
+            return this;
+        }
+
+        public Construtor item(long idPao, int quantidade) {
+            if (pedidos == 0) {
+                throw new IllegalStateException("Item sem pedido aberto");
+            }
+            if (itens == idsPao.length) {
+                idsPao = Arrays.copyOf(idsPao, itens * 2);
+                quantidades = Arrays.copyOf(quantidades, itens * 2);
+            }
+            idsPao[itens] = idPao;
+            quantidades[itens] = quantidade;
+            itens++;
+            return this;
+        }
+
+        public LoteItens construir() {
+            return new LoteItens(this);
+        }
+    }
+}
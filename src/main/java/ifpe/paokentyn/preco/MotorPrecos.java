@@ -0,0 +1,52 @@
+package ifpe.paokentyn.preco;
+
+/**
+ * Calcula o valor total de pedidos em lote: quantidade × preço do pão em
+ * cada item, somado por pedido e arredondado para centavos.
+ *
+ * O cálculo é uma única passada sobre os arrays primitivos do
+ * {@link LoteItens}, sem criar objetos por item. Os preços vêm de uma
+ * {@link TabelaPrecos} fixa, então o resultado não muda se o cardápio
+ * mudar no meio do cálculo.
+ *
+ * @author isabe
+ */
+public class MotorPrecos {
+
+    private final TabelaPrecos tabela;
+
+    public MotorPrecos(TabelaPrecos tabela) {
+        this.tabela = tabela;
+    }
+
+    /**
+     * Totais dos pedidos do lote, na ordem do lote.
+     *
+     * @throws IllegalArgumentException se algum item for de um pão que não
+     *         está na tabela
+     */
+    public double[] totalizar(LoteItens lote) {
+        double[] totais = new double[lote.pedidos()];
+        for (int p = 0; p < totais.length; p++) {
+            double total = 0;
+            for (int i = lote.inicio(p), fim = lote.inicio(p + 1); i < fim; i++) {
+                int indice = tabela.indice(lote.idPao(i));
+                if (indice < 0) {
+                    throw new IllegalArgumentException("Pão sem preço na tabela: " + lote.idPao(i)
+                            + " (pedido " + lote.idPedido(p) + ")");
+                }
+                total += lote.quantidade(i) * tabela.precoNaPosicao(indice);
+            }
+            totais[p] = centavos(total);
+        }
+        return totais;
+    }
+
+    public TabelaPrecos getTabela() {
+        return tabela;
+    }
+
+    static double centavos(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+}
@@ -0,0 +1,73 @@
+package ifpe.paokentyn.preco;
+
+import jakarta.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fotografia dos preços do cardápio num instante: ids dos pães em ordem
+ * crescente e os preços nas mesmas posições, em arrays primitivos.
+ * Imutável, pode ser compartilhada entre threads.
+ *
+ * @author isabe
+ */
+public final class TabelaPrecos {
+
+    private final long[] ids;
+    private final double[] precos;
+
+    /**
+     * @param ids ids dos pães em ordem crescente, sem repetição
+     * @param precos preço de cada pão, na mesma posição de {@code ids}
+     */
+    public TabelaPrecos(long[] ids, double[] precos) {
+        if (ids.length != precos.length) {
+            throw new IllegalArgumentException("Quantidade de ids e de preços diferente");
+        }
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] <= ids[i - 1]) {
+                throw new IllegalArgumentException("Ids devem estar em ordem crescente e sem repetição: " + ids[i]);
+            }
+        }
+        this.ids = ids.clone();
+        this.precos = precos.clone();
+    }
+
+    /**
+     * Lê os preços atuais de todos os pães.
+     */
+    public static TabelaPrecos carregar(EntityManager em) {
+        List<Object[]> linhas = em.createQuery("SELECT p.id, p.preco FROM Pao p ORDER BY p.id", Object[].class)
+                .getResultList();
+        long[] ids = new long[linhas.size()];
+        double[] precos = new double[linhas.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (Long) linhas.get(i)[0];
+            precos[i] = (Double) linhas.get(i)[1];
+        }
+        return new TabelaPrecos(ids, precos);
+    }
+
+    /**
+     * Posição do pão na tabela, ou negativo se ele não estiver nela.
+     */
+    public int indice(long idPao) {
+        return Arrays.binarySearch(ids, idPao);
+    }
+
+    public double preco(long idPao) {
+        int indice = indice(idPao);
+        if (indice < 0) {
+            throw new IllegalArgumentException("Pão sem preço na tabela: " + idPao);
+        }
+        return precos[indice];
+    }
+
+    double precoNaPosicao(int indice) {
+        return precos[indice];
+    }
+
+    public int tamanho() {
+        return ids.length;
+    }
+}
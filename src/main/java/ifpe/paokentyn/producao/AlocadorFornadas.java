@@ -0,0 +1,511 @@
+package ifpe.paokentyn.producao;
+
+import ifpe.paokentyn.domain.CapacidadeFornada;
+import ifpe.paokentyn.domain.Fornada;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.persistence.OuvinteCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.ObjectReferenceChangeRecord;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.mappings.ObjectReferenceMapping;
+
+/**
+ * Distribui os itens de pedido entre as fornadas da padaria conforme a
+ * capacidade que sobra de cada pão ({@link CapacidadeFornada} menos o que
+ * os itens já atribuídos consomem). Só contam as fornadas de hoje em
+ * diante.
+ *
+ * Cada item vai inteiro para a primeira fornada (por data, hora e id) que
+ * ainda comporte a quantidade; se a fornada está cheia, tenta a seguinte.
+ * O saldo de cada par fornada/pão é um contador atômico decrementado por
+ * compare-and-set: pedidos concorrentes disputam só o contador da fornada
+ * que querem, sem trava nenhuma. O item recebe uma fornada que só tem o
+ * id, do mesmo jeito que o pão chega nos serviços de ingestão.
+ *
+ * A reserva vale a partir de {@link #reservar}; se o pedido não for
+ * gravado, {@link Reserva#desfazer()} devolve o saldo. Enquanto o item
+ * reservado não é gravado (persist do mesmo objeto) nem desfeito, a
+ * reserva fica em andamento e é descontada de novo em cada recarga. O
+ * andamento guarda o item só por referência fraca: item abandonado (numa
+ * transação desfeita, por exemplo) devolve o saldo quando é coletado.
+ *
+ * O saldo de cada padaria é carregado na primeira reserva e descartado
+ * quando uma transação confirmada mexer em capacidades, fornadas ou em
+ * itens dela que o alocador não tenha reservado (itens gravados por merge
+ * ou com fornada escolhida por fora); UPDATE/DELETE em massa ou SQL
+ * nativo nessas tabelas descartam todas as padarias. Numa recarga
+ * simultânea à gravação de um pedido, ou enquanto o original de um item
+ * gravado por merge não é desfeito nem coletado, a reserva conta duas
+ * vezes: o alocador erra para menos, nunca passa da capacidade.
+ *
+ * @author isabe
+ */
+public class AlocadorFornadas implements AutoCloseable {
+
+    private final EntityManagerFactory emf;
+    private final Clock relogio;
+    private final Sincronizacao sincronizacao;
+
+    private final ConcurrentHashMap<Long, Saldos> saldos = new ConcurrentHashMap<>();
+    // Fornadas (de hoje em diante) das padarias já carregadas
+    private final ConcurrentHashMap<Long, Long> padariaDaFornada = new ConcurrentHashMap<>();
+    // Itens reservados e ainda não gravados, desfeitos nem coletados
+    private final Map<Chave, Pendente> emAndamento = Collections.synchronizedMap(new HashMap<>());
+    private final ReferenceQueue<ItemPedido> coletados = new ReferenceQueue<>();
+
+    public AlocadorFornadas(EntityManagerFactory emf) {
+        this(emf, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param relogio define o "hoje" a partir do qual as fornadas contam
+     */
+    public AlocadorFornadas(EntityManagerFactory emf, Clock relogio) {
+        this.emf = emf;
+        this.relogio = relogio;
+        this.sincronizacao = new Sincronizacao();
+    }
+
+    /**
+     * Reserva uma fornada da padaria para cada item ainda sem fornada.
+     * Itens de pães sem capacidade sobrando ficam sem fornada e aparecem
+     * em {@link Reserva#getNaoAlocados()}.
+     */
+    public Reserva reservar(long idPadaria, Collection<ItemPedido> itens) {
+        expurgar();
+        Reserva reserva = new Reserva(idPadaria);
+        for (ItemPedido item : itens) {
+            if (item.getFornada() != null) {
+                continue;
+            }
+            if (item.getPao() == null || item.getQuantidade() == null || !reservar(idPadaria, item)) {
+                reserva.naoAlocados.add(item);
+                continue;
+            }
+            reserva.alocados.add(item);
+        }
+        return reserva;
+    }
+
+    /**
+     * Quanto do pão a fornada ainda comporta, ou -1 se ela não tem
+     * capacidade para esse pão (ou não é da padaria, ou já passou).
+     */
+    public int restante(long idPadaria, long idFornada, long idPao) {
+        expurgar();
+        Vaga vaga = saldos(idPadaria).vaga(idFornada, idPao);
+        return vaga == null ? -1 : vaga.restante.get();
+    }
+
+    /** Descarta os saldos em memória; a próxima reserva recarrega. */
+    public void invalidar() {
+        saldos.keySet().forEach(this::invalidar);
+    }
+
+    /** Descarta os saldos da padaria; a próxima reserva nela recarrega. */
+    public void invalidar(long idPadaria) {
+        Saldos atual = saldos.get(idPadaria);
+        if (atual != null) {
+            synchronized (atual) {
+                atual.valido = false;
+                saldos.remove(idPadaria, atual);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        sincronizacao.close();
+    }
+
+    /**
+     * A reserva entra em andamento antes de conferir se os saldos ainda
+     * valem: se foram descartados nesse meio tempo, a recarga já a
+     * desconta, e ela é devolvida e refeita nos saldos novos.
+     */
+    private boolean reservar(long idPadaria, ItemPedido item) {
+        long idPao = item.getPao().getId();
+        int quantidade = item.getQuantidade();
+        while (true) {
+            Saldos atual = saldos(idPadaria);
+            Vaga vaga = atual.reservar(idPao, quantidade);
+            if (vaga == null) {
+                return false;
+            }
+            Chave chave = new Chave(item, idPadaria, coletados);
+            emAndamento.put(chave, new Pendente(atual, vaga.idFornada, idPao, quantidade));
+            if (atual.valido) {
+                Fornada fornada = new Fornada();
+                fornada.setId(vaga.idFornada);
+                item.setFornada(fornada);
+                return true;
+            }
+            devolver(idPadaria, chave);
+        }
+    }
+
+    /**
+     * Devolve a reserva aos saldos atuais, com a trava deles, se foram
+     * eles que a descontaram: os mesmos em que foi feita ou uma recarga
+     * que a encontrou em andamento.
+     */
+    private void devolver(long idPadaria, Chave chave) {
+        while (true) {
+            Saldos atual = saldos(idPadaria);
+            synchronized (atual) {
+                if (!atual.valido) {
+                    continue;
+                }
+                Pendente pendente = emAndamento.remove(chave);
+                Vaga vaga = pendente == null ? null : atual.vaga(pendente.idFornada, pendente.idPao);
+                if (vaga != null && (pendente.origem == atual || atual.contadas.contains(pendente))) {
+                    vaga.restante.addAndGet(pendente.quantidade);
+                }
+                return;
+            }
+        }
+    }
+
+    // Fora de qualquer trava de saldos: devolver pega a da padaria do item
+    private void expurgar() {
+        Reference<? extends ItemPedido> coletado;
+        while ((coletado = coletados.poll()) != null) {
+            Chave chave = (Chave) coletado;
+            devolver(chave.idPadaria, chave);
+        }
+    }
+
+    private Saldos saldos(long idPadaria) {
+        while (true) {
+            Saldos atual = saldos.computeIfAbsent(idPadaria, Saldos::new);
+            if (!atual.carregado) {
+                synchronized (atual) {
+                    if (!atual.carregado && atual.valido) {
+                        carregar(atual);
+                    }
+                }
+            }
+            if (atual.valido) {
+                return atual;
+            }
+        }
+    }
+
+    /**
+     * Roda com a trava dos saldos. As fornadas passam a apontar para a
+     * padaria e as reservas em andamento são lidas antes do consumo
+     * gravado: o que for confirmado depois descarta estes saldos ou, no
+     * pior caso, conta duas vezes.
+     */
+    private void carregar(Saldos atual) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            java.util.Date hoje = java.sql.Date.valueOf(LocalDate.now(relogio));
+            List<Long> fornadas = em.createQuery(
+                    "SELECT f.id FROM Fornada f WHERE f.padaria.id = :padaria AND f.dataFornada >= :hoje", Long.class)
+                    .setParameter("padaria", atual.idPadaria)
+                    .setParameter("hoje", hoje)
+                    .getResultList();
+            fornadas.forEach(id -> padariaDaFornada.put(id, atual.idPadaria));
+
+            Map<List<Long>, Long> consumido = new HashMap<>();
+            Set<Long> daPadaria = new HashSet<>(fornadas);
+            synchronized (emAndamento) {
+                for (Pendente pendente : emAndamento.values()) {
+                    if (daPadaria.contains(pendente.idFornada)) {
+                        atual.contadas.add(pendente);
+                        consumido.merge(List.of(pendente.idFornada, pendente.idPao), (long) pendente.quantidade, Long::sum);
+                    }
+                }
+            }
+
+            List<Object[]> capacidades = em.createQuery(
+                    "SELECT c.idPao, c.idFornada, c.quantidade FROM CapacidadeFornada c, Fornada f "
+                    + "WHERE f.id = c.idFornada AND f.padaria.id = :padaria AND f.dataFornada >= :hoje "
+                    + "ORDER BY f.dataFornada, f.horaInicio, f.id", Object[].class)
+                    .setParameter("padaria", atual.idPadaria)
+                    .setParameter("hoje", hoje)
+                    .getResultList();
+            List<Object[]> consumos = em.createQuery(
+                    "SELECT i.fornada.id, i.pao.id, SUM(i.quantidade) FROM ItemPedido i "
+                    + "WHERE i.fornada.padaria.id = :padaria AND i.fornada.dataFornada >= :hoje "
+                    + "GROUP BY i.fornada.id, i.pao.id", Object[].class)
+                    .setParameter("padaria", atual.idPadaria)
+                    .setParameter("hoje", hoje)
+                    .getResultList();
+
+            for (Object[] consumo : consumos) {
+                consumido.merge(List.of((Long) consumo[0], (Long) consumo[1]), ((Number) consumo[2]).longValue(),
+                        Long::sum);
+            }
+            Map<Long, List<Vaga>> porPao = new LinkedHashMap<>();
+            for (Object[] capacidade : capacidades) {
+                long idPao = (Long) capacidade[0];
+                long idFornada = (Long) capacidade[1];
+                long usado = consumido.getOrDefault(List.of(idFornada, idPao), 0L);
+                int restante = (int) Math.max(0, (Integer) capacidade[2] - usado);
+                porPao.computeIfAbsent(idPao, k -> new ArrayList<>()).add(new Vaga(idFornada, restante));
+            }
+            porPao.forEach((idPao, vagas) -> atual.porPao.put(idPao, vagas.toArray(new Vaga[0])));
+            atual.carregado = true;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Fornadas reservadas para os itens de um pedido.
+     */
+    public final class Reserva {
+
+        private final long idPadaria;
+        private final List<ItemPedido> alocados = new ArrayList<>();
+        private final List<ItemPedido> naoAlocados = new ArrayList<>();
+        private boolean desfeita;
+
+        private Reserva(long idPadaria) {
+            this.idPadaria = idPadaria;
+        }
+
+        /** Itens que ficaram sem fornada por falta de capacidade. */
+        public List<ItemPedido> getNaoAlocados() {
+            return Collections.unmodifiableList(naoAlocados);
+        }
+
+        public boolean isCompleta() {
+            return naoAlocados.isEmpty();
+        }
+
+        /** Devolve o saldo reservado e tira a fornada dos itens. */
+        public synchronized void desfazer() {
+            if (desfeita) {
+                return;
+            }
+            desfeita = true;
+            for (ItemPedido item : alocados) {
+                devolver(idPadaria, new Chave(item));
+                item.setFornada(null);
+            }
+        }
+    }
+
+    /**
+     * Identidade do item no andamento, sem impedir que ele seja coletado.
+     * Depois da coleta a chave só é igual a ela mesma.
+     */
+    private static final class Chave extends WeakReference<ItemPedido> {
+
+        private final long idPadaria;
+        private final int hash;
+
+        private Chave(ItemPedido item) {
+            this(item, 0, null);
+        }
+
+        private Chave(ItemPedido item, long idPadaria, ReferenceQueue<ItemPedido> fila) {
+            super(item, fila);
+            this.idPadaria = idPadaria;
+            this.hash = System.identityHashCode(item);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object outro) {
+            if (this == outro) {
+                return true;
+            }
+            ItemPedido item = get();
+            return item != null && outro instanceof Chave chave && chave.get() == item;
+        }
+    }
+
+    private static final class Pendente {
+
+        private final Saldos origem;
+        private final long idFornada;
+        private final long idPao;
+        private final int quantidade;
+
+        private Pendente(Saldos origem, long idFornada, long idPao, int quantidade) {
+            this.origem = origem;
+            this.idFornada = idFornada;
+            this.idPao = idPao;
+            this.quantidade = quantidade;
+        }
+    }
+
+    private static final class Saldos {
+
+        private static final Vaga[] NENHUMA = new Vaga[0];
+
+        private final long idPadaria;
+        private final Map<Long, Vaga[]> porPao = new HashMap<>();
+        // Reservas em andamento já descontadas na carga
+        private final Set<Pendente> contadas = Collections.newSetFromMap(new IdentityHashMap<>());
+        private volatile boolean carregado;
+        private volatile boolean valido = true;
+
+        private Saldos(long idPadaria) {
+            this.idPadaria = idPadaria;
+        }
+
+        private Vaga[] vagas(long idPao) {
+            return porPao.getOrDefault(idPao, NENHUMA);
+        }
+
+        private Vaga vaga(long idFornada, long idPao) {
+            for (Vaga vaga : vagas(idPao)) {
+                if (vaga.idFornada == idFornada) {
+                    return vaga;
+                }
+            }
+            return null;
+        }
+
+        private Vaga reservar(long idPao, int quantidade) {
+            for (Vaga vaga : vagas(idPao)) {
+                if (vaga.reservar(quantidade)) {
+                    return vaga;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Vaga {
+
+        private final long idFornada;
+        private final AtomicInteger restante;
+
+        private Vaga(long idFornada, int restante) {
+            this.idFornada = idFornada;
+            this.restante = new AtomicInteger(restante);
+        }
+
+        private boolean reservar(int quantidade) {
+            while (true) {
+                int atual = restante.get();
+                if (atual < quantidade) {
+                    return false;
+                }
+                if (restante.compareAndSet(atual, atual - quantidade)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private static final class Mudancas {
+
+        private final Set<Long> padarias = new HashSet<>();
+        private final List<ItemPedido> gravados = new ArrayList<>();
+        private boolean todas;
+    }
+
+    private final class Sincronizacao extends OuvinteCommit<Mudancas> {
+
+        private final AbstractSession sessao;
+        private final ObjectReferenceMapping padariaDaFornadaMapeada;
+        private final ObjectReferenceMapping fornadaDoItem;
+
+        private Sincronizacao() {
+            super(emf, List.of(CapacidadeFornada.class, Fornada.class, ItemPedido.class),
+                    List.of("TB_CAPACIDADE_FORNADA", "TB_FORNADA", "TB_ITEM_PEDIDO"));
+            this.sessao = emf.unwrap(JpaEntityManagerFactory.class).getServerSession();
+            this.padariaDaFornadaMapeada = (ObjectReferenceMapping) sessao.getDescriptor(Fornada.class)
+                    .getMappingForAttributeName("padaria");
+            this.fornadaDoItem = (ObjectReferenceMapping) sessao.getDescriptor(ItemPedido.class)
+                    .getMappingForAttributeName("fornada");
+        }
+
+        @Override
+        protected Mudancas iniciar() {
+            return new Mudancas();
+        }
+
+        // Itens novos reservados pelo alocador saem do andamento; os outros
+        // (merge, fornada escolhida por fora) recarregam a padaria
+        @Override
+        protected void alterada(ObjectChangeSet mudanca, Mudancas mudancas) {
+            Object clone = mudanca.getUnitOfWorkClone();
+            if (clone instanceof ItemPedido item && mudanca.isNew() && emAndamento.containsKey(new Chave(item))) {
+                mudancas.gravados.add(item);
+                return;
+            }
+            if (clone instanceof ItemPedido
+                    && mudanca.getChangesForAttributeNamed("fornada") instanceof ObjectReferenceChangeRecord troca
+                    && troca.getOldValue() instanceof Fornada anterior) {
+                padariaDa(anterior.getId(), mudancas);
+            }
+            afetadas(clone, mudancas);
+        }
+
+        @Override
+        protected void excluida(ObjectChangeSet mudanca, Mudancas mudancas) {
+            if (Fornada.class.getName().equals(mudanca.getClassName())) {
+                padariaDa((Long) mudanca.getId(), mudancas);
+            } else {
+                afetadas(mudanca.getUnitOfWorkClone(), mudancas);
+            }
+        }
+
+        @Override
+        protected void confirmar(Mudancas mudancas, boolean emMassa) {
+            mudancas.gravados.forEach(item -> emAndamento.remove(new Chave(item)));
+            if (emMassa || mudancas.todas) {
+                invalidar();
+            } else {
+                mudancas.padarias.forEach(AlocadorFornadas.this::invalidar);
+            }
+        }
+
+        // As chaves saem da linha lida, sem carregar relacionamentos preguiçosos
+        private void afetadas(Object clone, Mudancas mudancas) {
+            if (clone instanceof CapacidadeFornada capacidade) {
+                padariaDa(capacidade.getIdFornada(), mudancas);
+            } else if (clone instanceof Fornada fornada) {
+                padariaDa(fornada.getId(), mudancas);
+                Object padaria = padariaDaFornadaMapeada.extractPrimaryKeysForReferenceObject(fornada, sessao);
+                if (padaria != null) {
+                    mudancas.padarias.add((Long) padaria);
+                }
+            } else if (clone instanceof ItemPedido item) {
+                padariaDa((Long) fornadaDoItem.extractPrimaryKeysForReferenceObject(item, sessao), mudancas);
+            } else {
+                mudancas.todas = true;
+            }
+        }
+
+        // Fornadas fora do mapa são de padarias não carregadas ou já passaram
+        private void padariaDa(Long idFornada, Mudancas mudancas) {
+            Long padaria = idFornada == null ? null : padariaDaFornada.get(idFornada);
+            if (padaria != null) {
+                mudancas.padarias.add(padaria);
+            }
+        }
+    }
+}
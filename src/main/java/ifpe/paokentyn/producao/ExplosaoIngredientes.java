@@ -0,0 +1,168 @@
+package ifpe.paokentyn.producao;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Explosão de necessidades (MRP): converte quantidades de pães a produzir
+ * na quantidade total de cada ingrediente.
+ *
+ * As receitas (TB_PAO_INGREDIENTE com NUM_QUANTIDADE) são lidas uma vez e
+ * guardadas como matriz esparsa em arrays indexados: para o pão na
+ * posição {@code p}, as linhas {@code inicio[p]} até
+ * {@code inicio[p + 1] - 1} dizem qual ingrediente (posição) e quanto por
+ * unidade. Explodir um lote é só percorrer essas linhas, sem entidades.
+ * A instância é imutável; recarregue-a quando as receitas mudarem.
+ *
+ * @author isabe
+ */
+public final class ExplosaoIngredientes {
+
+    private final long[] idsPao;
+    private final int[] inicio;
+    private final int[] ingredientes;
+    private final double[] quantidades;
+    private final boolean[] informadas;
+
+    private final long[] idsIngrediente;
+    private final String[] nomes;
+
+    private ExplosaoIngredientes(long[] idsPao, int[] inicio, int[] ingredientes, double[] quantidades,
+            boolean[] informadas, long[] idsIngrediente, String[] nomes) {
+        this.idsPao = idsPao;
+        this.inicio = inicio;
+        this.ingredientes = ingredientes;
+        this.quantidades = quantidades;
+        this.informadas = informadas;
+        this.idsIngrediente = idsIngrediente;
+        this.nomes = nomes;
+    }
+
+    public static ExplosaoIngredientes carregar(EntityManager em) {
+        // Cadastro e receitas numa consulta só: toda receita lida tem o seu
+        // ingrediente no cadastro, mesmo com alterações durante a carga
+        List<Object[]> linhas = em.createQuery(
+                "SELECT g.id, g.nome, r.idPao, r.quantidade FROM Ingrediente g "
+                + "LEFT JOIN ReceitaIngrediente r ON r.idIngrediente = g.id "
+                + "ORDER BY r.idPao, g.id", Object[].class).getResultList();
+
+        TreeMap<Long, String> cadastro = new TreeMap<>();
+        int receitas = 0;
+        for (Object[] linha : linhas) {
+            cadastro.put((Long) linha[0], (String) linha[1]);
+            if (linha[2] != null) {
+                receitas++;
+            }
+        }
+        long[] idsIngrediente = new long[cadastro.size()];
+        String[] nomes = new String[cadastro.size()];
+        int g = 0;
+        for (Map.Entry<Long, String> ingrediente : cadastro.entrySet()) {
+            idsIngrediente[g] = ingrediente.getKey();
+            nomes[g] = ingrediente.getValue();
+            g++;
+        }
+
+        long[] idsPao = new long[receitas];
+        int[] inicio = new int[receitas + 1];
+        int[] ingredientes = new int[receitas];
+        double[] quantidades = new double[receitas];
+        boolean[] informadas = new boolean[receitas];
+
+        int paes = 0;
+        int l = 0;
+        for (Object[] receita : linhas) {
+            if (receita[2] == null) {
+                continue;
+            }
+            long idPao = (Long) receita[2];
+            if (paes == 0 || idsPao[paes - 1] != idPao) {
+                idsPao[paes] = idPao;
+                inicio[paes] = l;
+                paes++;
+            }
+            ingredientes[l] = Arrays.binarySearch(idsIngrediente, (Long) receita[0]);
+            informadas[l] = receita[3] != null;
+            quantidades[l] = informadas[l] ? (Double) receita[3] : 0;
+            l++;
+        }
+        inicio[paes] = receitas;
+
+        return new ExplosaoIngredientes(Arrays.copyOf(idsPao, paes), Arrays.copyOf(inicio, paes + 1),
+                ingredientes, quantidades, informadas, idsIngrediente, nomes);
+    }
+
+    /**
+     * Quantidade de cada ingrediente para produzir {@code quantidades[i]}
+     * unidades do pão {@code idsPao[i]}, indexada como
+     * {@link #idIngrediente(int)}. Pães sem receita não consomem nada.
+     */
+    public double[] explodir(long[] idsPao, int[] quantidades) {
+        return explodir(idsPao, quantidades, null);
+    }
+
+    /**
+     * Lista de compras para as fornadas planejadas: um item por
+     * ingrediente necessário, em ordem de id.
+     */
+    public List<NecessidadeIngrediente> listaCompras(Collection<FornadaPlanejada> fornadas) {
+        int itens = 0;
+        for (FornadaPlanejada fornada : fornadas) {
+            itens += fornada.itens().size();
+        }
+        long[] paes = new long[itens];
+        int[] unidades = new int[itens];
+        int i = 0;
+        for (FornadaPlanejada fornada : fornadas) {
+            for (ItemProducao item : fornada.itens()) {
+                paes[i] = item.idPao();
+                unidades[i] = item.quantidade();
+                i++;
+            }
+        }
+
+        boolean[] incompletos = new boolean[idsIngrediente.length];
+        double[] total = explodir(paes, unidades, incompletos);
+
+        List<NecessidadeIngrediente> lista = new ArrayList<>();
+        for (int g = 0; g < total.length; g++) {
+            if (total[g] > 0 || incompletos[g]) {
+                lista.add(new NecessidadeIngrediente(idsIngrediente[g], nomes[g], total[g], !incompletos[g]));
+            }
+        }
+        return lista;
+    }
+
+    public int quantidadeIngredientes() {
+        return idsIngrediente.length;
+    }
+
+    public long idIngrediente(int indice) {
+        return idsIngrediente[indice];
+    }
+
+    private double[] explodir(long[] paes, int[] unidades, boolean[] incompletos) {
+        if (paes.length != unidades.length) {
+            throw new IllegalArgumentException("Quantidade de pães e de quantidades diferente");
+        }
+        double[] total = new double[idsIngrediente.length];
+        for (int i = 0; i < paes.length; i++) {
+            int p = Arrays.binarySearch(idsPao, paes[i]);
+            if (p < 0) {
+                continue;
+            }
+            for (int l = inicio[p]; l < inicio[p + 1]; l++) {
+                total[ingredientes[l]] += unidades[i] * quantidades[l];
+                if (incompletos != null && !informadas[l]) {
+                    incompletos[ingredientes[l]] = true;
+                }
+            }
+        }
+        return total;
+    }
+}
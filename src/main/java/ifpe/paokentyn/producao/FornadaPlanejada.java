@@ -0,0 +1,18 @@
+package ifpe.paokentyn.producao;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Fornada proposta pelo {@link PlanejadorProducao}: quando assar e quanto
+ * de cada pão.
+ *
+ * @author isabe
+ */
+public record FornadaPlanejada(Long idPadaria, LocalDate data, LocalTime horaInicio, List<ItemProducao> itens) {
+
+    public int totalUnidades() {
+        return itens.stream().mapToInt(ItemProducao::quantidade).sum();
+    }
+}
@@ -0,0 +1,9 @@
+package ifpe.paokentyn.producao;
+
+/**
+ * Quantas unidades de um pão assar numa fornada.
+ *
+ * @author isabe
+ */
+public record ItemProducao(Long idPao, int quantidade) {
+}
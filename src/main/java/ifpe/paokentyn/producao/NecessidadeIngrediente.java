@@ -0,0 +1,11 @@
+package ifpe.paokentyn.producao;
+
+/**
+ * Quanto comprar de um ingrediente. {@code completa} é falso quando algum
+ * pão planejado usa o ingrediente sem ter a quantidade informada na
+ * receita; nesse caso {@code quantidade} está subestimada.
+ *
+ * @author isabe
+ */
+public record NecessidadeIngrediente(Long idIngrediente, String nome, double quantidade, boolean completa) {
+}
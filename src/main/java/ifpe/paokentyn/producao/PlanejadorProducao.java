@@ -0,0 +1,189 @@
+package ifpe.paokentyn.producao;
+
+import ifpe.paokentyn.domain.VendaHora;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import org.eclipse.persistence.config.QueryHints;
+
+/**
+ * Propõe as fornadas de um dia para todas as padarias a partir das vendas
+ * passadas.
+ *
+ * A demanda de cada pão em cada turno é prevista pela média ponderada das
+ * vendas no mesmo dia da semana nas últimas {@code semanas} semanas (a
+ * semana mais recente pesa mais; semana sem venda conta como zero),
+ * acrescida da {@code margemSeguranca}. O turno de uma fornada vai da sua
+ * hora de início até o início da próxima; vendas antes da primeira
+ * fornada contam para ela.
+ *
+ * O histórico vem do resumo de vendas por hora (TB_VENDA_HORA), lido numa
+ * única consulta que traz só as colunas usadas e só as horas dos
+ * {@code semanas} dias que contam; cada padaria é então planejada numa
+ * tarefa fork/join separada. Itens vendidos sem fornada não têm padaria e ficam de fora,
+ * assim como os pães desativados.
+ *
+ * @author isabe
+ */
+public class PlanejadorProducao {
+
+    public static final int SEMANAS_PADRAO = 4;
+    public static final double MARGEM_SEGURANCA_PADRAO = 0.10;
+    public static final int[] HORAS_FORNADA_PADRAO = {6, 10, 14};
+
+    private final EntityManagerFactory emf;
+    private final int semanas;
+    private final double margemSeguranca;
+    private final int[] horasFornada;
+
+    public PlanejadorProducao(EntityManagerFactory emf) {
+        this(emf, SEMANAS_PADRAO, MARGEM_SEGURANCA_PADRAO, HORAS_FORNADA_PADRAO);
+    }
+
+    /**
+     * @param horasFornada horas de início das fornadas do dia, em ordem
+     *        crescente (0 a 23)
+     */
+    public PlanejadorProducao(EntityManagerFactory emf, int semanas, double margemSeguranca, int[] horasFornada) {
+        if (semanas < 1 || margemSeguranca < 0 || horasFornada.length == 0) {
+            throw new IllegalArgumentException("Parâmetros de planejamento inválidos");
+        }
+        for (int i = 0; i < horasFornada.length; i++) {
+            if (horasFornada[i] < 0 || horasFornada[i] > 23 || (i > 0 && horasFornada[i] <= horasFornada[i - 1])) {
+                throw new IllegalArgumentException("Horas de fornada inválidas: " + Arrays.toString(horasFornada));
+            }
+        }
+        this.emf = emf;
+        this.semanas = semanas;
+        this.margemSeguranca = margemSeguranca;
+        this.horasFornada = horasFornada.clone();
+    }
+
+    /**
+     * Fornadas propostas para {@code dia}, por id da padaria. Padarias sem
+     * vendas no período não aparecem.
+     */
+    public Map<Long, List<FornadaPlanejada>> planejar(LocalDate dia) {
+        Map<Long, List<Venda>> historico = carregarHistorico(dia);
+
+        List<PlanejamentoPadaria> tarefas = new ArrayList<>();
+        for (Map.Entry<Long, List<Venda>> padaria : historico.entrySet()) {
+            tarefas.add(new PlanejamentoPadaria(padaria.getKey(), padaria.getValue(), dia));
+        }
+        ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tarefas)));
+
+        Map<Long, List<FornadaPlanejada>> plano = new TreeMap<>();
+        for (PlanejamentoPadaria tarefa : tarefas) {
+            List<FornadaPlanejada> fornadas = tarefa.join();
+            if (!fornadas.isEmpty()) {
+                plano.put(tarefa.idPadaria, fornadas);
+            }
+        }
+        return plano;
+    }
+
+    private Map<Long, List<Venda>> carregarHistorico(LocalDate dia) {
+        // Um intervalo de horas por semana, todos no mesmo dia da semana
+        StringBuilder jpql = new StringBuilder(
+                "SELECT v.idPadaria, v.idPao, v.hora, v.quantidade FROM VendaHora v "
+                + "WHERE v.idPadaria <> :semPadaria AND v.idPao IN (SELECT p.id FROM Pao p WHERE p.ativo = true) AND (");
+        for (int semana = 1; semana <= semanas; semana++) {
+            jpql.append(semana > 1 ? " OR " : "")
+                    .append("v.hora BETWEEN :inicio").append(semana).append(" AND :fim").append(semana);
+        }
+        jpql.append(")");
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            TypedQuery<Object[]> consulta = em.createQuery(jpql.toString(), Object[].class)
+                    .setParameter("semPadaria", VendaHora.SEM_PADARIA)
+                    .setHint(QueryHints.READ_ONLY, true);
+            for (int semana = 1; semana <= semanas; semana++) {
+                LocalDate data = dia.minusWeeks(semana);
+                consulta.setParameter("inicio" + semana, hora(data, 0))
+                        .setParameter("fim" + semana, hora(data, 23));
+            }
+
+            Map<Long, List<Venda>> porPadaria = new HashMap<>();
+            for (Object[] linha : consulta.getResultList()) {
+                porPadaria.computeIfAbsent((Long) linha[0], k -> new ArrayList<>())
+                        .add(new Venda((Long) linha[1], (Long) linha[2], ((Number) linha[3]).longValue()));
+            }
+            return porPadaria;
+        } finally {
+            em.close();
+        }
+    }
+
+    // Mesma chave aaaammddhh de VendaHora
+    private static long hora(LocalDate data, int hora) {
+        return data.getYear() * 1000000L + data.getMonthValue() * 10000L + data.getDayOfMonth() * 100L + hora;
+    }
+
+    private int turno(int hora) {
+        int turno = 0;
+        while (turno + 1 < horasFornada.length && horasFornada[turno + 1] <= hora) {
+            turno++;
+        }
+        return turno;
+    }
+
+    private final class PlanejamentoPadaria extends RecursiveTask<List<FornadaPlanejada>> {
+
+        private final Long idPadaria;
+        private final List<Venda> vendas;
+        private final LocalDate dia;
+
+        private PlanejamentoPadaria(Long idPadaria, List<Venda> vendas, LocalDate dia) {
+            this.idPadaria = idPadaria;
+            this.vendas = vendas;
+            this.dia = dia;
+        }
+
+        @Override
+        protected List<FornadaPlanejada> compute() {
+            // Peso da semana k atrás (1 = a mais recente): semanas - k + 1
+            double somaPesos = semanas * (semanas + 1) / 2.0;
+
+            // Demanda ponderada por pão, uma posição por turno
+            Map<Long, double[]> demanda = new TreeMap<>();
+            for (Venda venda : vendas) {
+                long hora = venda.hora();
+                LocalDate data = LocalDate.of((int) (hora / 1000000), (int) (hora / 10000 % 100), (int) (hora / 100 % 100));
+                int peso = semanas - (int) (ChronoUnit.DAYS.between(data, dia) / 7) + 1;
+                demanda.computeIfAbsent(venda.idPao(), k -> new double[horasFornada.length])
+                        [turno((int) (hora % 100))] += peso * venda.quantidade();
+            }
+
+            List<FornadaPlanejada> fornadas = new ArrayList<>();
+            for (int t = 0; t < horasFornada.length; t++) {
+                List<ItemProducao> itens = new ArrayList<>();
+                for (Map.Entry<Long, double[]> pao : demanda.entrySet()) {
+                    int quantidade = (int) Math.ceil(pao.getValue()[t] / somaPesos * (1 + margemSeguranca) - 1e-9);
+                    if (quantidade > 0) {
+                        itens.add(new ItemProducao(pao.getKey(), quantidade));
+                    }
+                }
+                if (!itens.isEmpty()) {
+                    fornadas.add(new FornadaPlanejada(idPadaria, dia, LocalTime.of(horasFornada[t], 0), itens));
+                }
+            }
+            return fornadas;
+        }
+    }
+
+    private record Venda(long idPao, long hora, long quantidade) {
+    }
+}
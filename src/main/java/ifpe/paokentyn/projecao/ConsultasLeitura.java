@@ -0,0 +1,60 @@
+package ifpe.paokentyn.projecao;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.Padaria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Consultas de listagem que devolvem records montados direto do resultado
+ * (SELECT NEW / construct). Nenhuma entidade é instanciada, gerenciada ou
+ * rastreada pelo contexto de persistência.
+ *
+ * @author isabe
+ */
+public class ConsultasLeitura {
+
+    private final EntityManager em;
+
+    public ConsultasLeitura(EntityManager em) {
+        this.em = em;
+    }
+
+    public List<LinhaCardapio> cardapio() {
+        return em.createQuery(
+                "SELECT NEW ifpe.paokentyn.projecao.LinhaCardapio(p.id, p.nomePao, p.preco) "
+                + "FROM Pao p WHERE p.ativo = true ORDER BY p.nomePao", LinhaCardapio.class)
+                .getResultList();
+    }
+
+    public List<ResumoPedido> resumosPedidos(Date inicio, Date fim) {
+        return em.createQuery(
+                "SELECT NEW ifpe.paokentyn.projecao.ResumoPedido(p.id, p.dataPedido, p.valorTotal, COUNT(i), SUM(i.quantidade)) "
+                + "FROM Pedido p LEFT JOIN p.itens i "
+                + "WHERE p.dataPedido BETWEEN :inicio AND :fim "
+                + "GROUP BY p.id, p.dataPedido, p.valorTotal "
+                + "ORDER BY p.dataPedido, p.id", ResumoPedido.class)
+                .setParameter("inicio", inicio)
+                .setParameter("fim", fim)
+                .getResultList();
+    }
+
+    public List<LinhaEscala> escala(Long idPadaria) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<LinhaEscala> query = cb.createQuery(LinhaEscala.class);
+        Root<Funcionario> root = query.from(Funcionario.class);
+        Join<Funcionario, Padaria> padaria = root.join("padaria");
+
+        query.select(cb.construct(LinhaEscala.class,
+                root.get("id"), root.get("nome"), root.get("cargo"), padaria.get("nome")))
+                .where(cb.equal(padaria.get("id"), idPadaria))
+                .orderBy(cb.asc(root.get("cargo")), cb.asc(root.get("nome")));
+
+        return em.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,9 @@
+package ifpe.paokentyn.projecao;
+
+/**
+ * Linha do cardápio: um pão e seu preço.
+ *
+ * @author isabe
+ */
+public record LinhaCardapio(Long id, String nomePao, Double preco) {
+}
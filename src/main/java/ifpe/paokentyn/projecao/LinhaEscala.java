@@ -0,0 +1,9 @@
+package ifpe.paokentyn.projecao;
+
+/**
+ * Linha da escala de funcionários de uma padaria.
+ *
+ * @author isabe
+ */
+public record LinhaEscala(Long id, String nome, String cargo, String nomePadaria) {
+}
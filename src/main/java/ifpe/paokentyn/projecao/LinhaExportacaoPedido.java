@@ -0,0 +1,13 @@
+package ifpe.paokentyn.projecao;
+
+import java.util.Date;
+
+/**
+ * Uma linha da exportação de pedidos: o item e os dados do pedido a que
+ * pertence. {@code idFornada} é nulo quando o item não foi alocado.
+ *
+ * @author isabe
+ */
+public record LinhaExportacaoPedido(Long idPedido, Date dataPedido, Double valorTotal,
+        Long idItem, Long idPao, String nomePao, Integer quantidade, Long idFornada) {
+}
@@ -0,0 +1,12 @@
+package ifpe.paokentyn.projecao;
+
+import java.util.Date;
+
+/**
+ * Resumo de um pedido para o histórico: valor, data, quantas linhas e
+ * quantas unidades de pão.
+ *
+ * @author isabe
+ */
+public record ResumoPedido(Long id, Date dataPedido, Double valorTotal, Long quantidadeItens, Long quantidadeUnidades) {
+}
@@ -0,0 +1,10 @@
+package ifpe.paokentyn.projecao;
+
+/**
+ * Total vendido (unidades e valor) para uma chave do resumo de vendas: o
+ * id da padaria, o id do pão ou a hora (aaaammddhh), conforme a consulta.
+ *
+ * @author isabe
+ */
+public record TotalVendas(Long chave, Long quantidade, Double valor) {
+}
@@ -0,0 +1,16 @@
+package ifpe.paokentyn.repository;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados e o token para buscar a seguinte
+ * ({@code null} na última página).
+ *
+ * @author isabe
+ */
+public record Pagina<T>(List<T> itens, String proxima) {
+
+    public boolean temProxima() {
+        return proxima != null;
+    }
+}
@@ -0,0 +1,100 @@
+package ifpe.paokentyn.repository;
+
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.domain.Tarefa;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginação por chave (keyset) do histórico de pedidos, ordenado por
+ * (dataPedido, id), e das tarefas, ordenadas por (dataPrevisao, id).
+ *
+ * Em vez de OFFSET, cada página continua a partir da última chave lida,
+ * que vai codificada no token opaco devolvido em {@link Pagina#proxima()}.
+ * Com os índices IX_PEDIDO_DATA_ID e IX_TAREFA_PREVISAO_ID, qualquer
+ * página custa o mesmo que a primeira.
+ *
+ * @author isabe
+ */
+public class PaginacaoRepository {
+
+    public static final int TAMANHO_MAXIMO = 500;
+
+    private final EntityManager em;
+
+    public PaginacaoRepository(EntityManager em) {
+        this.em = em;
+    }
+
+    public Pagina<Pedido> pedidos(String token, int tamanho) {
+        return pedidos(token, tamanho, null);
+    }
+
+    public Pagina<Pedido> pedidos(String token, int tamanho, PlanoBusca plano) {
+        return paginar(Pedido.class, "dataPedido", token, tamanho, plano, Pedido::getDataPedido, Pedido::getId);
+    }
+
+    public Pagina<Tarefa> tarefas(String token, int tamanho) {
+        return paginar(Tarefa.class, "dataPrevisao", token, tamanho, null, Tarefa::getDataPrevisao, Tarefa::getId);
+    }
+
+    private <T> Pagina<T> paginar(Class<T> tipo, String campoData, String token, int tamanho, PlanoBusca plano,
+            Function<T, Date> data, Function<T, Long> id) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("Tamanho de página deve estar entre 1 e " + TAMANHO_MAXIMO + ": " + tamanho);
+        }
+
+        String jpql = "SELECT e FROM " + tipo.getSimpleName() + " e";
+        Chave chave = token == null ? null : Chave.decodificar(token);
+        if (chave != null) {
+            // A faixa em e.data permite ao banco descer direto no índice (data, id)
+            jpql += " WHERE e." + campoData + " >= :data AND (e." + campoData + " > :data OR e.id > :id)";
+        }
+        jpql += " ORDER BY e." + campoData + ", e.id";
+
+        TypedQuery<T> query = em.createQuery(jpql, tipo);
+        if (chave != null) {
+            query.setParameter("data", new Date(chave.data()));
+            query.setParameter("id", chave.id());
+        }
+        if (plano != null) {
+            new Repositorio(em).aplicar(query, "e", plano);
+        }
+        // Um registro a mais só para saber se existe próxima página
+        List<T> resultado = query.setMaxResults(tamanho + 1).getResultList();
+
+        if (resultado.size() <= tamanho) {
+            return new Pagina<>(resultado, null);
+        }
+        List<T> itens = List.copyOf(resultado.subList(0, tamanho));
+        T ultimo = itens.get(tamanho - 1);
+        return new Pagina<>(itens, new Chave(data.apply(ultimo).getTime(), id.apply(ultimo)).codificar());
+    }
+
+    private record Chave(long data, long id) {
+
+        String codificar() {
+            ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES).putLong(data).putLong(id);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        }
+
+        static Chave decodificar(String token) {
+            byte[] bytes;
+            try {
+                bytes = Base64.getUrlDecoder().decode(token);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Token de paginação inválido: " + token, e);
+            }
+            if (bytes.length != 2 * Long.BYTES) {
+                throw new IllegalArgumentException("Token de paginação inválido: " + token);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new Chave(buffer.getLong(), buffer.getLong());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ifpe.paokentyn.repository;
+
+import ifpe.paokentyn.domain.Fornada;
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.Padaria;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+
+/**
+ * Planos de busca por caso de uso. Cada plano aponta para um
+ * {@code @NamedEntityGraph} declarado na entidade raiz; o grafo define
+ * exatamente quais relacionamentos a tela vai percorrer.
+ *
+ * @author isabe
+ */
+public enum PlanoBusca {
+
+    /** Pedido com seus itens e o pão de cada item. */
+    PEDIDO_COM_ITENS_E_PAES(Pedido.class, "Pedido.itensComPaes"),
+
+    /** Padaria com os funcionários e os dados bancários de cada um. */
+    PADARIA_COM_EQUIPE_E_DADOS_BANCARIOS(Padaria.class, "Padaria.equipeComDadosBancarios"),
+
+    /** Fornada com a padaria e os itens vendidos (e seus pães). */
+    FORNADA_COM_ITENS_VENDIDOS(Fornada.class, "Fornada.itensVendidos"),
+
+    /** Funcionário com suas tarefas. */
+    FUNCIONARIO_COM_TAREFAS(Funcionario.class, "Funcionario.tarefas"),
+
+    /** Pão com seus ingredientes. */
+    PAO_COM_INGREDIENTES(Pao.class, "Pao.ingredientes");
+
+    private final Class<?> entidade;
+    private final String grafo;
+
+    PlanoBusca(Class<?> entidade, String grafo) {
+        this.entidade = entidade;
+        this.grafo = grafo;
+    }
+
+    public Class<?> getEntidade() {
+        return entidade;
+    }
+
+    public String getGrafo() {
+        return grafo;
+    }
+}
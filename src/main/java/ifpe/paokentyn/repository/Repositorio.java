@@ -0,0 +1,88 @@
+package ifpe.paokentyn.repository;
+
+import jakarta.persistence.AttributeNode;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.config.QueryHints;
+
+/**
+ * Consultas que carregam as entidades segundo um {@link PlanoBusca}.
+ *
+ * Cada relacionamento do grafo do plano vira um "batch fetch" do tipo IN:
+ * a consulta principal traz as raízes e cada caminho do grafo custa uma
+ * única consulta extra (a cada 256 raízes), em vez de uma por linha.
+ * Os grafos dos planos devem listar apenas relacionamentos.
+ *
+ * @author isabe
+ */
+public class Repositorio {
+
+    private static final String ALIAS = "e";
+
+    private final EntityManager em;
+
+    public Repositorio(EntityManager em) {
+        this.em = em;
+    }
+
+    public <T> T buscarPorId(Class<T> tipo, Object id, PlanoBusca plano) {
+        verificarEntidade(tipo, plano);
+        TypedQuery<T> query = em.createQuery(
+                "SELECT " + ALIAS + " FROM " + tipo.getSimpleName() + " " + ALIAS + " WHERE " + ALIAS + ".id = :id", tipo);
+        query.setParameter("id", id);
+        return aplicar(query, ALIAS, plano).getResultList().stream().findFirst().orElse(null);
+    }
+
+    public <T> List<T> listar(Class<T> tipo, PlanoBusca plano) {
+        verificarEntidade(tipo, plano);
+        TypedQuery<T> query = em.createQuery(
+                "SELECT " + ALIAS + " FROM " + tipo.getSimpleName() + " " + ALIAS + " ORDER BY " + ALIAS + ".id", tipo);
+        return aplicar(query, ALIAS, plano).getResultList();
+    }
+
+    /**
+     * Aplica o plano a uma consulta já montada, cuja variável de seleção
+     * (a entidade do plano) se chama {@code alias}.
+     */
+    public <T> TypedQuery<T> aplicar(TypedQuery<T> query, String alias, PlanoBusca plano) {
+        EntityGraph<?> grafo = em.getEntityGraph(plano.getGrafo());
+
+        query.setHint("jakarta.persistence.loadgraph", grafo);
+        query.setHint(QueryHints.BATCH_TYPE, BatchFetchType.IN);
+        for (String caminho : caminhos(alias, grafo.getAttributeNodes())) {
+            query.setHint(QueryHints.BATCH, caminho);
+        }
+        return query;
+    }
+
+    /**
+     * Quantidade de consultas SQL que o plano dispara para até 256 raízes.
+     */
+    public int consultasPorPlano(PlanoBusca plano) {
+        return 1 + caminhos(ALIAS, em.getEntityGraph(plano.getGrafo()).getAttributeNodes()).size();
+    }
+
+    private static void verificarEntidade(Class<?> tipo, PlanoBusca plano) {
+        if (!plano.getEntidade().equals(tipo)) {
+            throw new IllegalArgumentException("O plano " + plano + " é de " + plano.getEntidade().getSimpleName()
+                    + ", não de " + tipo.getSimpleName());
+        }
+    }
+
+    private static List<String> caminhos(String prefixo, List<AttributeNode<?>> nos) {
+        List<String> caminhos = new ArrayList<>();
+        for (AttributeNode<?> no : nos) {
+            String caminho = prefixo + "." + no.getAttributeName();
+            caminhos.add(caminho);
+            for (Subgraph<?> sub : no.getSubgraphs().values()) {
+                caminhos.addAll(caminhos(caminho, sub.getAttributeNodes()));
+            }
+        }
+        return caminhos;
+    }
+}
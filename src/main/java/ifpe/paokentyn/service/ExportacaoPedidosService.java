@@ -0,0 +1,115 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.projecao.LinhaExportacaoPedido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.queries.CursoredStream;
+
+/**
+ * Exportação de pedidos e itens em fluxo contínuo, com memória constante.
+ *
+ * A consulta roda num cursor JDBC aberto (somente avanço), trazendo
+ * {@code tamanhoLote} linhas por ida ao banco. Cada linha vira um
+ * {@link LinhaExportacaoPedido}, sem instanciar entidades, e o cursor
+ * descarta as linhas já lidas a cada lote; assim nada se acumula no heap,
+ * por maior que seja o período.
+ *
+ * O {@link Stream} devolvido segura uma conexão até ser fechado: use
+ * sempre try-with-resources.
+ *
+ * @author isabe
+ */
+public class ExportacaoPedidosService {
+
+    public static final int TAMANHO_LOTE_PADRAO = 500;
+
+    private static final String JPQL =
+            "SELECT NEW ifpe.paokentyn.projecao.LinhaExportacaoPedido("
+            + "p.id, p.dataPedido, p.valorTotal, i.id, pao.id, pao.nomePao, i.quantidade, f.id) "
+            + "FROM ItemPedido i JOIN i.pedido p JOIN i.pao pao LEFT JOIN i.fornada f "
+            + "WHERE p.dataPedido BETWEEN :inicio AND :fim "
+            + "ORDER BY p.id, i.id";
+
+    private final EntityManagerFactory emf;
+    private final int tamanhoLote;
+
+    public ExportacaoPedidosService(EntityManagerFactory emf) {
+        this(emf, TAMANHO_LOTE_PADRAO);
+    }
+
+    public ExportacaoPedidosService(EntityManagerFactory emf, int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("Tamanho de lote deve ser maior que zero: " + tamanhoLote);
+        }
+        this.emf = emf;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public Stream<LinhaExportacaoPedido> linhas(Date inicio, Date fim) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Query query = em.createQuery(JPQL)
+                    .setParameter("inicio", inicio)
+                    .setParameter("fim", fim)
+                    .setHint(QueryHints.CURSOR, HintValues.TRUE)
+                    .setHint(QueryHints.CURSOR_PAGE_SIZE, tamanhoLote)
+                    .setHint(QueryHints.JDBC_FETCH_SIZE, tamanhoLote)
+                    .setHint(QueryHints.READ_ONLY, HintValues.TRUE);
+            CursoredStream cursor = (CursoredStream) query.getSingleResult();
+
+            Iterator<LinhaExportacaoPedido> linhas = new LinhasCursor(cursor, tamanhoLote);
+            return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(linhas, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                        try {
+                            cursor.close();
+                        } finally {
+                            em.close();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            em.close();
+            throw e;
+        }
+    }
+
+    private static final class LinhasCursor implements Iterator<LinhaExportacaoPedido> {
+
+        private final CursoredStream cursor;
+        private final int tamanhoLote;
+        private int lidasNoLote;
+
+        private LinhasCursor(CursoredStream cursor, int tamanhoLote) {
+            this.cursor = cursor;
+            this.tamanhoLote = tamanhoLote;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor.hasMoreElements();
+        }
+
+        @Override
+        public LinhaExportacaoPedido next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LinhaExportacaoPedido linha = (LinhaExportacaoPedido) cursor.nextElement();
+            if (++lidasNoLote == tamanhoLote) {
+                cursor.clear();
+                lidasNoLote = 0;
+            }
+            return linha;
+        }
+    }
+}
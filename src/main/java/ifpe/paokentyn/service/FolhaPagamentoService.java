@@ -0,0 +1,254 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.folha.ArquivoRemessa;
+import ifpe.paokentyn.folha.CalculoFolha;
+import ifpe.paokentyn.folha.Pagamento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import org.eclipse.persistence.config.QueryHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Roda a folha de pagamento de todas as padarias numa passada só e gera
+ * um {@link ArquivoRemessa} por banco.
+ *
+ * Os funcionários com salário e dados bancários são lidos em lotes,
+ * ordenados por (banco, id) e paginados por chave; a memória usada não
+ * depende do tamanho da folha. Ao fim de cada lote o arquivo do banco é
+ * descarregado em disco e um ponto de controle registra o banco, o último
+ * funcionário pago, os totais e a posição no arquivo. Se a execução for
+ * interrompida, a próxima chamada para a mesma competência trunca o
+ * arquivo nesse ponto e continua do funcionário seguinte. Enquanto
+ * incompleto o arquivo do banco fica com a extensão ".parcial" e só ganha
+ * o nome final depois do trailer.
+ *
+ * @author isabe
+ */
+public class FolhaPagamentoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FolhaPagamentoService.class);
+
+    public static final int TAMANHO_LOTE_PADRAO = 500;
+
+    private static final String SELECAO = "SELECT f.id, f.nome, f.salario, d.banco, d.agencia, d.conta "
+            + "FROM Funcionario f JOIN f.dadosBancarios d WHERE f.salario IS NOT NULL";
+    private static final String ORDEM = " ORDER BY d.banco, f.id";
+
+    private final EntityManagerFactory emf;
+    private final Path diretorio;
+    private final int tamanhoLote;
+
+    public FolhaPagamentoService(EntityManagerFactory emf, Path diretorio) {
+        this(emf, diretorio, TAMANHO_LOTE_PADRAO);
+    }
+
+    public FolhaPagamentoService(EntityManagerFactory emf, Path diretorio, int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("Tamanho de lote inválido: " + tamanhoLote);
+        }
+        this.emf = emf;
+        this.diretorio = diretorio;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Resultado de uma execução; os totais contam só o que foi pago nela.
+     * {@code concluida} é falso quando a execução parou no limite de lotes.
+     */
+    public record Resultado(List<Path> arquivos, int pagamentos, long totalLiquido, boolean concluida) {
+    }
+
+    /** Roda (ou retoma) a folha da competência até o fim. */
+    public Resultado executar(YearMonth competencia) {
+        return executar(competencia, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Roda (ou retoma) a folha da competência processando no máximo
+     * {@code maximoLotes} lotes; uma nova chamada continua de onde parou.
+     */
+    public Resultado executar(YearMonth competencia, int maximoLotes) {
+        try {
+            Files.createDirectories(diretorio);
+            return processar(competencia, maximoLotes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gerar a remessa da folha " + competencia, e);
+        }
+    }
+
+    /**
+     * Nome do arquivo de remessa do banco na competência. Bancos que só
+     * diferem na pontuação ("S.A." e "S/A") dão o mesmo nome legível; o
+     * sufixo com o SHA-256 do nome exato separa os arquivos.
+     */
+    public Path arquivo(YearMonth competencia, String banco) {
+        String nome = banco.toUpperCase(Locale.ROOT).replaceAll("[^\\p{Alnum}]+", "_").replaceAll("^_|_$", "");
+        return diretorio.resolve("remessa-" + competencia.toString().replace("-", "") + "-" + nome + "-"
+                + codigo(banco) + ".txt");
+    }
+
+    private Resultado processar(YearMonth competencia, int maximoLotes) throws IOException {
+        Path controle = controle(competencia);
+        Ponto ponto = Files.exists(controle) ? Ponto.ler(controle) : null;
+        List<Path> arquivos = new ArrayList<>();
+        int pagamentos = 0;
+        long totalLiquido = 0;
+
+        String banco = null;
+        long ultimoId = 0;
+        ArquivoRemessa remessa = null;
+        if (ponto != null) {
+            banco = ponto.banco;
+            ultimoId = ponto.ultimoId;
+            Path parcial = parcial(arquivo(competencia, banco));
+            if (Files.exists(parcial)) {
+                remessa = ArquivoRemessa.retomar(parcial, ponto.posicao, ponto.registros, ponto.totalLiquido);
+                logger.info("Retomando a folha {} no banco {} após o funcionário {}", competencia, banco, ultimoId);
+            } else {
+                // O banco do ponto de controle já foi fechado: segue para o próximo
+                ultimoId = Long.MAX_VALUE;
+            }
+        }
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            int lotes = 0;
+            while (lotes < maximoLotes) {
+                List<Object[]> lote = lote(em, banco, ultimoId);
+                if (lote.isEmpty()) {
+                    break;
+                }
+                for (Object[] linha : lote) {
+                    String bancoLinha = (String) linha[3];
+                    if (!bancoLinha.equals(banco)) {
+                        if (remessa != null) {
+                            arquivos.add(fechar(remessa, competencia, banco));
+                        }
+                        banco = bancoLinha;
+                        remessa = ArquivoRemessa.criar(parcial(arquivo(competencia, banco)), banco, competencia,
+                                LocalDate.now());
+                    }
+                    Pagamento pagamento = CalculoFolha.calcular((Double) linha[2]);
+                    remessa.detalhe((Long) linha[0], (String) linha[1], (String) linha[4], (String) linha[5], pagamento);
+                    pagamentos++;
+                    totalLiquido += pagamento.liquido();
+                    ultimoId = (Long) linha[0];
+                }
+                remessa.descarregar();
+                new Ponto(banco, ultimoId, remessa.registros(), remessa.totalLiquido(), remessa.posicao())
+                        .gravar(controle);
+                em.clear();
+                lotes++;
+            }
+
+            if (lotes < maximoLotes) {
+                if (remessa != null) {
+                    arquivos.add(fechar(remessa, competencia, banco));
+                }
+                Files.deleteIfExists(controle);
+                return new Resultado(Collections.unmodifiableList(arquivos), pagamentos, totalLiquido, true);
+            }
+            if (remessa != null) {
+                remessa.close();
+            }
+            return new Resultado(Collections.unmodifiableList(arquivos), pagamentos, totalLiquido, false);
+        } catch (IOException | RuntimeException e) {
+            if (remessa != null) {
+                remessa.close();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private List<Object[]> lote(EntityManager em, String banco, long ultimoId) {
+        TypedQuery<Object[]> query;
+        if (banco == null) {
+            query = em.createQuery(SELECAO + ORDEM, Object[].class);
+        } else {
+            query = em.createQuery(SELECAO + " AND (d.banco > :banco OR (d.banco = :banco AND f.id > :id))" + ORDEM,
+                    Object[].class)
+                    .setParameter("banco", banco)
+                    .setParameter("id", ultimoId);
+        }
+        return query.setHint(QueryHints.READ_ONLY, true)
+                .setHint(QueryHints.JDBC_FETCH_SIZE, tamanhoLote)
+                .setMaxResults(tamanhoLote)
+                .getResultList();
+    }
+
+    private Path fechar(ArquivoRemessa remessa, YearMonth competencia, String banco) throws IOException {
+        remessa.finalizar();
+        Path arquivo = arquivo(competencia, banco);
+        Files.move(parcial(arquivo), arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return arquivo;
+    }
+
+    private static String codigo(String banco) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(banco.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private Path controle(YearMonth competencia) {
+        return diretorio.resolve("folha-" + competencia.toString().replace("-", "") + ".controle");
+    }
+
+    private static Path parcial(Path arquivo) {
+        return arquivo.resolveSibling(arquivo.getFileName() + ".parcial");
+    }
+
+    private record Ponto(String banco, long ultimoId, int registros, long totalLiquido, long posicao) {
+
+        static Ponto ler(Path arquivo) throws IOException {
+            Properties propriedades = new Properties();
+            try (Reader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                propriedades.load(leitor);
+            }
+            return new Ponto(propriedades.getProperty("banco"),
+                    Long.parseLong(propriedades.getProperty("ultimoId")),
+                    Integer.parseInt(propriedades.getProperty("registros")),
+                    Long.parseLong(propriedades.getProperty("totalLiquido")),
+                    Long.parseLong(propriedades.getProperty("posicao")));
+        }
+
+        // Grava num temporário e troca de uma vez: o ponto nunca fica pela metade
+        void gravar(Path arquivo) throws IOException {
+            Properties propriedades = new Properties();
+            propriedades.setProperty("banco", banco);
+            propriedades.setProperty("ultimoId", Long.toString(ultimoId));
+            propriedades.setProperty("registros", Integer.toString(registros));
+            propriedades.setProperty("totalLiquido", Long.toString(totalLiquido));
+            propriedades.setProperty("posicao", Long.toString(posicao));
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            try (Writer escritor = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+                propriedades.store(escritor, null);
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.imagem.ArmazemImagens;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.EntityTransaction;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fotos dos pães. O conteúdo fica no {@link ArmazemImagens}; a linha de
+ * TB_PAO guarda só o hash, de modo que listar o cardápio não carrega
+ * nenhuma imagem e servir a foto não passa pelo banco nem pelo heap.
+ *
+ * Pães com a mesma foto compartilham o arquivo; ele só é apagado quando
+ * nenhum pão o referencia mais. Colocar a imagem no armazém, gravar o
+ * hash no pão e conferir o uso antes de apagar acontecem sob a trava do
+ * hash, de modo que uma remoção não apaga a foto que outra troca acabou de
+ * gravar, e uma troca que falha não deixa o arquivo novo órfão. A trava é
+ * local a este serviço: com várias instâncias sobre o mesmo armazém, os
+ * órfãos que sobrarem ficam para uma varredura.
+ *
+ * @author isabe
+ */
+public class ImagemPaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImagemPaoService.class);
+
+    private static final int TRAVAS = 64;
+
+    private final EntityManagerFactory emf;
+    private final ArmazemImagens armazem;
+    private final Lock[] travas = new Lock[TRAVAS];
+
+    public ImagemPaoService(EntityManagerFactory emf, ArmazemImagens armazem) {
+        this.emf = emf;
+        this.armazem = armazem;
+        for (int i = 0; i < travas.length; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Grava a foto lida de {@code entrada} e a associa ao pão. Devolve o
+     * hash da imagem.
+     */
+    public String definirImagem(Long idPao, InputStream entrada) throws IOException {
+        String hash;
+        String antigo;
+        try (ArmazemImagens.Recebimento recebimento = armazem.receber(entrada)) {
+            hash = recebimento.getHash();
+            Lock trava = trava(hash);
+            trava.lock();
+            try {
+                recebimento.guardar();
+                try {
+                    antigo = trocarImagem(idPao, hash);
+                } catch (RuntimeException e) {
+                    descartarSemUso(hash);
+                    throw e;
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+        if (antigo != null && !antigo.equals(hash)) {
+            removerSemUso(antigo);
+        }
+        return hash;
+    }
+
+    public void removerImagem(Long idPao) throws IOException {
+        String antigo = trocarImagem(idPao, null);
+        if (antigo != null) {
+            removerSemUso(antigo);
+        }
+    }
+
+    /**
+     * Hash da foto do pão, ou {@code null} se ele não tiver foto. Pão fica
+     * no cache compartilhado, então normalmente não vai ao banco.
+     */
+    public String hashImagem(Long idPao) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return buscar(em, idPao).getHashImagem();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Envia a foto do pão (ou um trecho dela) para o canal de destino.
+     *
+     * @see ArmazemImagens#enviar(String, long, long, WritableByteChannel)
+     */
+    public long enviarImagem(Long idPao, long inicio, long quantidade, WritableByteChannel destino)
+            throws IOException {
+        String hash = hashImagem(idPao);
+        if (hash == null) {
+            throw new EntityNotFoundException("O pão " + idPao + " não tem imagem");
+        }
+        return armazem.enviar(hash, inicio, quantidade, destino);
+    }
+
+    // Devolve o hash que o pão tinha
+    private String trocarImagem(Long idPao, String novoHash) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction et = em.getTransaction();
+        try {
+            et.begin();
+            Pao pao = buscar(em, idPao);
+            String antigo = pao.getHashImagem();
+            pao.setHashImagem(novoHash);
+            et.commit();
+            return antigo;
+        } catch (RuntimeException e) {
+            if (et.isActive()) {
+                et.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private void removerSemUso(String hash) throws IOException {
+        Lock trava = trava(hash);
+        trava.lock();
+        try {
+            descartarSemUso(hash);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Chamado com a trava do hash
+    private void descartarSemUso(String hash) throws IOException {
+        if (!emUso(hash) && armazem.remover(hash)) {
+            logger.info("Imagem {} removida do armazém", hash);
+        }
+    }
+
+    private Lock trava(String hash) {
+        return travas[Integer.parseInt(hash, 0, 2, 16) % travas.length];
+    }
+
+    private boolean emUso(String hash) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT COUNT(p) FROM Pao p WHERE p.hashImagem = :hash", Long.class)
+                    .setParameter("hash", hash)
+                    .getSingleResult() > 0;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Pao buscar(EntityManager em, Long idPao) {
+        Pao pao = em.find(Pao.class, idPao);
+        if (pao == null) {
+            throw new EntityNotFoundException("Pão não encontrado: " + idPao);
+        }
+        return pao;
+    }
+}
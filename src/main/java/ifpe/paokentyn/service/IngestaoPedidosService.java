@@ -0,0 +1,321 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.Fornada;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recebe pedidos (com seus itens), valida na chegada e grava em grupos:
+ * uma única transação por grupo de até {@code tamanhoGrupo} pedidos ou a
+ * cada {@code intervaloMaximoMs}, o que vier primeiro. O resumo de vendas
+ * ({@link ResumoVendasService}) é atualizado na mesma transação.
+ *
+ * O número de pedidos em andamento (na fila ou no grupo sendo gravado) é
+ * limitado. Quando o banco fica para trás, as vagas acabam e
+ * {@link #submeter(Pedido)} bloqueia o chamador, enquanto
+ * {@link #submeter(Pedido, long, TimeUnit)} desiste após o prazo com
+ * {@link RejectedExecutionException}.
+ *
+ * @author isabe
+ */
+public class IngestaoPedidosService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestaoPedidosService.class);
+
+    public static final int TAMANHO_GRUPO_PADRAO = 200;
+    public static final long INTERVALO_MAXIMO_PADRAO_MS = 50;
+    public static final int CAPACIDADE_PADRAO = 5000;
+
+    private final EntityManagerFactory emf;
+    private final ResumoVendasService resumoVendas;
+    private final Validator validator;
+    private final int tamanhoGrupo;
+    private final long intervaloMaximoNanos;
+    private final int capacidade;
+    private final Semaphore vagas;
+    private final BlockingQueue<PedidoPendente> fila = new LinkedBlockingQueue<>();
+    private final Thread gravador;
+
+    private final AtomicLong pedidosGravados = new AtomicLong();
+    private final AtomicLong gruposGravados = new AtomicLong();
+    private final AtomicLong pedidosComFalha = new AtomicLong();
+
+    private final ReadWriteLock encerramento = new ReentrantReadWriteLock();
+    private volatile boolean aberto = true;
+
+    public IngestaoPedidosService(EntityManagerFactory emf, Validator validator) {
+        this(emf, validator, TAMANHO_GRUPO_PADRAO, INTERVALO_MAXIMO_PADRAO_MS, CAPACIDADE_PADRAO);
+    }
+
+    public IngestaoPedidosService(EntityManagerFactory emf, Validator validator,
+            int tamanhoGrupo, long intervaloMaximoMs, int capacidade) {
+        if (tamanhoGrupo < 1 || intervaloMaximoMs < 0 || capacidade < 1) {
+            throw new IllegalArgumentException("Parâmetros de agrupamento inválidos");
+        }
+        this.emf = emf;
+        this.resumoVendas = new ResumoVendasService(emf);
+        this.validator = validator;
+        this.tamanhoGrupo = tamanhoGrupo;
+        this.intervaloMaximoNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMaximoMs);
+        this.capacidade = capacidade;
+        this.vagas = new Semaphore(capacidade);
+        this.gravador = new Thread(this::gravarContinuamente, "ingestao-pedidos");
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    /**
+     * Valida e enfileira o pedido, bloqueando enquanto não houver vaga.
+     * O futuro é completado quando o grupo do pedido for confirmado.
+     */
+    public CompletableFuture<Pedido> submeter(Pedido pedido) throws InterruptedException {
+        PedidoPendente pendente = preparar(pedido);
+        vagas.acquire();
+        enfileirar(pendente);
+        return pendente.resultado;
+    }
+
+    /**
+     * Como {@link #submeter(Pedido)}, mas rejeita o pedido se não surgir
+     * vaga dentro do prazo.
+     */
+    public CompletableFuture<Pedido> submeter(Pedido pedido, long prazo, TimeUnit unidade)
+            throws InterruptedException {
+        PedidoPendente pendente = preparar(pedido);
+        if (!vagas.tryAcquire(prazo, unidade)) {
+            throw new RejectedExecutionException("Ingestão sem vagas (" + getPedidosPendentes() + " pedidos pendentes)");
+        }
+        enfileirar(pendente);
+        return pendente.resultado;
+    }
+
+    /**
+     * Submete todos os pedidos do fluxo, respeitando a contrapressão.
+     */
+    public List<CompletableFuture<Pedido>> submeterTodos(Stream<Pedido> pedidos) throws InterruptedException {
+        List<CompletableFuture<Pedido>> resultados = new ArrayList<>();
+        for (Pedido pedido : (Iterable<Pedido>) pedidos::iterator) {
+            resultados.add(submeter(pedido));
+        }
+        return resultados;
+    }
+
+    public int getPedidosPendentes() {
+        return capacidade - vagas.availablePermits();
+    }
+
+    public long getPedidosGravados() {
+        return pedidosGravados.get();
+    }
+
+    public long getGruposGravados() {
+        return gruposGravados.get();
+    }
+
+    public long getPedidosComFalha() {
+        return pedidosComFalha.get();
+    }
+
+    /**
+     * Para de aceitar pedidos, grava o que já está na fila e encerra o
+     * gravador.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        // Depois de fechar com a trava de escrita, ninguém mais enfileira
+        // e o gravador só sai com a fila vazia
+        encerramento.writeLock().lock();
+        try {
+            aberto = false;
+        } finally {
+            encerramento.writeLock().unlock();
+        }
+        gravador.join();
+    }
+
+    // A conferência de aberto e a inclusão na fila são atômicas em relação ao close
+    private void enfileirar(PedidoPendente pendente) {
+        encerramento.readLock().lock();
+        try {
+            if (!aberto) {
+                vagas.release();
+                throw new IllegalStateException("Serviço de ingestão encerrado");
+            }
+            fila.add(pendente);
+        } finally {
+            encerramento.readLock().unlock();
+        }
+    }
+
+    private PedidoPendente preparar(Pedido pedido) {
+        if (!aberto) {
+            throw new IllegalStateException("Serviço de ingestão encerrado");
+        }
+        if (pedido.getItens() == null) {
+            pedido.setItens(new ArrayList<>());
+        }
+
+        Set<ConstraintViolation<?>> violacoes = new HashSet<>(validator.validate(pedido));
+        for (ItemPedido item : pedido.getItens()) {
+            item.setPedido(pedido);
+            violacoes.addAll(validator.validate(item));
+        }
+        if (!violacoes.isEmpty()) {
+            throw new ConstraintViolationException(violacoes);
+        }
+        return new PedidoPendente(pedido);
+    }
+
+    private void gravarContinuamente() {
+        List<PedidoPendente> grupo = new ArrayList<>(tamanhoGrupo);
+        try {
+            while (aberto || !fila.isEmpty()) {
+                PedidoPendente primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                grupo.add(primeiro);
+
+                long prazo = System.nanoTime() + intervaloMaximoNanos;
+                while (grupo.size() < tamanhoGrupo) {
+                    long restante = prazo - System.nanoTime();
+                    PedidoPendente proximo = restante > 0
+                            ? fila.poll(restante, TimeUnit.NANOSECONDS)
+                            : fila.poll();
+                    if (proximo == null) {
+                        break;
+                    }
+                    grupo.add(proximo);
+                }
+
+                gravarGrupo(grupo);
+                grupo.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            encerramento.writeLock().lock();
+            try {
+                aberto = false;
+            } finally {
+                encerramento.writeLock().unlock();
+            }
+            falharPendentes(grupo, e);
+        }
+    }
+
+    private void gravarGrupo(List<PedidoPendente> grupo) {
+        try {
+            gravar(grupo);
+            gruposGravados.incrementAndGet();
+            pedidosGravados.addAndGet(grupo.size());
+            for (PedidoPendente pendente : grupo) {
+                pendente.concluir(null);
+            }
+        } catch (RuntimeException e) {
+            if (grupo.size() == 1) {
+                logger.warn("Falha ao gravar pedido: {}", e.getMessage());
+                pedidosComFalha.incrementAndGet();
+                grupo.get(0).concluir(e);
+                return;
+            }
+            // Isola o pedido problemático sem perder o resto do grupo
+            logger.warn("Falha ao gravar grupo de {} pedidos, gravando um a um: {}", grupo.size(), e.getMessage());
+            for (PedidoPendente pendente : grupo) {
+                gravarGrupo(List.of(pendente));
+            }
+        }
+    }
+
+    private void gravar(List<PedidoPendente> grupo) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction et = em.getTransaction();
+        try {
+            et.begin();
+            List<Pedido> pedidos = new ArrayList<>(grupo.size());
+            for (PedidoPendente pendente : grupo) {
+                Pedido pedido = pendente.pedido;
+                vincular(em, pedido);
+                em.persist(pedido);
+                pedidos.add(pedido);
+            }
+            resumoVendas.registrar(em, pedidos);
+            et.commit();
+        } catch (RuntimeException e) {
+            if (et.isActive()) {
+                et.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Troca os pães e fornadas dos itens (que chegam só com o id) por
+     * entidades gerenciadas. Os pães vêm do cache compartilhado (o resumo
+     * de vendas precisa do preço); pão inexistente ou desativado recusa o
+     * pedido. As fornadas são só referências, sem consultar o banco.
+     */
+    static void vincular(EntityManager em, Pedido pedido) {
+        for (ItemPedido item : pedido.getItens()) {
+            Pao pao = em.find(Pao.class, item.getPao().getId());
+            if (pao == null || !Boolean.TRUE.equals(pao.getAtivo())) {
+                throw new IllegalArgumentException("Pão inexistente ou desativado: " + item.getPao().getId());
+            }
+            item.setPao(pao);
+            if (item.getFornada() != null) {
+                item.setFornada(em.getReference(Fornada.class, item.getFornada().getId()));
+            }
+        }
+    }
+
+    private void falharPendentes(List<PedidoPendente> grupo, Exception causa) {
+        grupo.forEach(p -> p.concluir(causa));
+        PedidoPendente pendente;
+        while ((pendente = fila.poll()) != null) {
+            pendente.concluir(causa);
+        }
+    }
+
+    private final class PedidoPendente {
+
+        private final Pedido pedido;
+        private final CompletableFuture<Pedido> resultado = new CompletableFuture<>();
+
+        private PedidoPendente(Pedido pedido) {
+            this.pedido = pedido;
+        }
+
+        private void concluir(Throwable falha) {
+            vagas.release();
+            if (falha == null) {
+                resultado.complete(pedido);
+            } else {
+                resultado.completeExceptionally(falha);
+            }
+        }
+    }
+}
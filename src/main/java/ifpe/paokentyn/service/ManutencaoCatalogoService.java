@@ -0,0 +1,181 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.Ingrediente;
+import ifpe.paokentyn.domain.Pao;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Query;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.eclipse.persistence.jpa.JpaQuery;
+import org.eclipse.persistence.queries.ModifyAllQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manutenção do catálogo em massa: cada operação é um único UPDATE/DELETE
+ * no banco, sem carregar as entidades, e devolve quantas linhas mudaram.
+ *
+ * O EclipseLink, por padrão, invalida a classe inteira no cache
+ * compartilhado depois de um UPDATE/DELETE em massa. Aqui essa invalidação
+ * é desligada nos reajustes e desativações e, após o commit, só saem do
+ * cache os pães que levam o ingrediente, lidos pela tabela da receita (que
+ * essas operações não mudam). Quando a operação apaga as linhas que
+ * diriam quem foi afetado, sai a classe toda.
+ *
+ * @author isabe
+ */
+public class ManutencaoCatalogoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManutencaoCatalogoService.class);
+
+    // Arredonda para centavos (o Derby não tem ROUND), sem descer de um centavo
+    private static final String NOVO_PRECO = "CASE WHEN p.preco * :fator < 0.01 THEN 0.01 "
+            + "ELSE FLOOR(p.preco * :fator * 100 + 0.5) / 100 END";
+
+    private static final String PAES_COM_INGREDIENTE =
+            "(SELECT q.id FROM Pao q JOIN q.ingredientes i WHERE i.id = :ingrediente)";
+
+    private final EntityManagerFactory emf;
+
+    public ManutencaoCatalogoService(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /**
+     * Reajusta o preço de todos os pães em {@code percentual}% (negativo
+     * para desconto).
+     */
+    public int reajustarPrecos(double percentual) {
+        double fator = fator(percentual);
+        int alterados = executar(em -> semInvalidarCache(em.createQuery(
+                "UPDATE Pao p SET p.preco = " + NOVO_PRECO))
+                .setParameter("fator", fator)
+                .executeUpdate());
+        emf.getCache().evict(Pao.class);
+        logger.info("Preços reajustados em {}%: {} pães", percentual, alterados);
+        return alterados;
+    }
+
+    /**
+     * Reajusta em {@code percentual}% o preço dos pães que levam o
+     * ingrediente.
+     */
+    public int reajustarPrecosComIngrediente(Long idIngrediente, double percentual) {
+        double fator = fator(percentual);
+        int alterados = executar(em -> semInvalidarCache(em.createQuery(
+                "UPDATE Pao p SET p.preco = " + NOVO_PRECO + " WHERE p.id IN " + PAES_COM_INGREDIENTE))
+                .setParameter("fator", fator)
+                .setParameter("ingrediente", idIngrediente)
+                .executeUpdate());
+        despejarPaesComIngrediente(idIngrediente);
+        logger.info("Preços reajustados em {}% nos pães com o ingrediente {}: {} pães",
+                percentual, idIngrediente, alterados);
+        return alterados;
+    }
+
+    /**
+     * Desativa todos os pães que levam o ingrediente. Receitas e pedidos
+     * ficam como estão; pães já inativos não contam.
+     */
+    public int desativarPaesComIngrediente(Long idIngrediente) {
+        int desativados = executar(em -> semInvalidarCache(em.createQuery(
+                "UPDATE Pao p SET p.ativo = false WHERE p.ativo = true AND p.id IN " + PAES_COM_INGREDIENTE))
+                .setParameter("ingrediente", idIngrediente)
+                .executeUpdate());
+        despejarPaesComIngrediente(idIngrediente);
+        logger.info("{} pães com o ingrediente {} desativados", desativados, idIngrediente);
+        return desativados;
+    }
+
+    /**
+     * Tira o ingrediente da receita de todos os pães que o usam. O
+     * ingrediente continua cadastrado e os pães continuam ativos.
+     */
+    public int retirarIngredienteDasReceitas(Long idIngrediente) {
+        // Uma linha por pão da receita
+        int retirados = executar(em -> em.createNativeQuery("DELETE FROM TB_PAO_INGREDIENTE WHERE ID_INGREDIENTE = ?")
+                .setParameter(1, idIngrediente)
+                .executeUpdate());
+        emf.getCache().evict(Pao.class);
+        emf.getCache().evict(Ingrediente.class, idIngrediente);
+        logger.info("Ingrediente {} retirado de {} receitas", idIngrediente, retirados);
+        return retirados;
+    }
+
+    /**
+     * Exclui os ingredientes que não entram em nenhum pão.
+     */
+    public int excluirIngredientesSemUso() {
+        int excluidos = executar(em -> semInvalidarCache(em.createQuery(
+                "DELETE FROM Ingrediente i WHERE i.paes IS EMPTY"))
+                .executeUpdate());
+        emf.getCache().evict(Ingrediente.class);
+        logger.info("{} ingredientes sem uso excluídos", excluidos);
+        return excluidos;
+    }
+
+    /**
+     * Define quanto do ingrediente vai em uma unidade do pão. Devolve 0 se
+     * o ingrediente não fizer parte da receita.
+     */
+    public int definirQuantidadeIngrediente(Long idPao, Long idIngrediente, double quantidade) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser maior que zero: " + quantidade);
+        }
+        return executar(em -> em.createQuery(
+                "UPDATE ReceitaIngrediente r SET r.quantidade = :quantidade "
+                + "WHERE r.idPao = :pao AND r.idIngrediente = :ingrediente")
+                .setParameter("quantidade", quantidade)
+                .setParameter("pao", idPao)
+                .setParameter("ingrediente", idIngrediente)
+                .executeUpdate());
+    }
+
+    private static double fator(double percentual) {
+        if (!(percentual > -100) || Double.isInfinite(percentual)) {
+            throw new IllegalArgumentException("Reajuste deixaria preços não positivos: " + percentual + "%");
+        }
+        return 1 + percentual / 100;
+    }
+
+
+    private static Query semInvalidarCache(Query query) {
+        ((ModifyAllQuery) query.unwrap(JpaQuery.class).getDatabaseQuery()).setCacheUsage(ModifyAllQuery.NO_CACHE);
+        return query;
+    }
+
+    // Depois do commit, em fluxo: a receita não mudou
+    private void despejarPaesComIngrediente(Long idIngrediente) {
+        Cache cache = emf.getCache();
+        EntityManager em = emf.createEntityManager();
+        try (Stream<Long> ids = em.createQuery(
+                "SELECT q.id FROM Pao q JOIN q.ingredientes i WHERE i.id = :ingrediente", Long.class)
+                .setParameter("ingrediente", idIngrediente)
+                .getResultStream()) {
+            ids.forEach(id -> cache.evict(Pao.class, id));
+        } finally {
+            em.close();
+        }
+    }
+
+    private <R> R executar(Function<EntityManager, R> operacao) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction et = em.getTransaction();
+        try {
+            et.begin();
+            R resultado = operacao.apply(em);
+            et.commit();
+            return resultado;
+        } catch (RuntimeException e) {
+            if (et.isActive()) {
+                et.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pedido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Porta de entrada concorrente de pedidos: cada pedido aceito é tratado
+ * (validado e gravado na sua própria transação) numa thread só dele.
+ *
+ * Em Java 21 ou mais novo são threads virtuais, uma por pedido. No Java 17
+ * do projeto o serviço cai para um pool de threads de plataforma com o
+ * dobro das conexões (no máximo o limite de pedidos em andamento): mais
+ * threads que isso só esperariam o semáforo do banco, e os pedidos
+ * aceitos além delas aguardam na fila do pool.
+ *
+ * O resumo de vendas ({@link ResumoVendasService}) é atualizado na
+ * transação do pedido, como na ingestão em lote, logo antes do commit:
+ * pedidos da mesma padaria, pão e hora só esperam uns pelos outros na
+ * confirmação.
+ *
+ * Dois limites seguram a carga:
+ * <ul>
+ * <li>pedidos em andamento (aceitos e ainda não gravados): esgotados,
+ * {@link #submeter(Pedido)} rejeita na hora com
+ * {@link RejectedExecutionException} e
+ * {@link #submeter(Pedido, long, TimeUnit)} espera uma vaga até o prazo;</li>
+ * <li>acesso ao banco: um semáforo do tamanho do pool de conexões de
+ * escrita do EclipseLink, para que os pedidos esperem a vez fora do pool,
+ * sem estourar o tempo de espera por conexão.</li>
+ * </ul>
+ * O tempo médio com a conexão dá a vazão que o nó sustenta
+ * ({@link #getVazaoEstimada()}); pela lei de Little, o limite de pedidos
+ * em andamento deve ficar perto de vazão x tempo total de atendimento.
+ *
+ * @author isabe
+ */
+public class RecepcaoPedidosService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecepcaoPedidosService.class);
+
+    public static final int EM_ANDAMENTO_PADRAO = 1000;
+
+    private final EntityManagerFactory emf;
+    private final ResumoVendasService resumoVendas;
+    private final Validator validator;
+    private final int maximoEmAndamento;
+    private final int conexoes;
+    private final Semaphore vagas;
+    private final Semaphore banco;
+    private final ExecutorService executor;
+    private final boolean threadsVirtuais;
+
+    private final AtomicLong aceitos = new AtomicLong();
+    private final AtomicLong rejeitados = new AtomicLong();
+    private final AtomicLong gravados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicInteger aguardandoConexao = new AtomicInteger();
+    private final AtomicLong nanosNoBanco = new AtomicLong();
+
+    private volatile boolean aberto = true;
+
+    public RecepcaoPedidosService(EntityManagerFactory emf, Validator validator) {
+        this(emf, validator, EM_ANDAMENTO_PADRAO, conexoesDeEscrita(emf));
+    }
+
+    public RecepcaoPedidosService(EntityManagerFactory emf, Validator validator, int maximoEmAndamento, int conexoes) {
+        if (maximoEmAndamento < 1 || conexoes < 1) {
+            throw new IllegalArgumentException("Limites de recepção inválidos");
+        }
+        this.emf = emf;
+        this.resumoVendas = new ResumoVendasService(emf);
+        this.validator = validator;
+        this.maximoEmAndamento = maximoEmAndamento;
+        this.conexoes = conexoes;
+        this.vagas = new Semaphore(maximoEmAndamento);
+        this.banco = new Semaphore(conexoes, true);
+
+        ExecutorService virtual = executorVirtual();
+        this.threadsVirtuais = virtual != null;
+        int plataforma = Math.min(maximoEmAndamento, 2 * conexoes);
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(plataforma, new ThreadFactory() {
+            private final AtomicInteger contador = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable tarefa) {
+                Thread thread = new Thread(tarefa, "recepcao-pedidos-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Aceita o pedido se houver vaga; senão rejeita na hora. O futuro é
+     * completado quando o pedido for gravado, ou com a falha (inclusive
+     * {@link ConstraintViolationException} de pedido inválido).
+     *
+     * @throws RejectedExecutionException sem vagas
+     */
+    public CompletableFuture<Pedido> submeter(Pedido pedido) {
+        verificarAberto();
+        if (!vagas.tryAcquire()) {
+            throw rejeitar();
+        }
+        return despachar(pedido);
+    }
+
+    /**
+     * Como {@link #submeter(Pedido)}, mas espera uma vaga até o prazo.
+     */
+    public CompletableFuture<Pedido> submeter(Pedido pedido, long prazo, TimeUnit unidade)
+            throws InterruptedException {
+        verificarAberto();
+        if (!vagas.tryAcquire(prazo, unidade)) {
+            throw rejeitar();
+        }
+        return despachar(pedido);
+    }
+
+    public boolean isThreadsVirtuais() {
+        return threadsVirtuais;
+    }
+
+    public int getConexoes() {
+        return conexoes;
+    }
+
+    /** Pedidos aceitos e ainda não concluídos. */
+    public int getEmAndamento() {
+        return maximoEmAndamento - vagas.availablePermits();
+    }
+
+    /** Pedidos validados esperando uma conexão livre. */
+    public int getAguardandoConexao() {
+        return aguardandoConexao.get();
+    }
+
+    public long getAceitos() {
+        return aceitos.get();
+    }
+
+    public long getRejeitados() {
+        return rejeitados.get();
+    }
+
+    public long getGravados() {
+        return gravados.get();
+    }
+
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    /** Tempo médio, em milissegundos, que um pedido gravado segurou a conexão. */
+    public double getTempoMedioNoBancoMs() {
+        long total = gravados.get();
+        return total == 0 ? 0 : nanosNoBanco.get() / 1e6 / total;
+    }
+
+    /**
+     * Pedidos por segundo que o nó sustenta com as conexões disponíveis,
+     * pelo tempo médio medido até agora (0 antes do primeiro pedido).
+     */
+    public double getVazaoEstimada() {
+        double tempoMedio = getTempoMedioNoBancoMs();
+        return tempoMedio == 0 ? 0 : conexoes * 1000 / tempoMedio;
+    }
+
+    /**
+     * Para de aceitar pedidos e espera os que estão em andamento.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        aberto = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            logger.warn("Recepção encerrada com {} pedidos em andamento", getEmAndamento());
+        }
+    }
+
+    private CompletableFuture<Pedido> despachar(Pedido pedido) {
+        CompletableFuture<Pedido> resultado = new CompletableFuture<>();
+        aceitos.incrementAndGet();
+        try {
+            executor.execute(() -> atender(pedido, resultado));
+        } catch (RejectedExecutionException e) {
+            // Encerrado entre a verificação e o despacho
+            vagas.release();
+            aceitos.decrementAndGet();
+            rejeitados.incrementAndGet();
+            throw e;
+        }
+        return resultado;
+    }
+
+    private void atender(Pedido pedido, CompletableFuture<Pedido> resultado) {
+        try {
+            validar(pedido);
+            aguardandoConexao.incrementAndGet();
+            try {
+                banco.acquire();
+            } finally {
+                aguardandoConexao.decrementAndGet();
+            }
+            long inicio = System.nanoTime();
+            try {
+                gravar(pedido);
+                nanosNoBanco.addAndGet(System.nanoTime() - inicio);
+            } finally {
+                banco.release();
+            }
+            gravados.incrementAndGet();
+            resultado.complete(pedido);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            falhar(resultado, e);
+        } catch (RuntimeException e) {
+            falhar(resultado, e);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    private void falhar(CompletableFuture<Pedido> resultado, Exception e) {
+        if (!(e instanceof ConstraintViolationException)) {
+            logger.warn("Falha ao gravar pedido: {}", e.getMessage());
+        }
+        falhas.incrementAndGet();
+        resultado.completeExceptionally(e);
+    }
+
+    private void validar(Pedido pedido) {
+        if (pedido.getItens() == null) {
+            pedido.setItens(new ArrayList<>());
+        }
+        Set<ConstraintViolation<?>> violacoes = new HashSet<>(validator.validate(pedido));
+        for (ItemPedido item : pedido.getItens()) {
+            item.setPedido(pedido);
+            violacoes.addAll(validator.validate(item));
+        }
+        if (!violacoes.isEmpty()) {
+            throw new ConstraintViolationException(violacoes);
+        }
+    }
+
+    private void gravar(Pedido pedido) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction et = em.getTransaction();
+        try {
+            et.begin();
+            IngestaoPedidosService.vincular(em, pedido);
+            em.persist(pedido);
+            resumoVendas.registrar(em, List.of(pedido));
+            et.commit();
+        } catch (RuntimeException e) {
+            if (et.isActive()) {
+                et.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private void verificarAberto() {
+        if (!aberto) {
+            throw new IllegalStateException("Recepção de pedidos encerrada");
+        }
+    }
+
+    private RejectedExecutionException rejeitar() {
+        rejeitados.incrementAndGet();
+        return new RejectedExecutionException("Recepção sem vagas (" + getEmAndamento() + " pedidos em andamento, "
+                + getAguardandoConexao() + " aguardando conexão)");
+    }
+
+    private static int conexoesDeEscrita(EntityManagerFactory emf) {
+        return emf.unwrap(JpaEntityManagerFactory.class).getServerSession()
+                .getDefaultConnectionPool().getMaxNumberOfConnections();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() só existe a partir do Java 21
+    private static ExecutorService executorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.preco.LoteItens;
+import ifpe.paokentyn.preco.MotorPrecos;
+import ifpe.paokentyn.preco.TabelaPrecos;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Confere o {@code valorTotal} gravado nos pedidos contra o total
+ * calculado pelo {@link MotorPrecos} (quantidade × preço de cada item) e,
+ * se pedido, corrige os divergentes.
+ *
+ * Só entram os pedidos que já existiam no início: a lista de ids é dividida
+ * em lotes de ids consecutivos, processados em paralelo por
+ * {@code paralelismo} threads, cada uma com seu próprio EntityManager e sua
+ * própria transação. Todos os lotes usam a mesma {@link TabelaPrecos},
+ * lida uma vez no início. A correção é um único UPDATE por pedido, que
+ * recalcula o total no banco a partir dos itens e preços do momento e só
+ * vale se o total gravado ainda for o que foi lido.
+ *
+ * @author isabe
+ */
+public class ReconciliacaoPrecosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliacaoPrecosService.class);
+
+    public static final int TAMANHO_LOTE_PADRAO = 1000;
+
+    // Diferenças abaixo de meio centavo são arredondamento
+    private static final double TOLERANCIA = 0.005;
+
+    // O JPQL do EclipseLink não aceita subconsulta correlacionada no SET
+    private static final String CORRIGIR = "UPDATE TB_PEDIDO SET NUM_VALOR_TOTAL = "
+            + "(SELECT COALESCE(SUM(i.NUM_QUANTIDADE * pao.NUM_PRECO), 0) FROM TB_ITEM_PEDIDO i "
+            + "JOIN TB_PAO pao ON pao.ID = i.ID_PAO WHERE i.ID_PEDIDO = TB_PEDIDO.ID) "
+            + "WHERE ID = ? AND NUM_VALOR_TOTAL = ?";
+
+    private final EntityManagerFactory emf;
+    private final int tamanhoLote;
+    private final int paralelismo;
+
+    public ReconciliacaoPrecosService(EntityManagerFactory emf) {
+        this(emf, TAMANHO_LOTE_PADRAO, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ReconciliacaoPrecosService(EntityManagerFactory emf, int tamanhoLote, int paralelismo) {
+        if (tamanhoLote < 1 || paralelismo < 1) {
+            throw new IllegalArgumentException("Tamanho de lote e paralelismo devem ser maiores que zero");
+        }
+        this.emf = emf;
+        this.tamanhoLote = tamanhoLote;
+        this.paralelismo = paralelismo;
+    }
+
+    public record Resultado(long pedidosVerificados, long pedidosDivergentes, long pedidosCorrigidos) {
+
+        private Resultado somar(Resultado outro) {
+            return new Resultado(pedidosVerificados + outro.pedidosVerificados,
+                    pedidosDivergentes + outro.pedidosDivergentes,
+                    pedidosCorrigidos + outro.pedidosCorrigidos);
+        }
+    }
+
+    /**
+     * Recalcula todos os pedidos com os preços atuais. Com
+     * {@code corrigir}, grava o total recalculado nos divergentes.
+     */
+    public Resultado reconciliar(boolean corrigir) {
+        TabelaPrecos tabela;
+        long[] ids;
+        EntityManager em = emf.createEntityManager();
+        try {
+            tabela = TabelaPrecos.carregar(em);
+            List<Long> lista = em.createQuery("SELECT p.id FROM Pedido p ORDER BY p.id", Long.class)
+                    .getResultList();
+            ids = lista.stream().mapToLong(Long::longValue).toArray();
+        } finally {
+            em.close();
+        }
+
+        MotorPrecos motor = new MotorPrecos(tabela);
+        ExecutorService executor = Executors.newFixedThreadPool(paralelismo);
+        try {
+            List<Future<Resultado>> lotes = new ArrayList<>();
+            for (int inicio = 0; inicio < ids.length; inicio += tamanhoLote) {
+                long[] lote = Arrays.copyOfRange(ids, inicio, Math.min(inicio + tamanhoLote, ids.length));
+                lotes.add(executor.submit(() -> reconciliarLote(motor, lote, corrigir)));
+            }
+
+            Resultado resultado = new Resultado(0, 0, 0);
+            for (Future<Resultado> lote : lotes) {
+                resultado = resultado.somar(lote.get());
+            }
+            logger.info("Reconciliação de preços: {}", resultado);
+            return resultado;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliação interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Resultado reconciliarLote(MotorPrecos motor, long[] ids, boolean corrigir) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction et = em.getTransaction();
+        try {
+            et.begin();
+            // Pedidos gravados no intervalo depois da lista de ids ficam de
+            // fora: a leitura pode pegar o pedido sem os seus itens
+            List<Object[]> linhas = em.createQuery(
+                    "SELECT p.id, p.valorTotal, pao.id, i.quantidade FROM Pedido p "
+                    + "LEFT JOIN p.itens i LEFT JOIN i.pao pao "
+                    + "WHERE p.id BETWEEN :primeiro AND :ultimo ORDER BY p.id",
+                    Object[].class)
+                    .setParameter("primeiro", ids[0])
+                    .setParameter("ultimo", ids[ids.length - 1])
+                    .getResultList();
+
+            LoteItens.Construtor construtor = LoteItens.construtor();
+            double[] gravados = new double[linhas.size()];
+            int pedidos = 0;
+            long anterior = 0;
+            for (Object[] linha : linhas) {
+                long idPedido = (Long) linha[0];
+                if (Arrays.binarySearch(ids, idPedido) < 0) {
+                    continue;
+                }
+                if (pedidos == 0 || idPedido != anterior) {
+                    gravados[pedidos++] = (Double) linha[1];
+                    construtor.pedido(idPedido);
+                    anterior = idPedido;
+                }
+                if (linha[2] != null) {
+                    construtor.item((Long) linha[2], (Integer) linha[3]);
+                }
+            }
+            LoteItens lote = construtor.construir();
+            double[] calculados = motor.totalizar(lote);
+
+            long divergentes = 0;
+            List<Long> corrigidos = new ArrayList<>();
+            for (int p = 0; p < calculados.length; p++) {
+                if (Math.abs(calculados[p] - gravados[p]) < TOLERANCIA) {
+                    continue;
+                }
+                divergentes++;
+                logger.debug("Pedido {}: gravado {}, calculado {}", lote.idPedido(p), gravados[p], calculados[p]);
+                if (corrigir) {
+                    if (em.createNativeQuery(CORRIGIR)
+                            .setParameter(1, lote.idPedido(p))
+                            .setParameter(2, gravados[p])
+                            .executeUpdate() > 0) {
+                        corrigidos.add(lote.idPedido(p));
+                    }
+                }
+            }
+            et.commit();
+            // O UPDATE nativo não passa pelo cache compartilhado
+            corrigidos.forEach(id -> emf.getCache().evict(Pedido.class, id));
+            return new Resultado(calculados.length, divergentes, corrigidos.size());
+        } catch (RuntimeException e) {
+            if (et.isActive()) {
+                et.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.domain.VendaHora;
+import ifpe.paokentyn.domain.VendaHoraId;
+import ifpe.paokentyn.projecao.TotalVendas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.TypedQuery;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resumo de vendas por padaria × pão × hora (TB_VENDA_HORA).
+ *
+ * {@link #registrar(EntityManager, Collection)} acumula os pedidos novos no
+ * resumo dentro da transação de quem grava os pedidos: o resumo e os
+ * pedidos são confirmados (ou desfeitos) juntos. {@link #reconstruir()}
+ * recalcula tudo a partir de TB_PEDIDO/TB_ITEM_PEDIDO, para carga inicial
+ * ou correção. Os painéis consultam só o resumo.
+ *
+ * Cada parcela é um UPDATE e, se a linha ainda não existir, um INSERT. Se
+ * uma transação concorrente criar a mesma linha entre os dois, o INSERT
+ * falha só no comando (chave duplicada) e o UPDATE é repetido, sem desfazer
+ * a gravação dos pedidos. As parcelas são aplicadas em ordem de chave, para
+ * que transações concorrentes travem as linhas do resumo na mesma
+ * sequência e não entrem em impasse.
+ *
+ * O item não guarda o preço de venda; o valor é quantidade × preço do pão
+ * no momento do registro (ou da reconstrução).
+ *
+ * @author isabe
+ */
+public class ResumoVendasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumoVendasService.class);
+
+    private static final String ACUMULAR =
+            "UPDATE TB_VENDA_HORA SET NUM_QUANTIDADE = NUM_QUANTIDADE + ?, NUM_VALOR = NUM_VALOR + ? "
+            + "WHERE ID_PADARIA = ? AND ID_PAO = ? AND NUM_HORA = ?";
+
+    private static final String INSERIR =
+            "INSERT INTO TB_VENDA_HORA (NUM_QUANTIDADE, NUM_VALOR, ID_PADARIA, ID_PAO, NUM_HORA) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String CHAVE_DUPLICADA = "23505";
+
+    private static final Comparator<VendaHoraId> ORDEM = Comparator.comparing(VendaHoraId::getIdPadaria)
+            .thenComparing(VendaHoraId::getIdPao)
+            .thenComparing(VendaHoraId::getHora);
+
+    private static final String RECONSTRUIR =
+            "INSERT INTO TB_VENDA_HORA (ID_PADARIA, ID_PAO, NUM_HORA, NUM_QUANTIDADE, NUM_VALOR) "
+            + "SELECT v.ID_PADARIA, v.ID_PAO, v.NUM_HORA, SUM(v.NUM_QUANTIDADE), SUM(v.NUM_VALOR) FROM ("
+            + "SELECT COALESCE(f.ID_PADARIA, " + VendaHora.SEM_PADARIA + ") AS ID_PADARIA, i.ID_PAO, "
+            + "CAST(YEAR(p.DT_PEDIDO) AS BIGINT) * 1000000 + MONTH(p.DT_PEDIDO) * 10000 "
+            + "+ DAY(p.DT_PEDIDO) * 100 + HOUR(p.DT_PEDIDO) AS NUM_HORA, "
+            + "CAST(i.NUM_QUANTIDADE AS BIGINT) AS NUM_QUANTIDADE, i.NUM_QUANTIDADE * pao.NUM_PRECO AS NUM_VALOR "
+            + "FROM TB_ITEM_PEDIDO i JOIN TB_PEDIDO p ON p.ID = i.ID_PEDIDO "
+            + "JOIN TB_PAO pao ON pao.ID = i.ID_PAO "
+            + "LEFT JOIN TB_FORNADA f ON f.ID = i.ID_FORNADA) v "
+            + "GROUP BY v.ID_PADARIA, v.ID_PAO, v.NUM_HORA";
+
+    private final EntityManagerFactory emf;
+
+    public ResumoVendasService(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /**
+     * Soma os itens dos pedidos ao resumo, na transação ativa de
+     * {@code em}. Itens da mesma padaria, pão e hora viram um só comando.
+     */
+    public void registrar(EntityManager em, Collection<Pedido> pedidos) {
+        Map<VendaHoraId, Parcela> parcelas = new TreeMap<>(ORDEM);
+        for (Pedido pedido : pedidos) {
+            long hora = hora(pedido.getDataPedido());
+            for (ItemPedido item : pedido.getItens()) {
+                long padaria = item.getFornada() == null
+                        ? VendaHora.SEM_PADARIA
+                        : item.getFornada().getPadaria().getId();
+                Parcela parcela = parcelas.computeIfAbsent(
+                        new VendaHoraId(padaria, item.getPao().getId(), hora), k -> new Parcela());
+                parcela.quantidade += item.getQuantidade();
+                parcela.valor += item.getQuantidade() * item.getPao().getPreco();
+            }
+        }
+
+        if (!parcelas.isEmpty()) {
+            // Pela conexão da transação: uma falha de comando via JPA marcaria a transação para desfazer
+            acumular(em.unwrap(Connection.class), parcelas);
+        }
+    }
+
+    /**
+     * Apaga o resumo e o recalcula a partir de todos os pedidos. Devolve
+     * quantas linhas de resumo foram geradas.
+     */
+    public int reconstruir() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction et = em.getTransaction();
+        try {
+            et.begin();
+            em.createNativeQuery("DELETE FROM TB_VENDA_HORA").executeUpdate();
+            int linhas = em.createNativeQuery(RECONSTRUIR).executeUpdate();
+            et.commit();
+            logger.info("Resumo de vendas reconstruído: {} linhas", linhas);
+            return linhas;
+        } catch (RuntimeException e) {
+            if (et.isActive()) {
+                et.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /** Totais por padaria entre as horas de {@code inicio} e {@code fim}, inclusive. */
+    public List<TotalVendas> totaisPorPadaria(Date inicio, Date fim) {
+        return totais("v.idPadaria", null, inicio, fim);
+    }
+
+    /** Totais por pão entre as horas de {@code inicio} e {@code fim}, inclusive. */
+    public List<TotalVendas> totaisPorPao(Date inicio, Date fim) {
+        return totais("v.idPao", null, inicio, fim);
+    }
+
+    /** Totais hora a hora de uma padaria entre {@code inicio} e {@code fim}, inclusive. */
+    public List<TotalVendas> totaisPorHora(Long idPadaria, Date inicio, Date fim) {
+        return totais("v.hora", idPadaria, inicio, fim);
+    }
+
+    /**
+     * Chave de hora (aaaammddhh) de um instante, no fuso do servidor, igual
+     * à calculada pelo banco na reconstrução.
+     */
+    public static long hora(Date data) {
+        LocalDateTime local = LocalDateTime.ofInstant(data.toInstant(), ZoneId.systemDefault());
+        return local.getYear() * 1000000L + local.getMonthValue() * 10000L
+                + local.getDayOfMonth() * 100L + local.getHour();
+    }
+
+    private List<TotalVendas> totais(String chave, Long idPadaria, Date inicio, Date fim) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            String jpql = "SELECT NEW ifpe.paokentyn.projecao.TotalVendas(" + chave
+                    + ", SUM(v.quantidade), SUM(v.valor)) FROM VendaHora v "
+                    + "WHERE v.hora BETWEEN :inicio AND :fim"
+                    + (idPadaria != null ? " AND v.idPadaria = :padaria" : "")
+                    + " GROUP BY " + chave + " ORDER BY " + chave;
+            TypedQuery<TotalVendas> query = em.createQuery(jpql, TotalVendas.class)
+                    .setParameter("inicio", hora(inicio))
+                    .setParameter("fim", hora(fim));
+            if (idPadaria != null) {
+                query.setParameter("padaria", idPadaria);
+            }
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void acumular(Connection conexao, Map<VendaHoraId, Parcela> parcelas) {
+        try (PreparedStatement acumular = conexao.prepareStatement(ACUMULAR);
+                PreparedStatement inserir = conexao.prepareStatement(INSERIR)) {
+            for (Map.Entry<VendaHoraId, Parcela> parcela : parcelas.entrySet()) {
+                while (executar(acumular, parcela.getKey(), parcela.getValue()) == 0) {
+                    try {
+                        executar(inserir, parcela.getKey(), parcela.getValue());
+                        break;
+                    } catch (SQLException e) {
+                        if (!CHAVE_DUPLICADA.equals(e.getSQLState())) {
+                            throw e;
+                        }
+                        // Outra transação criou a linha depois do UPDATE
+                        logger.debug("Linha de resumo {}/{}/{} criada em paralelo, acumulando",
+                                parcela.getKey().getIdPadaria(), parcela.getKey().getIdPao(), parcela.getKey().getHora());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Falha ao acumular o resumo de vendas", e);
+        }
+    }
+
+    private static int executar(PreparedStatement comando, VendaHoraId chave, Parcela parcela)
+            throws SQLException {
+        comando.setLong(1, parcela.quantidade);
+        comando.setDouble(2, parcela.valor);
+        comando.setLong(3, chave.getIdPadaria());
+        comando.setLong(4, chave.getIdPao());
+        comando.setLong(5, chave.getHora());
+        return comando.executeUpdate();
+    }
+
+    private static final class Parcela {
+
+        private long quantidade;
+        private double valor;
+    }
+}
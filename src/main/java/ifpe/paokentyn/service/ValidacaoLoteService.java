@@ -0,0 +1,281 @@
+package ifpe.paokentyn.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.validator.HibernateValidatorFactory;
+
+/**
+ * Valida lotes grandes de objetos (padarias, funcionários, pães, pedidos
+ * de uma importação) em paralelo, usando os mesmos {@link Validator} —
+ * que são seguros entre threads — em todas as threads.
+ *
+ * A lista é dividida em faixas contíguas, uma tarefa por faixa, e as
+ * faixas rodam num pool do tamanho dos núcleos. Com
+ * {@code pararNaPrimeira}, cada objeto para na primeira restrição violada
+ * (o modo fail-fast do Hibernate Validator), o que basta para separar as
+ * linhas boas das ruins.
+ *
+ * O resultado não guarda um {@code Set<ConstraintViolation>} por objeto:
+ * vem em {@link Violacoes}, com vetores paralelos de índice do objeto,
+ * campo e mensagem, e campos e mensagens repetidos guardados uma vez só.
+ *
+ * @author isabe
+ */
+public class ValidacaoLoteService implements AutoCloseable {
+
+    public static final int FAIXA_MINIMA = 256;
+
+    private final Validator validator;
+    private final Validator validatorRapido;
+    private final int paralelismo;
+    private final ExecutorService executor;
+
+    public ValidacaoLoteService(ValidatorFactory factory) {
+        this(factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ValidacaoLoteService(ValidatorFactory factory, int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("Paralelismo inválido: " + paralelismo);
+        }
+        this.validator = factory.getValidator();
+        this.validatorRapido = factory.unwrap(HibernateValidatorFactory.class).usingContext()
+                .failFast(true)
+                .getValidator();
+        this.paralelismo = paralelismo;
+        this.executor = Executors.newFixedThreadPool(paralelismo, new ThreadFactory() {
+            private final AtomicInteger contador = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable tarefa) {
+                Thread thread = new Thread(tarefa, "validacao-lote-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /** Valida todos os objetos, reportando todas as violações de cada um. */
+    public Violacoes validar(List<?> objetos) {
+        return validar(objetos, false);
+    }
+
+    /**
+     * Valida os objetos em paralelo. Objetos nulos não são validados.
+     *
+     * @param pararNaPrimeira reporta só a primeira violação de cada objeto
+     */
+    public Violacoes validar(List<?> objetos, boolean pararNaPrimeira) {
+        Validator escolhido = pararNaPrimeira ? validatorRapido : validator;
+        int total = objetos.size();
+        int faixa = Math.max(FAIXA_MINIMA, (total + paralelismo * 4 - 1) / (paralelismo * 4));
+
+        if (total <= faixa) {
+            return new Violacoes(total, List.of(validarFaixa(escolhido, objetos, 0, total)));
+        }
+        List<Future<Faixa>> tarefas = new ArrayList<>();
+        for (int inicio = 0; inicio < total; inicio += faixa) {
+            int de = inicio;
+            int ate = Math.min(total, inicio + faixa);
+            tarefas.add(executor.submit(() -> validarFaixa(escolhido, objetos, de, ate)));
+        }
+        List<Faixa> faixas = new ArrayList<>(tarefas.size());
+        try {
+            for (Future<Faixa> tarefa : tarefas) {
+                faixas.add(tarefa.get());
+            }
+        } catch (InterruptedException e) {
+            tarefas.forEach(tarefa -> tarefa.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Validação do lote interrompida", e);
+        } catch (ExecutionException e) {
+            tarefas.forEach(tarefa -> tarefa.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Falha ao validar o lote", e.getCause());
+        }
+        return new Violacoes(total, faixas);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static Faixa validarFaixa(Validator validator, List<?> objetos, int de, int ate) {
+        Faixa faixa = new Faixa();
+        for (int i = de; i < ate; i++) {
+            Object objeto = objetos.get(i);
+            if (objeto == null) {
+                continue;
+            }
+            Set<? extends ConstraintViolation<?>> violacoes = validator.validate(objeto);
+            for (ConstraintViolation<?> violacao : violacoes) {
+                faixa.adicionar(i, violacao.getPropertyPath().toString(), violacao.getMessage());
+            }
+        }
+        return faixa;
+    }
+
+    // Violações de uma faixa, na ordem dos objetos
+    private static final class Faixa {
+
+        private int[] indices = new int[16];
+        private String[] campos = new String[16];
+        private String[] mensagens = new String[16];
+        private int tamanho;
+
+        private void adicionar(int indice, String campo, String mensagem) {
+            if (tamanho == indices.length) {
+                indices = Arrays.copyOf(indices, tamanho * 2);
+                campos = Arrays.copyOf(campos, tamanho * 2);
+                mensagens = Arrays.copyOf(mensagens, tamanho * 2);
+            }
+            indices[tamanho] = indice;
+            campos[tamanho] = campo;
+            mensagens[tamanho] = mensagem;
+            tamanho++;
+        }
+    }
+
+    /**
+     * Violações de um lote, ordenadas pelo índice do objeto na lista
+     * validada. A violação {@code v} (de 0 a {@link #tamanho()} - 1) é do
+     * objeto {@link #indice(int)}, no campo {@link #campo(int)} (vazio
+     * para restrições da classe), com a mensagem {@link #mensagem(int)}.
+     */
+    public static final class Violacoes {
+
+        private final int objetos;
+        private final int[] indices;
+        private final int[] campos;
+        private final int[] mensagens;
+        private final String[] textos;
+        private final int invalidos;
+
+        private Violacoes(int objetos, List<Faixa> faixas) {
+            int tamanho = 0;
+            for (Faixa faixa : faixas) {
+                tamanho += faixa.tamanho;
+            }
+            this.objetos = objetos;
+            this.indices = new int[tamanho];
+            this.campos = new int[tamanho];
+            this.mensagens = new int[tamanho];
+
+            Map<String, Integer> codigos = new HashMap<>();
+            List<String> lista = new ArrayList<>();
+            int v = 0;
+            int invalidos = 0;
+            int anterior = -1;
+            for (Faixa faixa : faixas) {
+                for (int i = 0; i < faixa.tamanho; i++, v++) {
+                    indices[v] = faixa.indices[i];
+                    campos[v] = codigos.computeIfAbsent(faixa.campos[i], texto -> registrar(lista, texto));
+                    mensagens[v] = codigos.computeIfAbsent(faixa.mensagens[i], texto -> registrar(lista, texto));
+                    if (indices[v] != anterior) {
+                        invalidos++;
+                        anterior = indices[v];
+                    }
+                }
+            }
+            this.textos = lista.toArray(new String[0]);
+            this.invalidos = invalidos;
+        }
+
+        private static int registrar(List<String> lista, String texto) {
+            lista.add(texto);
+            return lista.size() - 1;
+        }
+
+        public boolean isVazio() {
+            return indices.length == 0;
+        }
+
+        /** Total de violações. */
+        public int tamanho() {
+            return indices.length;
+        }
+
+        /** Objetos validados. */
+        public int getObjetos() {
+            return objetos;
+        }
+
+        /** Objetos com pelo menos uma violação. */
+        public int getInvalidos() {
+            return invalidos;
+        }
+
+        public int indice(int v) {
+            return indices[v];
+        }
+
+        public String campo(int v) {
+            return textos[campos[v]];
+        }
+
+        public String mensagem(int v) {
+            return textos[mensagens[v]];
+        }
+
+        /** Se o objeto da posição {@code indice} passou sem violações. */
+        public boolean isValido(int indice) {
+            return primeira(indice) < 0;
+        }
+
+        /** Mensagens das violações do objeto, ou lista vazia. */
+        public List<String> mensagensDo(int indice) {
+            int v = primeira(indice);
+            if (v < 0) {
+                return List.of();
+            }
+            List<String> resultado = new ArrayList<>();
+            for (; v < indices.length && indices[v] == indice; v++) {
+                resultado.add(mensagem(v));
+            }
+            return resultado;
+        }
+
+        /** Índices dos objetos com violações, em ordem. */
+        public int[] invalidos() {
+            int[] resultado = new int[invalidos];
+            int n = 0;
+            for (int v = 0; v < indices.length; v++) {
+                if (v == 0 || indices[v] != indices[v - 1]) {
+                    resultado[n++] = indices[v];
+                }
+            }
+            return resultado;
+        }
+
+        // Primeira violação do objeto, por busca binária
+        private int primeira(int indice) {
+            int baixo = 0;
+            int alto = indices.length;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (indices[meio] < indice) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+            return baixo < indices.length && indices[baixo] == indice ? baixo : -1;
+        }
+    }
+}
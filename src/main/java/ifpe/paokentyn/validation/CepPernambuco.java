@@ -12,7 +12,7 @@ import java.lang.annotation.Target;
 @Constraint(validatedBy = CepPernambucoValidator.class)
 public @interface CepPernambuco {
     
-    String message() default "A padaria deve estar localizada em Pernambuco (CEP começando com 5)";
+    String message() default "A padaria deve estar localizada em Pernambuco (CEP de 50000-000 a 56999-999)";
 
     Class<?>[] groups() default {};
 
@@ -5,8 +5,11 @@ import jakarta.validation.ConstraintValidatorContext;
 
 public class CepPernambucoValidator implements ConstraintValidator<CepPernambuco, String> {
 
+    private FaixasCep faixas;
+
     @Override
     public void initialize(CepPernambuco constraintAnnotation) {
+        faixas = FaixasCep.pernambuco();
     }
 
     @Override
@@ -15,11 +18,14 @@ public class CepPernambucoValidator implements ConstraintValidator<CepPernambuco
         if (cep == null) {
             return true;
         }
-        
-        // Remove traços para garantir que estamos pegando o primeiro número
-        String cepLimpo = cep.replace("-", "").trim();
-        
-        // Regra: Deve começar com '5' (Região de PE/AL/PB/RN, mas vamos focar em PE 5xxxx)
-        return cepLimpo.startsWith("5");
+
+        // Fora do formato é com o @Pattern; aqui só se confere a faixa
+        int numero = FaixasCep.numero(cep);
+        if (numero < 0) {
+            return true;
+        }
+
+        // Regra: CEP nas faixas de Pernambuco (50000-000 a 56999-999; AL, PB e RN também começam com 5)
+        return faixas.contem(numero);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package ifpe.paokentyn.validation;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Tabela de faixas de CEP (início e fim, inclusive, como inteiros de 8
+ * dígitos) num único {@code int[]} ordenado: {@code [inicio0, fim0,
+ * inicio1, fim1, ...]}. A consulta é uma busca binária pelos inícios, sem
+ * alocar nada.
+ *
+ * As faixas vêm de um arquivo binário no classpath, em big-endian:
+ * "CEPF", versão (int, 1), quantidade de faixas (int) e os pares
+ * início/fim (int), em ordem e sem sobreposição. A tabela de Pernambuco
+ * ({@code faixas-cep-pe.bin}) segue as faixas dos Correios: Recife
+ * (50000-000 a 52999-999), região metropolitana e Fernando de Noronha
+ * (53000-000 a 54999-999) e interior (55000-000 a 56999-999).
+ *
+ * @author isabe
+ */
+public final class FaixasCep {
+
+    private static final int VERSAO = 1;
+
+    private final int[] limites;
+
+    private FaixasCep(int[] limites) {
+        this.limites = limites;
+    }
+
+    /** Faixas de CEP de Pernambuco, carregadas uma vez. */
+    public static FaixasCep pernambuco() {
+        return Pernambuco.FAIXAS;
+    }
+
+    /** Lê uma tabela de faixas no formato descrito acima. */
+    public static FaixasCep ler(InputStream entrada) throws IOException {
+        DataInputStream dados = new DataInputStream(entrada);
+        byte[] marca = new byte[4];
+        dados.readFully(marca);
+        if (marca[0] != 'C' || marca[1] != 'E' || marca[2] != 'P' || marca[3] != 'F') {
+            throw new IOException("Arquivo de faixas de CEP inválido");
+        }
+        int versao = dados.readInt();
+        if (versao != VERSAO) {
+            throw new IOException("Versão de faixas de CEP não suportada: " + versao);
+        }
+        int quantidade = dados.readInt();
+        if (quantidade < 0 || quantidade > 1_000_000) {
+            throw new IOException("Quantidade de faixas de CEP inválida: " + quantidade);
+        }
+        int[] limites = new int[quantidade * 2];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = dados.readInt();
+        }
+        for (int i = 0; i < limites.length; i += 2) {
+            if (limites[i] > limites[i + 1] || (i > 0 && limites[i] <= limites[i - 1])) {
+                throw new IOException("Faixas de CEP fora de ordem na faixa " + i / 2);
+            }
+        }
+        return new FaixasCep(limites);
+    }
+
+    public int quantidade() {
+        return limites.length / 2;
+    }
+
+    /** Se o CEP (8 dígitos como inteiro) está em alguma faixa. */
+    public boolean contem(int cep) {
+        // Última faixa com início <= cep
+        int baixo = 0;
+        int alto = limites.length / 2 - 1;
+        int encontrada = -1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (limites[meio * 2] <= cep) {
+                encontrada = meio;
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return encontrada >= 0 && cep <= limites[encontrada * 2 + 1];
+    }
+
+    /**
+     * Converte "00000-000" ou "00000000" (com espaços nas pontas) para
+     * inteiro, sem alocar; -1 se não estiver em nenhum dos dois formatos.
+     */
+    public static int numero(CharSequence cep) {
+        int inicio = 0;
+        int fim = cep.length();
+        while (inicio < fim && cep.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && cep.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        int tamanho = fim - inicio;
+        if (tamanho != 8 && !(tamanho == 9 && cep.charAt(inicio + 5) == '-')) {
+            return -1;
+        }
+        int numero = 0;
+        for (int i = inicio; i < fim; i++) {
+            char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                numero = numero * 10 + (c - '0');
+            } else if (!(tamanho == 9 && i == inicio + 5)) {
+                return -1;
+            }
+        }
+        return numero;
+    }
+
+    // Carregada no primeiro uso
+    private static final class Pernambuco {
+
+        private static final FaixasCep FAIXAS = carregar("faixas-cep-pe.bin");
+
+        private static FaixasCep carregar(String recurso) {
+            try (InputStream entrada = FaixasCep.class.getResourceAsStream(recurso)) {
+                if (entrada == null) {
+                    throw new IllegalStateException("Recurso " + recurso + " não encontrado");
+                }
+                return ler(entrada);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao carregar " + recurso, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package ifpe.paokentyn.validation;
+
+import jakarta.validation.MessageInterpolator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.validator.messageinterpolation.ResourceBundleMessageInterpolator;
+
+/**
+ * Interpolador de mensagens de validação sem Expression Language.
+ *
+ * Na criação, todas as mensagens de {@code ValidationMessages_pt_BR}
+ * (e as padrão do Hibernate Validator em português) são compiladas em
+ * trechos fixos e nomes de parâmetros; interpolar é consultar a tabela e
+ * trocar cada {@code {parametro}} pelo atributo da anotação. Modelos
+ * vindos direto da anotação são compilados no primeiro uso e guardados.
+ * Só os modelos com EL ({@code ${...}}) vão para o interpolador padrão.
+ *
+ * As mensagens do projeto são só em português, então o locale pedido é
+ * ignorado. Está registrado em {@code META-INF/validation.xml}; a
+ * propriedade de sistema {@value #PROPRIEDADE} = {@code el} volta ao
+ * interpolador padrão (com EL) para tudo.
+ *
+ * @author isabe
+ */
+public class InterpoladorMensagens implements MessageInterpolator {
+
+    public static final String PROPRIEDADE = "paokentyn.validacao.interpolador";
+
+    private static final Locale PT_BR = new Locale("pt", "BR");
+    private static final String MENSAGENS = "/ValidationMessages_pt_BR.properties";
+    private static final String MENSAGENS_PADRAO = "org.hibernate.validator.ValidationMessages";
+    private static final int PROFUNDIDADE_MAXIMA = 5;
+
+    // Marca dos modelos que precisam de EL
+    private static final Modelo COM_EL = new Modelo(new String[0], new String[0]);
+
+    private final MessageInterpolator padrao = new ResourceBundleMessageInterpolator();
+    private final boolean precompilado;
+    private final Map<String, String> mensagens;
+    private final ConcurrentHashMap<String, Modelo> modelos = new ConcurrentHashMap<>();
+
+    /** Usa o modo escolhido na propriedade {@value #PROPRIEDADE}. */
+    public InterpoladorMensagens() {
+        this(!"el".equalsIgnoreCase(System.getProperty(PROPRIEDADE, "precompilado")));
+    }
+
+    public InterpoladorMensagens(boolean precompilado) {
+        this.precompilado = precompilado;
+        this.mensagens = carregarMensagens();
+        if (precompilado) {
+            for (String chave : mensagens.keySet()) {
+                String modelo = "{" + chave + "}";
+                modelos.put(modelo, compilar(modelo));
+            }
+        }
+    }
+
+    public boolean isPrecompilado() {
+        return precompilado;
+    }
+
+    /** Modelos já compilados (os do arquivo e os vistos nas anotações). */
+    public int getModelosCompilados() {
+        return modelos.size();
+    }
+
+    @Override
+    public String interpolate(String messageTemplate, Context context) {
+        return interpolate(messageTemplate, context, PT_BR);
+    }
+
+    @Override
+    public String interpolate(String messageTemplate, Context context, Locale locale) {
+        if (!precompilado) {
+            return padrao.interpolate(messageTemplate, context, PT_BR);
+        }
+        Modelo modelo = modelos.computeIfAbsent(messageTemplate, this::compilar);
+        if (modelo == COM_EL) {
+            return padrao.interpolate(messageTemplate, context, PT_BR);
+        }
+        return modelo.aplicar(context.getConstraintDescriptor().getAttributes());
+    }
+
+    private Modelo compilar(String modelo) {
+        List<String> literais = new ArrayList<>();
+        List<String> parametros = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        if (!compilar(modelo, 0, literal, literais, parametros)) {
+            return COM_EL;
+        }
+        literais.add(literal.toString());
+        return new Modelo(literais.toArray(new String[0]), parametros.toArray(new String[0]));
+    }
+
+    // Expande as chaves conhecidas e separa os parâmetros; falso se achar EL
+    private boolean compilar(String modelo, int profundidade, StringBuilder literal,
+            List<String> literais, List<String> parametros) {
+        int i = 0;
+        while (i < modelo.length()) {
+            char c = modelo.charAt(i);
+            if (c == '\\' && i + 1 < modelo.length()) {
+                literal.append(modelo.charAt(i + 1));
+                i += 2;
+            } else if (c == '$' && i + 1 < modelo.length() && modelo.charAt(i + 1) == '{') {
+                return false;
+            } else if (c == '{') {
+                int fim = modelo.indexOf('}', i + 1);
+                if (fim < 0) {
+                    literal.append(modelo, i, modelo.length());
+                    break;
+                }
+                String nome = modelo.substring(i + 1, fim);
+                String mensagem = mensagens.get(nome);
+                if (mensagem != null && profundidade < PROFUNDIDADE_MAXIMA) {
+                    if (!compilar(mensagem, profundidade + 1, literal, literais, parametros)) {
+                        return false;
+                    }
+                } else {
+                    literais.add(literal.toString());
+                    literal.setLength(0);
+                    parametros.add(nome);
+                }
+                i = fim + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        return true;
+    }
+
+    // As do projeto sobrepõem as padrão do Hibernate Validator
+    private static Map<String, String> carregarMensagens() {
+        Map<String, String> mensagens = new HashMap<>();
+        try {
+            ResourceBundle padrao = ResourceBundle.getBundle(MENSAGENS_PADRAO, PT_BR);
+            for (Enumeration<String> chaves = padrao.getKeys(); chaves.hasMoreElements();) {
+                String chave = chaves.nextElement();
+                mensagens.put(chave, padrao.getString(chave));
+            }
+        } catch (MissingResourceException e) {
+            // Sem as mensagens padrão, os modelos delas viram parâmetros sem valor
+        }
+        Properties projeto = new Properties();
+        try (InputStream entrada = InterpoladorMensagens.class.getResourceAsStream(MENSAGENS)) {
+            if (entrada != null) {
+                projeto.load(entrada);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler " + MENSAGENS, e);
+        }
+        for (String chave : projeto.stringPropertyNames()) {
+            mensagens.put(chave, projeto.getProperty(chave));
+        }
+        return mensagens;
+    }
+
+    // literais[0] parametros[0] literais[1] ... literais[n]
+    private static final class Modelo {
+
+        private final String[] literais;
+        private final String[] parametros;
+
+        private Modelo(String[] literais, String[] parametros) {
+            this.literais = literais;
+            this.parametros = parametros;
+        }
+
+        private String aplicar(Map<String, Object> atributos) {
+            if (parametros.length == 0) {
+                return literais[0];
+            }
+            StringBuilder mensagem = new StringBuilder(literais[0]);
+            for (int i = 0; i < parametros.length; i++) {
+                Object valor = atributos.get(parametros[i]);
+                if (valor == null) {
+                    mensagem.append('{').append(parametros[i]).append('}');
+                } else if (valor instanceof Object[]) {
+                    mensagem.append(Arrays.toString((Object[]) valor));
+                } else {
+                    mensagem.append(valor);
+                }
+                mensagem.append(literais[i + 1]);
+            }
+            return mensagem.toString();
+        }
+    }
+}
@@ -14,7 +14,13 @@ public class SemNumeroValidator implements ConstraintValidator<SemNumero, String
         if (valor == null) {
             return true; // Deixa o @NotNull validar se é nulo
         }
-        // Retorna falso se encontrar qualquer dígito (0-9)
-        return !valor.matches(".*\\d.*");
+        // Falso se encontrar qualquer dígito (0-9); percorre a string sem regex nem cópias
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return false;
+            }
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
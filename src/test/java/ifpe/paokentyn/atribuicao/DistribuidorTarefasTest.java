@@ -0,0 +1,186 @@
+package ifpe.paokentyn.atribuicao;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Padaria;
+import ifpe.paokentyn.domain.Tarefa;
+import ifpe.paokentyn.util.ContadorSql;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DistribuidorTarefasTest extends GenericTest {
+
+    // Dataset: padaria 1 com João (1, Padeiro Senior), Maria (2, Padeiro Pleno)
+    // e Pedro (3, Padeiro Junior), cada um com uma tarefa em aberto
+    private DistribuidorTarefas distribuidor;
+
+    @BeforeEach
+    public void setUpDistribuidor() {
+        distribuidor = new DistribuidorTarefas(emf);
+    }
+
+    @AfterEach
+    public void tearDownDistribuidor() {
+        distribuidor.close();
+    }
+
+    private Tarefa nova() {
+        return new Tarefa("Organizar a vitrine", new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+    }
+
+    private long atribuir(String... cargos) {
+        return distribuidor.atribuir(1L, nova(), cargos).getFuncionario().getId();
+    }
+
+    private long abertasNoBanco(long idFuncionario) {
+        return em.createQuery(
+                "SELECT COUNT(t) FROM Tarefa t WHERE t.funcionario.id = :id AND t.concluida = false", Long.class)
+                .setParameter("id", idFuncionario)
+                .getSingleResult();
+    }
+
+    @Test
+    public void testRodizioEntreMenosCarregados() {
+        assertEquals(1L, atribuir());
+        assertEquals(2L, atribuir());
+        assertEquals(3L, atribuir());
+        assertEquals(1L, atribuir());
+
+        assertEquals(3, distribuidor.carga(1L, 1L));
+        assertEquals(2, distribuidor.carga(1L, 2L));
+        assertEquals(3, abertasNoBanco(1L));
+    }
+
+    @Test
+    public void testRespeitaCargos() {
+        assertEquals(2L, atribuir("Padeiro Pleno", "Padeiro Junior"));
+        assertEquals(3L, atribuir("Padeiro Pleno", "Padeiro Junior"));
+        assertEquals(2L, atribuir("Padeiro Pleno", "Padeiro Junior"));
+        assertEquals(1, distribuidor.carga(1L, 1L));
+
+        assertThrows(EntityNotFoundException.class, () -> atribuir("Confeiteiro"));
+        assertThrows(EntityNotFoundException.class, () -> distribuidor.atribuir(2L, nova()));
+        assertEquals(-1, distribuidor.carga(1L, 99L));
+    }
+
+    @Test
+    public void testCargaAcompanhaConclusaoSemRecontar() {
+        distribuidor.carga(1L, 1L);
+
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            // O prazo do dataset já venceu e a validação exige prazo futuro
+            Tarefa concluida = outro.find(Tarefa.class, 1L);
+            concluida.setDataPrevisao(nova().getDataPrevisao());
+            concluida.setConcluida(true);
+            outro.remove(outro.find(Tarefa.class, 2L));
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            assertEquals(0, distribuidor.carga(1L, 1L));
+            assertEquals(0, distribuidor.carga(1L, 2L));
+            assertEquals(1, distribuidor.carga(1L, 3L));
+            assertEquals(0, sql.contar("TB_TAREFA"), "Comandos: " + sql.getComandos());
+        }
+        assertEquals(1L, atribuir());
+        assertEquals(2L, atribuir());
+    }
+
+    @Test
+    public void testTarefaReabertaNaoCarregaOFuncionario() {
+        assertEquals(1, distribuidor.carga(1L, 3L));
+        for (boolean concluida : new boolean[] {true, false}) {
+            emf.getCache().evict(Funcionario.class);
+            EntityManager outro = emf.createEntityManager();
+            try (ContadorSql sql = ContadorSql.registrar(emf)) {
+                outro.getTransaction().begin();
+                Tarefa tarefa = outro.find(Tarefa.class, 3L);
+                tarefa.setDataPrevisao(nova().getDataPrevisao());
+                tarefa.setConcluida(concluida);
+                outro.getTransaction().commit();
+
+                assertFalse(emf.getPersistenceUnitUtil().isLoaded(tarefa, "funcionario"));
+                assertEquals(0, sql.contar("TB_FUNCIONARIO"), "Comandos: " + sql.getComandos());
+            } finally {
+                outro.close();
+            }
+            assertEquals(concluida ? 0 : 1, distribuidor.carga(1L, 3L));
+        }
+    }
+
+    @Test
+    public void testMudancaDeCargoRecarregaEquipe() {
+        assertEquals(1L, atribuir("Padeiro Senior"));
+
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            outro.find(Funcionario.class, 2L).setCargo("Padeiro Senior");
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+
+        assertEquals(2L, atribuir("Padeiro Senior"));
+        assertEquals(2, distribuidor.carga(1L, 2L));
+    }
+
+    @Test
+    public void testMudancaDeCargoNaoCarregaAPadaria() {
+        assertEquals(1L, atribuir("Padeiro Senior"));
+
+        emf.getCache().evict(Padaria.class);
+        EntityManager outro = emf.createEntityManager();
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            outro.getTransaction().begin();
+            Funcionario maria = outro.find(Funcionario.class, 2L);
+            maria.setCargo("Padeiro Senior");
+            outro.getTransaction().commit();
+
+            assertFalse(emf.getPersistenceUnitUtil().isLoaded(maria, "padaria"));
+            assertEquals(0, sql.contar("TB_PADARIA"), "Comandos: " + sql.getComandos());
+        } finally {
+            outro.close();
+        }
+        assertEquals(2L, atribuir("Padeiro Senior"));
+    }
+
+    @Test
+    public void testAtribuicoesConcorrentesFicamEquilibradas() throws Exception {
+        ExecutorService gerentes = Executors.newFixedThreadPool(6);
+        List<Future<Long>> atribuicoes = new ArrayList<>();
+        try {
+            for (int i = 0; i < 60; i++) {
+                atribuicoes.add(gerentes.submit(() -> atribuir()));
+            }
+            for (Future<Long> atribuicao : atribuicoes) {
+                atribuicao.get();
+            }
+        } finally {
+            gerentes.shutdown();
+        }
+
+        for (long id = 1; id <= 3; id++) {
+            assertEquals(21, distribuidor.carga(1L, id));
+            assertEquals(21L, abertasNoBanco(id));
+        }
+    }
+}
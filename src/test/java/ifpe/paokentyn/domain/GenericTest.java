@@ -16,6 +16,9 @@ public abstract class GenericTest {
     
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+    // Maior que qualquer ID fixo do dataset.xml
+    private static final int INICIO_SEQUENCIA = 1000;
+
     protected static EntityManagerFactory emf;
     protected EntityManager em;
     protected EntityTransaction et;
@@ -42,6 +45,8 @@ public abstract class GenericTest {
         logger.info("--> [GenericTest] Limpando dados antigos...");
         try {
             // Ordem de deleção: Filhos primeiro, Pais depois (para evitar erro de FK)
+            em.createNativeQuery("DELETE FROM TB_VENDA_HORA").executeUpdate();
+            em.createNativeQuery("DELETE FROM TB_CAPACIDADE_FORNADA").executeUpdate();
             em.createNativeQuery("DELETE FROM TB_ITEM_PEDIDO").executeUpdate();
             em.createNativeQuery("DELETE FROM TB_PAO_INGREDIENTE").executeUpdate();
             em.createNativeQuery("DELETE FROM TB_TAREFA").executeUpdate();
@@ -53,17 +58,10 @@ public abstract class GenericTest {
             em.createNativeQuery("DELETE FROM TB_PADARIA").executeUpdate();
             em.createNativeQuery("DELETE FROM TB_DADOS_BANCARIOS").executeUpdate();
 
-            // Reset de IDs (Sintaxe H2 Database - se usar MySQL muda um pouco)
-            logger.info("--> [GenericTest] Resetando IDs para 1...");
-            em.createNativeQuery("ALTER TABLE TB_PADARIA ALTER COLUMN ID RESTART WITH 1").executeUpdate();
-            em.createNativeQuery("ALTER TABLE TB_DADOS_BANCARIOS ALTER COLUMN ID RESTART WITH 1").executeUpdate();
-            em.createNativeQuery("ALTER TABLE TB_FUNCIONARIO ALTER COLUMN ID RESTART WITH 1").executeUpdate();
-            em.createNativeQuery("ALTER TABLE TB_PAO ALTER COLUMN ID RESTART WITH 1").executeUpdate();
-            em.createNativeQuery("ALTER TABLE TB_INGREDIENTE ALTER COLUMN ID RESTART WITH 1").executeUpdate();
-            em.createNativeQuery("ALTER TABLE TB_FORNADA ALTER COLUMN ID RESTART WITH 1").executeUpdate();
-            em.createNativeQuery("ALTER TABLE TB_PEDIDO ALTER COLUMN ID RESTART WITH 1").executeUpdate();
-            em.createNativeQuery("ALTER TABLE TB_ITEM_PEDIDO ALTER COLUMN ID RESTART WITH 1").executeUpdate();
-            em.createNativeQuery("ALTER TABLE TB_TAREFA ALTER COLUMN ID RESTART WITH 1").executeUpdate();
+            // IDs do dataset são fixos; as sequências começam acima deles
+            logger.info("--> [GenericTest] Avançando sequências de IDs...");
+            em.createNativeQuery("UPDATE TB_SEQUENCIA SET NUM_VALOR = " + INICIO_SEQUENCIA
+                    + " WHERE NUM_VALOR < " + INICIO_SEQUENCIA).executeUpdate();
             
             // Commita a limpeza para garantir banco zerado
             em.getTransaction().commit(); 
@@ -84,6 +82,9 @@ public abstract class GenericTest {
             // Não pare o teste, tente continuar, mas logue o erro
         }
 
+        // Os dados foram reescritos por fora do JPA; o cache compartilhado ficou obsoleto
+        emf.getCache().evictAll();
+
         // 3. Inicia a transação DO TESTE
         // O EntityManager deve estar pronto para uso aqui
         et = em.getTransaction();
@@ -102,7 +102,7 @@ public class PaoCriteriaTest extends GenericTest {
         CriteriaQuery<Pao> c = cb.createQuery(Pao.class);
         Root<Pao> root = c.from(Pao.class);
 
-        c.where(cb.isNotNull(root.get("imagem")));
+        c.where(cb.isNotNull(root.get("hashImagem")));
 
         List<Pao> lista = em.createQuery(c).getResultList();
         assertNotNull(lista);
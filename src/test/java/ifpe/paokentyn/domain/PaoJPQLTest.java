@@ -37,7 +37,7 @@ public class PaoJPQLTest extends GenericTest {
     }
 
     private List<Pao> buscarPaesComImagemJPQL() {
-        String jpql = "SELECT p FROM Pao p WHERE p.imagem IS NOT NULL";
+        String jpql = "SELECT p FROM Pao p WHERE p.hashImagem IS NOT NULL";
         TypedQuery<Pao> query = em.createQuery(jpql, Pao.class);
         return query.getResultList();
     }
@@ -0,0 +1,34 @@
+package ifpe.paokentyn.folha;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CalculoFolhaTest {
+
+    @Test
+    public void testSalarioNaFaixaIntermediaria() {
+        // INSS: 113,85 + 114,83 + 48,73 = 277,41; IRRF: 2.922,59 x 15% - 394,16 = 44,23
+        assertEquals(new Pagamento(320000, 27741, 4423, 287836), CalculoFolha.calcular(3200.00));
+    }
+
+    @Test
+    public void testSalarioIsentoDeIrrf() {
+        assertEquals(new Pagamento(151800, 11385, 0, 140415), CalculoFolha.calcular(1518.00));
+    }
+
+    @Test
+    public void testInssLimitadoAoTeto() {
+        Pagamento pagamento = CalculoFolha.calcular(10000.00);
+        assertEquals(95163, pagamento.inss());
+        assertEquals(95163, CalculoFolha.calcular(20000.00).inss());
+        assertEquals(157957, pagamento.irrf());
+        assertEquals(746880, pagamento.liquido());
+    }
+
+    @Test
+    public void testSalarioNegativo() {
+        assertThrows(IllegalArgumentException.class, () -> CalculoFolha.calcular(-1L));
+    }
+}
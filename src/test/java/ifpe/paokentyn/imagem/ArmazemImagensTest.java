@@ -0,0 +1,103 @@
+package ifpe.paokentyn.imagem;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArmazemImagensTest {
+
+    @TempDir
+    Path raiz;
+
+    private ArmazemImagens armazem;
+    private byte[] foto;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        armazem = new ArmazemImagens(raiz);
+        // Maior que um bloco, para cobrir várias leituras
+        foto = new byte[ArmazemImagens.TAMANHO_BLOCO * 3 + 123];
+        new Random(42).nextBytes(foto);
+    }
+
+    private long contarArquivos() throws IOException {
+        try (Stream<Path> arquivos = Files.walk(raiz)) {
+            return arquivos.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    public void testGravaELeEmFluxo() throws IOException {
+        String hash = armazem.gravar(new ByteArrayInputStream(foto));
+
+        assertEquals(64, hash.length());
+        assertEquals(foto.length, armazem.tamanho(hash));
+        try (InputStream entrada = armazem.abrir(hash)) {
+            assertArrayEquals(foto, entrada.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testMesmaImagemGuardadaUmaVez() throws IOException {
+        String primeiro = armazem.gravar(new ByteArrayInputStream(foto));
+        String segundo = armazem.gravar(new ByteArrayInputStream(foto.clone()));
+
+        assertEquals(primeiro, segundo);
+        assertEquals(1, contarArquivos());
+
+        armazem.gravar(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        assertEquals(2, contarArquivos());
+    }
+
+    @Test
+    public void testEnviaTrecho() throws IOException {
+        String hash = armazem.gravar(new ByteArrayInputStream(foto));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long enviados = armazem.enviar(hash, 1000, 5000, Channels.newChannel(saida));
+
+        assertEquals(5000, enviados);
+        assertArrayEquals(Arrays.copyOfRange(foto, 1000, 6000), saida.toByteArray());
+    }
+
+    @Test
+    public void testTrechoAlemDoFimEhCortado() throws IOException {
+        String hash = armazem.gravar(new ByteArrayInputStream(foto));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        assertEquals(100, armazem.enviar(hash, foto.length - 100, 1000, Channels.newChannel(saida)));
+        assertEquals(0, armazem.enviar(hash, foto.length + 10, 1000, Channels.newChannel(saida)));
+        assertEquals(100, saida.size());
+    }
+
+    @Test
+    public void testRemover() throws IOException {
+        String hash = armazem.gravar(new ByteArrayInputStream(foto));
+
+        assertTrue(armazem.remover(hash));
+        assertFalse(armazem.existe(hash));
+        assertThrows(NoSuchFileException.class, () -> armazem.abrir(hash));
+    }
+
+    @Test
+    public void testHashInvalidoNaoPermitido() {
+        assertThrows(IllegalArgumentException.class, () -> armazem.abrir("../../etc/passwd"));
+    }
+}
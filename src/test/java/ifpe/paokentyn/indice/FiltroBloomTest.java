@@ -0,0 +1,29 @@
+package ifpe.paokentyn.indice;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FiltroBloomTest {
+
+    @Test
+    public void testSemFalsosNegativosETaxaDentroDoAlvo() {
+        FiltroBloom filtro = new FiltroBloom(100_000, 0.01);
+        for (long cpf = 10_000_000_000L; cpf < 10_000_100_000L; cpf++) {
+            filtro.adicionar(cpf);
+        }
+        for (long cpf = 10_000_000_000L; cpf < 10_000_100_000L; cpf++) {
+            assertTrue(filtro.talvezContenha(cpf));
+        }
+
+        int falsosPositivos = 0;
+        for (long cpf = 20_000_000_000L; cpf < 20_000_100_000L; cpf++) {
+            if (filtro.talvezContenha(cpf)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos);
+        assertEquals(7, filtro.funcoes());
+    }
+}
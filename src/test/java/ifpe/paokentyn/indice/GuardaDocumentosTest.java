@@ -0,0 +1,105 @@
+package ifpe.paokentyn.indice;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Padaria;
+import jakarta.persistence.EntityManager;
+import java.util.Date;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GuardaDocumentosTest extends GenericTest {
+
+    // Dataset: CNPJs 99887766000199, 99999999000199 e 88888888000188;
+    // CPFs 12345678909, 98765432100 e 11122233344
+    private GuardaDocumentos guarda;
+
+    @BeforeEach
+    public void setUpGuarda() {
+        guarda = new GuardaDocumentos(emf);
+    }
+
+    @AfterEach
+    public void tearDownGuarda() {
+        guarda.close();
+    }
+
+    @Test
+    public void testAquecidoComOsDocumentosGravados() {
+        guarda.carregar();
+
+        assertTrue(guarda.existeCnpj("99.887.766/0001-99"));
+        assertTrue(guarda.existeCpf("123.456.789-09"));
+        assertEquals(2, guarda.getConsultasExatas());
+
+        assertFalse(guarda.existeCnpj("05604099000154"));
+        assertFalse(guarda.existeCpf("64623918041"));
+        assertThrows(IllegalArgumentException.class, () -> guarda.existeCpf("sem cpf"));
+    }
+
+    @Test
+    public void testNegativosNaoVaoAoBanco() {
+        int livres = 0;
+        for (long cnpj = 11_000_000_000_000L; cnpj < 11_000_000_005_000L; cnpj++) {
+            if (guarda.reservarCnpj(Long.toString(cnpj))) {
+                livres++;
+            }
+        }
+        assertEquals(5_000, livres);
+        assertTrue(guarda.getConsultasExatas() < 50, "Consultas: " + guarda.getConsultasExatas());
+        assertEquals(guarda.getConsultasExatas(), guarda.getFalsosPositivos());
+    }
+
+    @Test
+    public void testReservaBarraRepetidosDoLote() {
+        assertTrue(guarda.reservarCpf("64623918041"));
+        assertFalse(guarda.reservarCpf("646.239.180-41"));
+        assertTrue(guarda.existeCpf("64623918041"));
+        assertFalse(guarda.reservarCpf("98765432100"));
+
+        guarda.liberarCpf("64623918041");
+        assertFalse(guarda.existeCpf("64623918041"));
+        assertTrue(guarda.reservarCpf("64623918041"));
+    }
+
+    @Test
+    public void testDocumentoGravadoEntraNoFiltro() {
+        assertTrue(guarda.reservarCpf("64623918041"));
+        assertTrue(guarda.reservarCnpj("05604099000154"));
+
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            Padaria padaria = new Padaria();
+            padaria.setNome("Padaria Nova");
+            padaria.setCep("50050-450");
+            padaria.setCnpj("05604099000154");
+            outro.persist(padaria);
+
+            Funcionario funcionario = new Funcionario();
+            funcionario.setPadaria(padaria);
+            funcionario.setNome("Carlos Silva");
+            funcionario.setCargo("Caixa");
+            funcionario.setSalario(2000.0);
+            funcionario.setDataContratacao(new Date());
+            funcionario.setCpf("646.239.180-41");
+            funcionario.setEmail("carlos@padaria.com");
+            outro.persist(funcionario);
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+
+        long antes = guarda.getConsultasExatas();
+        assertFalse(guarda.reservarCpf("64623918041"));
+        assertFalse(guarda.reservarCnpj("05.604.099/0001-54"));
+        assertEquals(antes + 2, guarda.getConsultasExatas());
+        assertEquals(0, guarda.getFalsosPositivos());
+    }
+}
@@ -0,0 +1,65 @@
+package ifpe.paokentyn.indice;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HeapIndexadoTest {
+
+    @Test
+    public void testOrdemComAjusteERemocao() {
+        HeapIndexado heap = new HeapIndexado();
+        // Referência: (valor, id) ordenados
+        TreeSet<long[]> esperado = new TreeSet<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        Map<Long, Long> valores = new HashMap<>();
+        Random aleatorio = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = aleatorio.nextInt(2_000);
+            int operacao = aleatorio.nextInt(4);
+            Long anterior = valores.get(id);
+            Long novo = null;
+            if (operacao < 2) {
+                novo = (long) aleatorio.nextInt(1_000_000);
+                heap.definir(id, novo);
+            } else if (operacao == 2) {
+                long delta = aleatorio.nextInt(2_001) - 1_000;
+                assertEquals(anterior != null, heap.ajustar(id, delta));
+                novo = anterior == null ? null : anterior + delta;
+            } else {
+                assertEquals(anterior != null, heap.remover(id));
+            }
+            if (anterior != null) {
+                esperado.remove(new long[] {anterior, id});
+                valores.remove(id);
+            }
+            if (novo != null) {
+                esperado.add(new long[] {novo, id});
+                valores.put(id, novo);
+            }
+            assertEquals(esperado.size(), heap.tamanho());
+            assertEquals(novo, heap.valor(id));
+            if (!esperado.isEmpty()) {
+                assertEquals(esperado.first()[0], heap.menorValor());
+                assertEquals(esperado.first()[1], heap.menorId());
+            }
+        }
+
+        while (!esperado.isEmpty()) {
+            long[] primeiro = esperado.pollFirst();
+            assertEquals(primeiro[0], heap.menorValor());
+            assertEquals(primeiro[1], heap.menorId());
+            assertTrue(heap.remover(heap.menorId()));
+        }
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.remover(7));
+        assertNull(heap.valor(7));
+    }
+}
@@ -0,0 +1,139 @@
+package ifpe.paokentyn.indice;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Ingrediente;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.ReceitaIngrediente;
+import ifpe.paokentyn.domain.ReceitaIngredienteId;
+import ifpe.paokentyn.service.ManutencaoCatalogoService;
+import ifpe.paokentyn.util.ContadorSql;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndiceIngredientesTest extends GenericTest {
+
+    // Dataset: pão 1 = farinha (1); pão 2 = ovos (2) e polvilho (3); pão 3 = nada; pão 4 = gergilim (4)
+    private IndiceIngredientes indice;
+
+    @BeforeEach
+    public void setUpIndice() {
+        indice = new IndiceIngredientes(emf);
+    }
+
+    @AfterEach
+    public void tearDownIndice() {
+        indice.close();
+    }
+
+    @Test
+    public void testAlgebraDeConjuntos() {
+        assertEquals(List.of(1L, 3L, 4L), indice.semNenhum(2, 3).listar());
+        assertEquals(List.of(2L), indice.comTodos(2, 3).listar());
+        assertTrue(indice.comTodos(1, 2).isEmpty());
+        assertEquals(List.of(1L, 4L), indice.comAlgum(1, 4).listar());
+        assertEquals(4, indice.todos().tamanho());
+
+        ConjuntoPaes semOvos = indice.todos().exceto(indice.com(2));
+        assertArrayEquals(new long[] {1, 3, 4}, semOvos.ids());
+        assertArrayEquals(new long[] {1}, semOvos.e(indice.com(1)).ids());
+        assertArrayEquals(new long[] {1, 2}, indice.com(1).ou(indice.com(3)).ids());
+        assertTrue(semOvos.contem(3));
+        assertFalse(semOvos.contem(2));
+        assertTrue(indice.com(999).isEmpty());
+    }
+
+    @Test
+    public void testConsultasNaoVaoAoBanco() {
+        indice.todos();
+
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            for (int i = 0; i < 1000; i++) {
+                indice.semNenhum(2, 3).e(indice.comAlgum(1, 4)).ids();
+            }
+            assertEquals(0, sql.getTotal(), "Comandos: " + sql.getComandos());
+        }
+    }
+
+    @Test
+    public void testAcompanhaAlteracaoDeReceita() {
+        assertFalse(indice.com(1).contem(3));
+
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            Pao pao = outro.find(Pao.class, 3L);
+            pao.getIngredientes().add(outro.find(Ingrediente.class, 1L));
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+
+        assertEquals(List.of(1L, 3L), indice.com(1).listar());
+    }
+
+    @Test
+    public void testAcompanhaExclusaoDeReceita() {
+        assertEquals(List.of(1L), indice.com(1).listar());
+
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            outro.remove(outro.find(ReceitaIngrediente.class, new ReceitaIngredienteId(1L, 1L)));
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+
+        assertTrue(indice.com(1).isEmpty());
+    }
+
+    @Test
+    public void testAcompanhaManutencaoEmMassa() {
+        assertEquals(List.of(2L), indice.com(2).listar());
+
+        new ManutencaoCatalogoService(emf).retirarIngredienteDasReceitas(2L);
+
+        assertTrue(indice.com(2).isEmpty());
+        assertEquals(List.of(2L), indice.com(3).listar());
+    }
+
+    @Test
+    public void testTransacaoDesfeitaNaoInvalida() {
+        indice.todos();
+
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            outro.createNativeQuery("DELETE FROM TB_PAO_INGREDIENTE WHERE ID_INGREDIENTE = 4").executeUpdate();
+            outro.getTransaction().rollback();
+
+            // Uma transação sem relação com o catálogo depois do rollback
+            outro.getTransaction().begin();
+            outro.createNativeQuery("UPDATE TB_PEDIDO SET NUM_VALOR_TOTAL = NUM_VALOR_TOTAL WHERE ID = 1").executeUpdate();
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            assertEquals(List.of(4L), indice.com(4).listar());
+            assertEquals(0, sql.getTotal(), "Comandos: " + sql.getComandos());
+        }
+    }
+
+    @Test
+    public void testConjuntosDeVersoesDiferentes() {
+        ConjuntoPaes antes = indice.todos();
+        indice.invalidar();
+        assertThrows(IllegalArgumentException.class, () -> antes.e(indice.todos()));
+    }
+}
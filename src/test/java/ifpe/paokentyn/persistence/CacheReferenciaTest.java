@@ -0,0 +1,133 @@
+package ifpe.paokentyn.persistence;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Ingrediente;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Padaria;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.domain.Tarefa;
+import ifpe.paokentyn.util.ContadorSql;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.sessions.Session;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheReferenciaTest extends GenericTest {
+
+    private <T> T buscarEmNovoEntityManager(Class<T> tipo, Long id) {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            return outro.find(tipo, id);
+        } finally {
+            outro.close();
+        }
+    }
+
+    @Test
+    public void testSomenteReferenciasFicamEmCache() {
+        buscarEmNovoEntityManager(Pao.class, 1L);
+        buscarEmNovoEntityManager(Padaria.class, 1L);
+        buscarEmNovoEntityManager(Ingrediente.class, 1L);
+        buscarEmNovoEntityManager(Pedido.class, 1L);
+        buscarEmNovoEntityManager(ItemPedido.class, 1L);
+        buscarEmNovoEntityManager(Tarefa.class, 1L);
+
+        assertTrue(emf.getCache().contains(Pao.class, 1L));
+        assertTrue(emf.getCache().contains(Padaria.class, 1L));
+        assertTrue(emf.getCache().contains(Ingrediente.class, 1L));
+        assertFalse(emf.getCache().contains(Pedido.class, 1L));
+        assertFalse(emf.getCache().contains(ItemPedido.class, 1L));
+        assertFalse(emf.getCache().contains(Tarefa.class, 1L));
+    }
+
+    @Test
+    public void testAcertoNaoVaiAoBanco() {
+        EstatisticasCache.Contadores contadores = EstatisticasCache.de(emf).de(Pao.class);
+        long acertosAntes = contadores.getAcertos();
+        long falhasAntes = contadores.getFalhas();
+
+        buscarEmNovoEntityManager(Pao.class, 2L);
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            Pao pao = buscarEmNovoEntityManager(Pao.class, 2L);
+            assertEquals("Pão de Queijo", pao.getNomePao());
+            assertEquals(0, sql.getTotal(), "Comandos: " + sql.getComandos());
+        }
+
+        assertEquals(falhasAntes + 1, contadores.getFalhas());
+        assertEquals(acertosAntes + 1, contadores.getAcertos());
+    }
+
+    @Test
+    public void testAtualizacaoRefletidaNoCache() {
+        buscarEmNovoEntityManager(Pao.class, 3L);
+
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            outro.find(Pao.class, 3L).setPreco(4.25);
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+
+        assertEquals(4.25, buscarEmNovoEntityManager(Pao.class, 3L).getPreco());
+    }
+
+    @Test
+    public void testTempoDeVidaConfigurado() {
+        Session session = emf.unwrap(JpaEntityManagerFactory.class).getServerSession();
+        Object ttl = emf.getProperties().get(CacheReferenciaCustomizer.PROPRIEDADE_TTL_SEGUNDOS);
+
+        TimeToLiveCacheInvalidationPolicy politica = (TimeToLiveCacheInvalidationPolicy)
+                session.getDescriptor(Pao.class).getCacheInvalidationPolicy();
+        assertEquals(Long.parseLong(ttl.toString()) * 1000, politica.getTimeToLive());
+    }
+
+    @Test
+    public void testDespejoAoAtingirTamanhoMaximo() {
+        // Fábrica à parte, com cache de 2 ingredientes e sem recriar o esquema
+        EntityManagerFactory pequena = Persistence.createEntityManagerFactory("DSC", Map.of(
+                "eclipselink.session-name", "DSC-cache-pequeno",
+                "jakarta.persistence.schema-generation.database.action", "none",
+                CacheReferenciaCustomizer.PROPRIEDADE_TAMANHO + ".Ingrediente", "2"));
+        try {
+            List<Long> ids = new ArrayList<>();
+            EntityManager outro = pequena.createEntityManager();
+            outro.getTransaction().begin();
+            for (String nome : List.of("Sal", "Fermento", "Leite", "Manteiga", "Açúcar")) {
+                Ingrediente ingrediente = new Ingrediente();
+                ingrediente.setNome(nome);
+                outro.persist(ingrediente);
+                ids.add(ingrediente.getId());
+            }
+            outro.getTransaction().commit();
+            outro.close();
+
+            pequena.getCache().evictAll();
+            EstatisticasCache.Contadores contadores = EstatisticasCache.de(pequena).de(Ingrediente.class);
+            long despejosAntes = contadores.getDespejos();
+
+            for (Long id : ids) {
+                EntityManager leitura = pequena.createEntityManager();
+                leitura.find(Ingrediente.class, id);
+                leitura.close();
+            }
+
+            // 5 ingredientes distintos num cache de 2 forçam pelo menos 3 despejos
+            assertTrue(contadores.getDespejos() - despejosAntes >= 3, "Contadores: " + contadores);
+        } finally {
+            pequena.close();
+        }
+    }
+}
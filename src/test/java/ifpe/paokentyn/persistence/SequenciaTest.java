@@ -0,0 +1,53 @@
+package ifpe.paokentyn.persistence;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pedido;
+import java.util.Date;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.sessions.Session;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SequenciaTest extends GenericTest {
+
+    private long valorSequencia(String tabela) {
+        Number valor = (Number) em.createNativeQuery(
+                "SELECT NUM_VALOR FROM TB_SEQUENCIA WHERE TXT_NOME = ?")
+                .setParameter(1, tabela)
+                .getSingleResult();
+        return valor.longValue();
+    }
+
+    @Test
+    public void testTamanhoBlocoConfigurado() {
+        Session session = em.unwrap(JpaEntityManager.class).getServerSession();
+        int tamanhoBloco = Integer.parseInt(
+                emf.getProperties().get(SequenciaCustomizer.PROPRIEDADE_TAMANHO_BLOCO).toString());
+
+        assertEquals(tamanhoBloco, session.getDescriptor(Pedido.class).getSequence().getPreallocationSize());
+        assertEquals(tamanhoBloco, session.getDescriptor(ItemPedido.class).getSequence().getPreallocationSize());
+    }
+
+    @Test
+    public void testIdsAlocadosEmBloco() {
+        long antes = valorSequencia("TB_PEDIDO");
+
+        Long anterior = null;
+        for (int i = 0; i < 10; i++) {
+            Pedido pedido = new Pedido(10.0 + i, new Date());
+            em.persist(pedido);
+            if (anterior != null) {
+                assertEquals(anterior + 1, pedido.getId());
+            }
+            anterior = pedido.getId();
+        }
+        em.flush();
+
+        long depois = valorSequencia("TB_PEDIDO");
+        assertTrue(depois - antes <= 50, "10 pedidos não deveriam consumir mais de um bloco");
+        assertTrue(anterior <= depois);
+    }
+}
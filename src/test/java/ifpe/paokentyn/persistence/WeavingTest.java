@@ -0,0 +1,83 @@
+package ifpe.paokentyn.persistence;
+
+import ifpe.paokentyn.domain.DadosBancarios;
+import ifpe.paokentyn.domain.Fornada;
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Ingrediente;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Padaria;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.domain.Tarefa;
+import ifpe.paokentyn.util.ContadorSql;
+import jakarta.persistence.PersistenceUnitUtil;
+import java.util.List;
+import org.eclipse.persistence.internal.weaving.PersistenceWeaved;
+import org.eclipse.persistence.internal.weaving.PersistenceWeavedFetchGroups;
+import org.eclipse.persistence.internal.weaving.PersistenceWeavedLazy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WeavingTest extends GenericTest {
+
+    @Test
+    public void testEntidadesEntrelacadasNoBuild() {
+        for (Class<?> entidade : List.of(Padaria.class, Funcionario.class, DadosBancarios.class, Tarefa.class,
+                Fornada.class, Pao.class, Ingrediente.class, Pedido.class, ItemPedido.class)) {
+            assertTrue(PersistenceWeaved.class.isAssignableFrom(entidade), entidade.getSimpleName());
+        }
+        assertTrue(PersistenceWeavedFetchGroups.class.isAssignableFrom(Pao.class));
+        for (Class<?> entidade : List.of(Funcionario.class, DadosBancarios.class, Tarefa.class,
+                Fornada.class, ItemPedido.class)) {
+            assertTrue(PersistenceWeavedLazy.class.isAssignableFrom(entidade), entidade.getSimpleName());
+        }
+    }
+
+    @Test
+    public void testListarPaesNaoLeImagem() {
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            List<Pao> paes = em.createQuery("SELECT p FROM Pao p ORDER BY p.id", Pao.class).getResultList();
+            paes.forEach(p -> p.getPreco());
+
+            assertEquals(4, paes.size());
+            assertEquals(1, sql.getTotal(), "Comandos: " + sql.getComandos());
+            assertFalse(sql.getComandos().get(0).contains("BIN_"), "Comandos: " + sql.getComandos());
+        }
+    }
+
+    @Test
+    public void testRelacionamentosToOneSaoProxies() {
+        PersistenceUnitUtil util = emf.getPersistenceUnitUtil();
+
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            List<Funcionario> funcionarios = em.createQuery("SELECT f FROM Funcionario f", Funcionario.class)
+                    .getResultList();
+            List<ItemPedido> itens = em.createQuery("SELECT i FROM ItemPedido i", ItemPedido.class)
+                    .getResultList();
+            List<Tarefa> tarefas = em.createQuery("SELECT t FROM Tarefa t", Tarefa.class).getResultList();
+
+            assertEquals(3, sql.getTotal(), "Comandos: " + sql.getComandos());
+            for (Funcionario funcionario : funcionarios) {
+                assertFalse(util.isLoaded(funcionario, "padaria"));
+                assertFalse(util.isLoaded(funcionario, "dadosBancarios"));
+            }
+            for (ItemPedido item : itens) {
+                assertFalse(util.isLoaded(item, "pedido"));
+                assertFalse(util.isLoaded(item, "pao"));
+                assertFalse(util.isLoaded(item, "fornada"));
+            }
+            for (Tarefa tarefa : tarefas) {
+                assertFalse(util.isLoaded(tarefa, "funcionario"));
+            }
+
+            // Todos os funcionários do dataset são da mesma padaria: uma só consulta
+            funcionarios.forEach(f -> f.getPadaria().getNome());
+            assertEquals(1, sql.contar("TB_PADARIA"), "Comandos: " + sql.getComandos());
+            assertEquals(0, sql.contar("TB_DADOS_BANCARIOS"), "Comandos: " + sql.getComandos());
+        }
+    }
+}
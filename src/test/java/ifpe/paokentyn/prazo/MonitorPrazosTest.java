@@ -0,0 +1,140 @@
+package ifpe.paokentyn.prazo;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Tarefa;
+import jakarta.persistence.EntityManager;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MonitorPrazosTest extends GenericTest {
+
+    // Dataset: tarefas 1, 2 e 3 em aberto, com prazo em 20/11/2025 (já vencido)
+    private final BlockingQueue<Long> avisos = new LinkedBlockingQueue<>();
+    private MonitorPrazos monitor;
+
+    @BeforeEach
+    public void setUpMonitor() {
+        monitor = new MonitorPrazos(emf, (id, prazo) -> avisos.add(id));
+    }
+
+    @AfterEach
+    public void tearDownMonitor() {
+        monitor.close();
+    }
+
+    private void iniciarEDescartarVencidas() throws InterruptedException {
+        monitor.iniciar();
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(avisos.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private void emTransacao(Consumer<EntityManager> trabalho) {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            trabalho.accept(outro);
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+    }
+
+    private long novaTarefa(long prazo) {
+        Tarefa tarefa = new Tarefa("Conferir estoque de farinha", new Date(prazo));
+        tarefa.setDataInicio(new Date());
+        tarefa.setConcluida(false);
+        emTransacao(outro -> {
+            tarefa.setFuncionario(outro.find(Funcionario.class, 1L));
+            outro.persist(tarefa);
+        });
+        return tarefa.getId();
+    }
+
+    @Test
+    public void testAvisaVencidasNaPartida() throws InterruptedException {
+        monitor.iniciar();
+
+        Set<Long> avisadas = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            avisadas.add(avisos.poll(5, TimeUnit.SECONDS));
+        }
+        assertEquals(Set.of(1L, 2L, 3L), avisadas);
+        assertEquals(0, monitor.getTarefasMonitoradas());
+        assertEquals(3, monitor.getAlertasDisparados());
+        assertNull(avisos.poll(200, TimeUnit.MILLISECONDS), "Cada prazo deve ser avisado uma vez");
+    }
+
+    @Test
+    public void testAvisaNovaTarefaQuandoVence() throws InterruptedException {
+        iniciarEDescartarVencidas();
+
+        long prazo = System.currentTimeMillis() + 500;
+        long id = novaTarefa(prazo);
+        assertEquals(1, monitor.getTarefasMonitoradas());
+
+        assertEquals(id, avisos.poll(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() >= prazo, "Aviso antes do prazo");
+        assertEquals(0, monitor.getTarefasMonitoradas());
+        assertEquals(1, monitor.getCargas());
+    }
+
+    @Test
+    public void testConclusaoEExclusaoCancelamAviso() throws InterruptedException {
+        iniciarEDescartarVencidas();
+
+        long concluida = novaTarefa(System.currentTimeMillis() + 400);
+        long excluida = novaTarefa(System.currentTimeMillis() + 400);
+        assertEquals(2, monitor.getTarefasMonitoradas());
+
+        emTransacao(outro -> {
+            Tarefa tarefa = outro.find(Tarefa.class, concluida);
+            tarefa.setConcluida(true);
+            tarefa.setDataConclusao(new Date());
+            outro.remove(outro.find(Tarefa.class, excluida));
+        });
+
+        assertEquals(0, monitor.getTarefasMonitoradas());
+        assertNull(avisos.poll(800, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRemarcarMudaOAviso() throws InterruptedException {
+        iniciarEDescartarVencidas();
+
+        long id = novaTarefa(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        long novoPrazo = System.currentTimeMillis() + 300;
+        emTransacao(outro -> outro.find(Tarefa.class, id).setDataPrevisao(new Date(novoPrazo)));
+
+        assertEquals(id, avisos.poll(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() >= novoPrazo);
+    }
+
+    @Test
+    public void testAtualizacaoEmMassaRemontaAFila() throws InterruptedException {
+        iniciarEDescartarVencidas();
+
+        Date novoPrazo = new Date(System.currentTimeMillis() + 300);
+        emTransacao(outro -> outro.createQuery("UPDATE Tarefa t SET t.dataPrevisao = :prazo WHERE t.id = 1")
+                .setParameter("prazo", novoPrazo)
+                .executeUpdate());
+
+        assertEquals(1L, avisos.poll(5, TimeUnit.SECONDS));
+        assertEquals(2, monitor.getCargas());
+        assertNull(avisos.poll(200, TimeUnit.MILLISECONDS), "Prazos já avisados não se repetem na recarga");
+    }
+}
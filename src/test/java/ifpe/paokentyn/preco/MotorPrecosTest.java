@@ -0,0 +1,77 @@
+package ifpe.paokentyn.preco;
+
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MotorPrecosTest {
+
+    private final TabelaPrecos tabela = new TabelaPrecos(new long[] {1, 2, 3}, new double[] {5.50, 3.00, 0.35});
+    private final MotorPrecos motor = new MotorPrecos(tabela);
+
+    @Test
+    public void testTotalizaPorPedido() {
+        LoteItens lote = LoteItens.construtor()
+                .pedido(10).item(1, 10).item(2, 5)
+                .pedido(11)
+                .pedido(12).item(3, 3)
+                .construir();
+
+        assertArrayEquals(new double[] {70.00, 0.0, 1.05}, motor.totalizar(lote));
+    }
+
+    @Test
+    public void testLoteCresceAlemDaCapacidadeInicial() {
+        LoteItens.Construtor construtor = LoteItens.construtor();
+        for (int p = 0; p < 1000; p++) {
+            construtor.pedido(p);
+            for (int i = 0; i < 3; i++) {
+                construtor.item(1 + i, p % 4 + 1);
+            }
+        }
+        LoteItens lote = construtor.construir();
+
+        double[] totais = motor.totalizar(lote);
+        assertEquals(1000, totais.length);
+        assertEquals(999, lote.idPedido(999));
+        assertEquals(4 * (5.50 + 3.00 + 0.35), totais[999], 0.001);
+    }
+
+    @Test
+    public void testLoteAPartirDePedidos() {
+        Pedido pedido = new Pedido(0.0, new Date());
+        List<ItemPedido> itens = new ArrayList<>();
+        for (long idPao = 1; idPao <= 2; idPao++) {
+            Pao pao = new Pao();
+            pao.setId(idPao);
+            ItemPedido item = new ItemPedido();
+            item.setPao(pao);
+            item.setQuantidade(2);
+            itens.add(item);
+        }
+        pedido.setItens(itens);
+
+        assertArrayEquals(new double[] {17.00}, motor.totalizar(LoteItens.de(List.of(pedido))));
+    }
+
+    @Test
+    public void testPaoForaDaTabela() {
+        LoteItens lote = LoteItens.construtor().pedido(1).item(99, 1).construir();
+        assertThrows(IllegalArgumentException.class, () -> motor.totalizar(lote));
+    }
+
+    @Test
+    public void testTabelaExigeIdsOrdenados() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TabelaPrecos(new long[] {2, 1}, new double[] {1.0, 1.0}));
+        assertEquals(3.00, tabela.preco(2));
+    }
+}
@@ -0,0 +1,292 @@
+package ifpe.paokentyn.producao;
+
+import ifpe.paokentyn.domain.CapacidadeFornada;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.service.RecepcaoPedidosService;
+import ifpe.paokentyn.util.ContadorSql;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AlocadorFornadasTest extends GenericTest {
+
+    // Dataset: fornada 1 na padaria 1 (já com 15 do pão 1, 5 do pão 2 e
+    // 5 do pão 3); fornadas 2 e 3 na padaria 2, vazias e no mesmo horário.
+    // Todas em 09/11/2025
+    private AlocadorFornadas alocador;
+
+    @BeforeEach
+    public void setUpAlocador() {
+        alocador = new AlocadorFornadas(emf, relogio(LocalDate.of(2025, 11, 9)));
+    }
+
+    private static Clock relogio(LocalDate dia) {
+        ZoneId zona = ZoneId.systemDefault();
+        return Clock.fixed(dia.atStartOfDay(zona).plusHours(5).toInstant(), zona);
+    }
+
+    @AfterEach
+    public void tearDownAlocador() {
+        alocador.close();
+    }
+
+    private void capacidades(CapacidadeFornada... capacidades) {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            for (CapacidadeFornada capacidade : capacidades) {
+                outro.merge(capacidade);
+            }
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+    }
+
+    private ItemPedido item(long idPao, int quantidade) {
+        Pao pao = new Pao();
+        pao.setId(idPao);
+        ItemPedido item = new ItemPedido();
+        item.setPao(pao);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    // Espera a coleta dos itens abandonados devolver o saldo
+    private int restanteDepoisDaColeta(long idPadaria, long idFornada, long idPao, int esperado)
+            throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        int restante = alocador.restante(idPadaria, idFornada, idPao);
+        while (restante != esperado && System.nanoTime() < limite) {
+            System.gc();
+            Thread.sleep(20);
+            restante = alocador.restante(idPadaria, idFornada, idPao);
+        }
+        return restante;
+    }
+
+    private void reservarEAbandonar(long idPao, int quantidade) {
+        assertTrue(alocador.reservar(2L, List.of(item(idPao, quantidade))).isCompleta());
+    }
+
+    private void reservarEGravarPorMerge(long idPao, int quantidade) {
+        ItemPedido item = item(idPao, quantidade);
+        assertTrue(alocador.reservar(2L, List.of(item)).isCompleta());
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            Pedido pedido = new Pedido(22.0, new Date());
+            pedido.setItens(new ArrayList<>(List.of(item)));
+            item.setPedido(pedido);
+            outro.merge(pedido);
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+    }
+
+    private Long fornada(ItemPedido item) {
+        return item.getFornada() == null ? null : item.getFornada().getId();
+    }
+
+    @Test
+    public void testPassaParaAProximaFornadaQuandoCheia() {
+        capacidades(new CapacidadeFornada(2L, 1L, 10), new CapacidadeFornada(3L, 1L, 20));
+
+        ItemPedido primeiro = item(1L, 8);
+        ItemPedido segundo = item(1L, 5);
+        ItemPedido semCapacidade = item(2L, 1);
+        AlocadorFornadas.Reserva reserva = alocador.reservar(2L, List.of(primeiro, segundo, semCapacidade));
+
+        assertEquals(2L, fornada(primeiro));
+        assertEquals(3L, fornada(segundo));
+        assertNull(fornada(semCapacidade));
+        assertFalse(reserva.isCompleta());
+        assertEquals(List.of(semCapacidade), reserva.getNaoAlocados());
+        assertEquals(2, alocador.restante(2L, 2L, 1L));
+        assertEquals(15, alocador.restante(2L, 3L, 1L));
+        assertEquals(-1, alocador.restante(2L, 1L, 1L));
+    }
+
+    @Test
+    public void testDescontaItensJaAtribuidos() {
+        capacidades(new CapacidadeFornada(1L, 1L, 20), new CapacidadeFornada(1L, 2L, 5));
+
+        assertEquals(5, alocador.restante(1L, 1L, 1L));
+        assertEquals(0, alocador.restante(1L, 1L, 2L));
+
+        ItemPedido grande = item(1L, 6);
+        ItemPedido cabe = item(1L, 5);
+        alocador.reservar(1L, List.of(grande, cabe));
+        assertNull(fornada(grande));
+        assertEquals(1L, fornada(cabe));
+
+        // A padaria 2 não tem capacidade do pão 1
+        assertEquals(1, alocador.reservar(2L, List.of(item(1L, 1))).getNaoAlocados().size());
+    }
+
+    @Test
+    public void testDesfazerDevolveOSaldo() {
+        capacidades(new CapacidadeFornada(2L, 1L, 10));
+
+        ItemPedido item = item(1L, 10);
+        AlocadorFornadas.Reserva reserva = alocador.reservar(2L, List.of(item));
+        assertTrue(reserva.isCompleta());
+        assertEquals(0, alocador.restante(2L, 2L, 1L));
+
+        reserva.desfazer();
+        reserva.desfazer();
+        assertNull(item.getFornada());
+        assertEquals(10, alocador.restante(2L, 2L, 1L));
+    }
+
+    @Test
+    public void testReservasConcorrentesNaoPassamDaCapacidade() throws Exception {
+        capacidades(new CapacidadeFornada(2L, 1L, 50), new CapacidadeFornada(3L, 1L, 50));
+
+        ExecutorService pedidos = Executors.newFixedThreadPool(8);
+        List<Future<ItemPedido>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++) {
+                resultados.add(pedidos.submit(() -> {
+                    ItemPedido item = item(1L, 3);
+                    alocador.reservar(2L, List.of(item));
+                    return item;
+                }));
+            }
+        } finally {
+            pedidos.shutdown();
+            assertTrue(pedidos.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        int naFornada2 = 0;
+        int naFornada3 = 0;
+        int semFornada = 0;
+        for (Future<ItemPedido> resultado : resultados) {
+            Long fornada = fornada(resultado.get());
+            if (fornada == null) {
+                semFornada++;
+            } else if (fornada == 2L) {
+                naFornada2++;
+            } else {
+                naFornada3++;
+            }
+        }
+        assertEquals(16, naFornada2);
+        assertEquals(16, naFornada3);
+        assertEquals(8, semFornada);
+        assertEquals(2, alocador.restante(2L, 2L, 1L));
+        assertEquals(2, alocador.restante(2L, 3L, 1L));
+    }
+
+    @Test
+    public void testPedidoGravadoConfirmaAReserva() throws Exception {
+        capacidades(new CapacidadeFornada(2L, 1L, 10));
+
+        ItemPedido item = item(1L, 4);
+        alocador.reservar(2L, List.of(item));
+        assertEquals(6, alocador.restante(2L, 2L, 1L));
+        Pedido pedido = new Pedido(22.0, new Date());
+        pedido.setItens(new ArrayList<>(List.of(item)));
+
+        ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+        try (RecepcaoPedidosService recepcao = new RecepcaoPedidosService(emf, validatorFactory.getValidator())) {
+            assertSame(pedido, recepcao.submeter(pedido).get(30, TimeUnit.SECONDS));
+        } finally {
+            validatorFactory.close();
+        }
+
+        assertEquals(6, alocador.restante(2L, 2L, 1L));
+        alocador.invalidar();
+        assertEquals(6, alocador.restante(2L, 2L, 1L));
+    }
+
+    @Test
+    public void testRecarregaQuandoACapacidadeMuda() {
+        capacidades(new CapacidadeFornada(2L, 1L, 10));
+        AlocadorFornadas.Reserva reserva = alocador.reservar(2L, List.of(item(1L, 4)));
+        assertEquals(6, alocador.restante(2L, 2L, 1L));
+
+        // A reserva ainda em andamento continua descontada na recarga
+        capacidades(new CapacidadeFornada(2L, 1L, 30));
+        assertEquals(26, alocador.restante(2L, 2L, 1L));
+        reserva.desfazer();
+        assertEquals(30, alocador.restante(2L, 2L, 1L));
+
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            outro.createQuery("DELETE FROM CapacidadeFornada c WHERE c.idFornada = 2").executeUpdate();
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+        assertEquals(-1, alocador.restante(2L, 2L, 1L));
+    }
+
+    @Test
+    public void testMudancaEmUmaPadariaNaoRecarregaAsOutras() {
+        capacidades(new CapacidadeFornada(1L, 1L, 20), new CapacidadeFornada(2L, 1L, 10));
+        assertEquals(5, alocador.restante(1L, 1L, 1L));
+        assertEquals(10, alocador.restante(2L, 2L, 1L));
+
+        capacidades(new CapacidadeFornada(2L, 1L, 12));
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            assertEquals(5, alocador.restante(1L, 1L, 1L));
+            assertEquals(0, sql.getTotal(), () -> sql.getComandos().toString());
+            assertEquals(12, alocador.restante(2L, 2L, 1L));
+            assertTrue(sql.getTotal() > 0);
+        }
+    }
+
+    @Test
+    public void testFornadasPassadasNaoContam() {
+        capacidades(new CapacidadeFornada(1L, 1L, 20));
+        try (AlocadorFornadas amanha = new AlocadorFornadas(emf, relogio(LocalDate.of(2025, 11, 10)))) {
+            assertEquals(-1, amanha.restante(1L, 1L, 1L));
+            assertEquals(1, amanha.reservar(1L, List.of(item(1L, 1))).getNaoAlocados().size());
+        }
+        assertEquals(5, alocador.restante(1L, 1L, 1L));
+    }
+
+    @Test
+    public void testReservaAbandonadaVoltaNaColeta() throws Exception {
+        capacidades(new CapacidadeFornada(2L, 1L, 10));
+        reservarEAbandonar(1L, 4);
+        assertEquals(10, restanteDepoisDaColeta(2L, 2L, 1L, 10));
+    }
+
+    @Test
+    public void testItemGravadoPorMergeNaoPrendeOSaldo() throws Exception {
+        capacidades(new CapacidadeFornada(2L, 1L, 10));
+        reservarEGravarPorMerge(1L, 4);
+
+        // A cópia gravada recarrega a padaria; o original só sai na coleta
+        assertTrue(alocador.restante(2L, 2L, 1L) <= 6);
+        assertEquals(6, restanteDepoisDaColeta(2L, 2L, 1L, 6));
+        alocador.invalidar();
+        assertEquals(6, alocador.restante(2L, 2L, 1L));
+    }
+}
@@ -0,0 +1,101 @@
+package ifpe.paokentyn.producao;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Ingrediente;
+import ifpe.paokentyn.service.ManutencaoCatalogoService;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExplosaoIngredientesTest extends GenericTest {
+
+    private ManutencaoCatalogoService manutencao;
+
+    @BeforeEach
+    public void setUpReceitas() {
+        manutencao = new ManutencaoCatalogoService(emf);
+        // Pão 1: farinha; pão 2: ovos e polvilho; pão 4: gergilim (sem quantidade)
+        manutencao.definirQuantidadeIngrediente(1L, 1L, 0.050);
+        manutencao.definirQuantidadeIngrediente(2L, 2L, 0.25);
+        manutencao.definirQuantidadeIngrediente(2L, 3L, 0.030);
+    }
+
+    private FornadaPlanejada fornada(int hora, ItemProducao... itens) {
+        return new FornadaPlanejada(1L, LocalDate.of(2025, 12, 1), LocalTime.of(hora, 0), List.of(itens));
+    }
+
+    @Test
+    public void testListaDeCompras() {
+        ExplosaoIngredientes explosao = ExplosaoIngredientes.carregar(em);
+
+        List<NecessidadeIngrediente> compras = explosao.listaCompras(List.of(
+                fornada(6, new ItemProducao(1L, 100), new ItemProducao(2L, 40)),
+                fornada(10, new ItemProducao(1L, 60), new ItemProducao(3L, 500))));
+
+        assertEquals(3, compras.size());
+        assertEquals(1L, compras.get(0).idIngrediente());
+        assertEquals("Farinha de Trigo", compras.get(0).nome());
+        assertEquals(8.0, compras.get(0).quantidade(), 1e-9);
+        assertEquals(10.0, compras.get(1).quantidade(), 1e-9);
+        assertEquals(1.2, compras.get(2).quantidade(), 1e-9);
+        compras.forEach(c -> assertTrue(c.completa()));
+    }
+
+    @Test
+    public void testReceitaSemQuantidadeMarcadaIncompleta() {
+        ExplosaoIngredientes explosao = ExplosaoIngredientes.carregar(em);
+
+        List<NecessidadeIngrediente> compras = explosao.listaCompras(List.of(fornada(6, new ItemProducao(4L, 10))));
+
+        assertEquals(1, compras.size());
+        assertEquals(4L, compras.get(0).idIngrediente());
+        assertFalse(compras.get(0).completa());
+    }
+
+    @Test
+    public void testExplodeMilharesDeFornadas() {
+        ExplosaoIngredientes explosao = ExplosaoIngredientes.carregar(em);
+
+        List<FornadaPlanejada> fornadas = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            fornadas.add(fornada(6, new ItemProducao(1L, 10), new ItemProducao(2L, 4)));
+        }
+
+        long inicio = System.nanoTime();
+        List<NecessidadeIngrediente> compras = explosao.listaCompras(fornadas);
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(5000 * 10 * 0.050, compras.get(0).quantidade(), 1e-6);
+        assertEquals(5000 * 4 * 0.25, compras.get(1).quantidade(), 1e-6);
+        assertTrue(ms < 1000, "Explosão levou " + ms + " ms");
+    }
+
+    @Test
+    public void testIngredienteForaDaReceitaNaoAlterado() {
+        assertEquals(0, manutencao.definirQuantidadeIngrediente(1L, 4L, 1.0));
+    }
+
+    @Test
+    public void testIngredienteSemReceitaEntraNoCadastro() {
+        Ingrediente fermento = new Ingrediente();
+        fermento.setNome("Fermento");
+        em.persist(fermento);
+        em.flush();
+
+        ExplosaoIngredientes explosao = ExplosaoIngredientes.carregar(em);
+
+        assertEquals(5, explosao.quantidadeIngredientes());
+        assertEquals(fermento.getId(), explosao.idIngrediente(4));
+        double[] total = explosao.explodir(new long[] {1L, 2L}, new int[] {10, 4});
+        assertEquals(5, total.length);
+        assertEquals(0.5, total[0], 1e-9);
+        assertEquals(0.0, total[4]);
+    }
+}
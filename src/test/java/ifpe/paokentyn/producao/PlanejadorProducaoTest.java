@@ -0,0 +1,114 @@
+package ifpe.paokentyn.producao;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.service.ManutencaoCatalogoService;
+import ifpe.paokentyn.service.ResumoVendasService;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlanejadorProducaoTest extends GenericTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 12, 1);
+
+    private void gravarVenda(EntityManager outro, long padaria, long pao, LocalDate data, int hora, long quantidade) {
+        long chave = data.getYear() * 1000000L + data.getMonthValue() * 10000L + data.getDayOfMonth() * 100L + hora;
+        outro.createNativeQuery("INSERT INTO TB_VENDA_HORA (ID_PADARIA, ID_PAO, NUM_HORA, NUM_QUANTIDADE, NUM_VALOR) "
+                + "VALUES (?, ?, ?, ?, ?)")
+                .setParameter(1, padaria)
+                .setParameter(2, pao)
+                .setParameter(3, chave)
+                .setParameter(4, quantidade)
+                .setParameter(5, quantidade * 1.0)
+                .executeUpdate();
+    }
+
+    private void gravarHistorico() {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            for (int semana = 1; semana <= 4; semana++) {
+                gravarVenda(outro, 1, 1, DIA.minusWeeks(semana), 7, 10);
+                gravarVenda(outro, 1, 1, DIA.minusWeeks(semana), 8, 10);
+                // Outro dia da semana: não entra na previsão
+                gravarVenda(outro, 1, 1, DIA.minusWeeks(semana).plusDays(1), 7, 500);
+            }
+            // Só na semana mais recente: peso 4 de 10
+            gravarVenda(outro, 1, 2, DIA.minusWeeks(1), 11, 40);
+            gravarVenda(outro, 2, 3, DIA.minusWeeks(2), 16, 30);
+            gravarVenda(outro, 2, 3, DIA.minusWeeks(2), 5, 30);
+            // Fora da janela de 4 semanas
+            gravarVenda(outro, 3, 1, DIA.minusWeeks(5), 7, 100);
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+    }
+
+    @Test
+    public void testPlanejaFornadasPorPadariaETurno() {
+        gravarHistorico();
+
+        Map<Long, List<FornadaPlanejada>> plano = new PlanejadorProducao(emf).planejar(DIA);
+
+        assertEquals(List.of(1L, 2L), List.copyOf(plano.keySet()));
+
+        List<FornadaPlanejada> padaria1 = plano.get(1L);
+        assertEquals(2, padaria1.size());
+        assertEquals(LocalTime.of(6, 0), padaria1.get(0).horaInicio());
+        assertEquals(List.of(new ItemProducao(1L, 22)), padaria1.get(0).itens());
+        assertEquals(LocalTime.of(10, 0), padaria1.get(1).horaInicio());
+        assertEquals(List.of(new ItemProducao(2L, 18)), padaria1.get(1).itens());
+        assertEquals(DIA, padaria1.get(0).data());
+
+        // Peso 3 de 10; vendas das 5h contam para a primeira fornada
+        List<FornadaPlanejada> padaria2 = plano.get(2L);
+        assertEquals(2, padaria2.size());
+        assertEquals(LocalTime.of(6, 0), padaria2.get(0).horaInicio());
+        assertEquals(10, padaria2.get(0).totalUnidades());
+        assertEquals(LocalTime.of(14, 0), padaria2.get(1).horaInicio());
+        assertEquals(10, padaria2.get(1).totalUnidades());
+    }
+
+    @Test
+    public void testPaoDesativadoNaoEntraNoPlano() {
+        gravarHistorico();
+        assertEquals(1, new ManutencaoCatalogoService(emf).desativarPaesComIngrediente(2L));
+
+        List<FornadaPlanejada> padaria1 = new PlanejadorProducao(emf).planejar(DIA).get(1L);
+
+        assertEquals(1, padaria1.size());
+        assertEquals(List.of(new ItemProducao(1L, 22)), padaria1.get(0).itens());
+    }
+
+    @Test
+    public void testSemHistoricoSemFornadas() {
+        assertTrue(new PlanejadorProducao(emf).planejar(DIA).isEmpty());
+    }
+
+    @Test
+    public void testPlanejaAPartirDosPedidos() {
+        new ResumoVendasService(emf).reconstruir();
+
+        // Pedidos do dataset: segunda 10/11 e sábado 15/11
+        Map<Long, List<FornadaPlanejada>> plano = new PlanejadorProducao(emf).planejar(LocalDate.of(2025, 11, 17));
+
+        assertFalse(plano.isEmpty());
+        assertEquals(1, plano.get(1L).size());
+        assertEquals(LocalTime.of(6, 0), plano.get(1L).get(0).horaInicio());
+    }
+
+    @Test
+    public void testHorasDeFornadaForaDeOrdem() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PlanejadorProducao(emf, 4, 0.1, new int[] {10, 6}));
+    }
+}
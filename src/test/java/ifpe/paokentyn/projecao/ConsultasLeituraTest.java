@@ -0,0 +1,65 @@
+package ifpe.paokentyn.projecao;
+
+import ifpe.paokentyn.domain.GenericTest;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConsultasLeituraTest extends GenericTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultasLeituraTest.class);
+
+    private Date data(int ano, int mes, int dia) {
+        return Date.from(LocalDate.of(ano, mes, dia).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private boolean contextoVazio() {
+        UnitOfWorkImpl uow = (UnitOfWorkImpl) em.unwrap(JpaEntityManager.class).getUnitOfWork();
+        return uow.getCloneMapping().isEmpty();
+    }
+
+    @Test
+    public void testCardapioSemHidratarEntidades() {
+        List<LinhaCardapio> cardapio = new ConsultasLeitura(em).cardapio();
+
+        assertEquals(4, cardapio.size());
+        assertTrue(cardapio.contains(new LinhaCardapio(2L, "Pão de Queijo", 3.00)));
+        assertTrue(contextoVazio(), "Nenhum Pao deveria entrar no contexto de persistência");
+        logger.info("Cardápio: {}", cardapio);
+    }
+
+    @Test
+    public void testResumoPedidosNoPeriodo() {
+        List<ResumoPedido> resumos = new ConsultasLeitura(em).resumosPedidos(data(2025, 11, 1), data(2025, 11, 30));
+
+        assertEquals(2, resumos.size());
+        ResumoPedido primeiro = resumos.get(0);
+        assertEquals(1L, primeiro.id());
+        assertEquals(70.00, primeiro.valorTotal());
+        assertEquals(2L, primeiro.quantidadeItens());
+        assertEquals(15L, primeiro.quantidadeUnidades());
+    }
+
+    @Test
+    public void testResumoPedidosForaDoPeriodo() {
+        assertTrue(new ConsultasLeitura(em).resumosPedidos(data(2024, 1, 1), data(2024, 12, 31)).isEmpty());
+    }
+
+    @Test
+    public void testEscalaDaPadaria() {
+        List<LinhaEscala> escala = new ConsultasLeitura(em).escala(1L);
+
+        assertEquals(3, escala.size());
+        assertEquals(new LinhaEscala(3L, "Pedro Silva", "Padeiro Junior", "Padaria do Melhor Teste"), escala.get(0));
+        assertTrue(new ConsultasLeitura(em).escala(2L).isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package ifpe.paokentyn.repository;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.domain.Tarefa;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PaginacaoRepositoryTest extends GenericTest {
+
+    private static final long UM_DIA = 24L * 60 * 60 * 1000;
+
+    private void criarPedidos(int quantidade) {
+        // Datas repetidas de 3 em 3 para exercitar o desempate pelo id
+        long base = System.currentTimeMillis() - 30 * UM_DIA;
+        for (int i = 0; i < quantidade; i++) {
+            em.persist(new Pedido(10.0 + i, new Date(base + (i / 3) * UM_DIA)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void testPercorreTodosOsPedidosEmOrdem() {
+        criarPedidos(25);
+        PaginacaoRepository paginacao = new PaginacaoRepository(em);
+
+        List<Pedido> todos = new ArrayList<>();
+        String token = null;
+        int paginas = 0;
+        do {
+            Pagina<Pedido> pagina = paginacao.pedidos(token, 10);
+            todos.addAll(pagina.itens());
+            token = pagina.proxima();
+            paginas++;
+        } while (token != null);
+
+        assertEquals(3, paginas);
+        assertEquals(27, todos.size());
+        assertEquals(27, todos.stream().map(Pedido::getId).distinct().count());
+        for (int i = 1; i < todos.size(); i++) {
+            Pedido anterior = todos.get(i - 1);
+            Pedido atual = todos.get(i);
+            int porData = anterior.getDataPedido().compareTo(atual.getDataPedido());
+            assertTrue(porData < 0 || (porData == 0 && anterior.getId() < atual.getId()));
+        }
+    }
+
+    @Test
+    public void testUltimaPaginaSemToken() {
+        Pagina<Pedido> pagina = new PaginacaoRepository(em).pedidos(null, 2);
+
+        assertEquals(2, pagina.itens().size());
+        assertFalse(pagina.temProxima());
+        assertNull(pagina.proxima());
+    }
+
+    @Test
+    public void testPaginaComPlanoDeBusca() {
+        Pagina<Pedido> pagina = new PaginacaoRepository(em).pedidos(null, 1, PlanoBusca.PEDIDO_COM_ITENS_E_PAES);
+
+        assertEquals(1, pagina.itens().size());
+        assertEquals(2, pagina.itens().get(0).getItens().size());
+        assertTrue(pagina.temProxima());
+    }
+
+    @Test
+    public void testTarefasPorPrevisao() {
+        Funcionario funcionario = em.find(Funcionario.class, 1L);
+        long amanha = System.currentTimeMillis() + UM_DIA;
+        for (int i = 0; i < 4; i++) {
+            Tarefa tarefa = new Tarefa("Conferir forno " + (char) ('A' + i), new Date(amanha + i * UM_DIA));
+            tarefa.setFuncionario(funcionario);
+            tarefa.setDataInicio(new Date());
+            tarefa.setConcluida(false);
+            em.persist(tarefa);
+        }
+        em.flush();
+
+        PaginacaoRepository paginacao = new PaginacaoRepository(em);
+        Pagina<Tarefa> primeira = paginacao.tarefas(null, 5);
+        Pagina<Tarefa> segunda = paginacao.tarefas(primeira.proxima(), 5);
+
+        assertEquals(5, primeira.itens().size());
+        assertEquals(2, segunda.itens().size());
+        assertFalse(segunda.temProxima());
+        assertEquals("Conferir forno D", segunda.itens().get(1).getDescricao());
+    }
+
+    @Test
+    public void testTokenInvalido() {
+        PaginacaoRepository paginacao = new PaginacaoRepository(em);
+        assertThrows(IllegalArgumentException.class, () -> paginacao.pedidos("nao-e-um-token", 10));
+        assertThrows(IllegalArgumentException.class, () -> paginacao.pedidos(null, 0));
+    }
+
+    @Test
+    public void testIndicesCompostosCriados() {
+        List<?> indices = em.createNativeQuery(
+                "SELECT CONGLOMERATENAME FROM SYS.SYSCONGLOMERATES "
+                + "WHERE CONGLOMERATENAME IN ('IX_PEDIDO_DATA_ID', 'IX_TAREFA_PREVISAO_ID')")
+                .getResultList();
+        assertEquals(2, indices.size());
+    }
+}
@@ -0,0 +1,93 @@
+package ifpe.paokentyn.repository;
+
+import ifpe.paokentyn.domain.Fornada;
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Padaria;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.util.ContadorSql;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RepositorioTest extends GenericTest {
+
+    private Repositorio repositorio;
+
+    @BeforeEach
+    public void setUpRepositorio() {
+        repositorio = new Repositorio(em);
+    }
+
+    @Test
+    public void testPedidosComItensEPaesEmConsultasFixas() {
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            List<Pedido> pedidos = repositorio.listar(Pedido.class, PlanoBusca.PEDIDO_COM_ITENS_E_PAES);
+
+            int linhas = 0;
+            for (Pedido pedido : pedidos) {
+                for (ItemPedido item : pedido.getItens()) {
+                    assertNotNull(item.getPao().getNomePao());
+                    linhas++;
+                }
+            }
+
+            assertEquals(2, pedidos.size());
+            assertEquals(4, linhas);
+            assertEquals(repositorio.consultasPorPlano(PlanoBusca.PEDIDO_COM_ITENS_E_PAES), sql.getTotal(),
+                    "Comandos: " + sql.getComandos());
+            assertEquals(1, sql.contar("TB_ITEM_PEDIDO"), "Comandos: " + sql.getComandos());
+            assertEquals(1, sql.contar("TB_PAO"), "Comandos: " + sql.getComandos());
+        }
+    }
+
+    @Test
+    public void testPadariaComEquipeEDadosBancarios() {
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            Padaria padaria = repositorio.buscarPorId(Padaria.class, 1L, PlanoBusca.PADARIA_COM_EQUIPE_E_DADOS_BANCARIOS);
+
+            assertEquals(3, padaria.getFuncionarios().size());
+            for (Funcionario funcionario : padaria.getFuncionarios()) {
+                assertNotNull(funcionario.getDadosBancarios().getBanco());
+            }
+            assertEquals(repositorio.consultasPorPlano(PlanoBusca.PADARIA_COM_EQUIPE_E_DADOS_BANCARIOS), sql.getTotal(),
+                    "Comandos: " + sql.getComandos());
+            assertEquals(1, sql.contar("TB_PADARIA"), "Comandos: " + sql.getComandos());
+            assertEquals(1, sql.getComandos().stream()
+                    .filter(c -> c.contains("FROM TB_FUNCIONARIO WHERE (ID_PADARIA")).count());
+        }
+    }
+
+    @Test
+    public void testFornadaComItensVendidosEmConsultaPropria() {
+        TypedQuery<Fornada> query = em.createQuery(
+                "SELECT f FROM Fornada f WHERE f.padaria.id = :padaria", Fornada.class);
+        query.setParameter("padaria", 1L);
+
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            List<Fornada> fornadas = repositorio.aplicar(query, "f", PlanoBusca.FORNADA_COM_ITENS_VENDIDOS).getResultList();
+
+            assertEquals(1, fornadas.size());
+            assertEquals("Padaria do Melhor Teste", fornadas.get(0).getPadaria().getNome());
+            assertEquals(4, fornadas.get(0).getItensPedidos().size());
+            fornadas.get(0).getItensPedidos().forEach(i -> assertNotNull(i.getPao().getPreco()));
+            assertEquals(repositorio.consultasPorPlano(PlanoBusca.FORNADA_COM_ITENS_VENDIDOS), sql.getTotal(),
+                    "Comandos: " + sql.getComandos());
+            assertEquals(1, sql.contar("TB_PADARIA"), "Comandos: " + sql.getComandos());
+            assertEquals(1, sql.contar("TB_ITEM_PEDIDO"), "Comandos: " + sql.getComandos());
+            assertEquals(1, sql.contar("TB_PAO"), "Comandos: " + sql.getComandos());
+        }
+    }
+
+    @Test
+    public void testPlanoDeOutraEntidadeNaoPermitido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> repositorio.listar(Pedido.class, PlanoBusca.PAO_COM_INGREDIENTES));
+    }
+}
@@ -0,0 +1,103 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.projecao.LinhaExportacaoPedido;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExportacaoPedidosServiceTest extends GenericTest {
+
+    private Date data(int ano, int mes, int dia) {
+        return Date.from(LocalDate.of(ano, mes, dia).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private void gravarPedidos(int quantidade, Date dataPedido) {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            Pao pao = outro.find(Pao.class, 2L);
+            for (int i = 0; i < quantidade; i++) {
+                Pedido pedido = new Pedido(6.0, dataPedido);
+                List<ItemPedido> itens = new ArrayList<>();
+                for (int q = 1; q <= 2; q++) {
+                    ItemPedido item = new ItemPedido();
+                    item.setPedido(pedido);
+                    item.setPao(pao);
+                    item.setQuantidade(q);
+                    itens.add(item);
+                }
+                pedido.setItens(itens);
+                outro.persist(pedido);
+            }
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+    }
+
+    @Test
+    public void testExportaLinhasDoDataSet() {
+        ExportacaoPedidosService exportacao = new ExportacaoPedidosService(emf);
+
+        List<LinhaExportacaoPedido> linhas;
+        try (Stream<LinhaExportacaoPedido> fluxo = exportacao.linhas(data(2025, 11, 1), data(2025, 12, 1))) {
+            linhas = fluxo.collect(Collectors.toList());
+        }
+
+        assertEquals(4, linhas.size());
+        LinhaExportacaoPedido primeira = linhas.get(0);
+        assertEquals(1L, primeira.idPedido());
+        assertEquals(70.00, primeira.valorTotal());
+        assertEquals("Pão Integral", primeira.nomePao());
+        assertEquals(10, primeira.quantidade());
+        assertEquals(1L, primeira.idFornada());
+    }
+
+    @Test
+    public void testExportaEmLotesNaOrdemDosPedidos() {
+        Date ontem = new Date(System.currentTimeMillis() - 24L * 60 * 60 * 1000);
+        gravarPedidos(150, ontem);
+
+        // Lote pequeno para atravessar várias idas ao banco
+        ExportacaoPedidosService exportacao = new ExportacaoPedidosService(emf, 7);
+        long total = 0;
+        long ultimoPedido = 0;
+        long ultimoItem = 0;
+        try (Stream<LinhaExportacaoPedido> fluxo = exportacao.linhas(data(2020, 1, 1), new Date())) {
+            for (LinhaExportacaoPedido linha : (Iterable<LinhaExportacaoPedido>) fluxo::iterator) {
+                assertTrue(linha.idPedido() > ultimoPedido
+                        || (linha.idPedido() == ultimoPedido && linha.idItem() > ultimoItem));
+                if (linha.idPedido() > 2) {
+                    assertNull(linha.idFornada());
+                }
+                ultimoPedido = linha.idPedido();
+                ultimoItem = linha.idItem();
+                total++;
+            }
+        }
+
+        assertEquals(4 + 150 * 2, total);
+    }
+
+    @Test
+    public void testPeriodoSemPedidos() {
+        try (Stream<LinhaExportacaoPedido> fluxo = new ExportacaoPedidosService(emf)
+                .linhas(data(2000, 1, 1), data(2000, 12, 31))) {
+            assertEquals(0, fluxo.count());
+        }
+    }
+}
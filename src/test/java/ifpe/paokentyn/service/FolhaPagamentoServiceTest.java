@@ -0,0 +1,128 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.DadosBancarios;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.folha.ArquivoRemessa;
+import ifpe.paokentyn.folha.CalculoFolha;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FolhaPagamentoServiceTest extends GenericTest {
+
+    // Dataset: João (1, R$ 3.200) no "Banco Teste S.A."; Maria (2, R$ 3.400)
+    // e Pedro (3, R$ 3.200) no "Banco Teste S.A. DOIS"
+    private static final YearMonth COMPETENCIA = YearMonth.of(2025, 11);
+    private static final String BANCO_UM = "Banco Teste S.A.";
+    private static final String BANCO_DOIS = "Banco Teste S.A. DOIS";
+
+    @TempDir
+    Path diretorio;
+
+    private static List<String> linhas(Path arquivo) throws IOException {
+        return List.of(Files.readString(arquivo, StandardCharsets.US_ASCII).split("\r\n"));
+    }
+
+    private static long campo(String linha, int inicio, int tamanho) {
+        return Long.parseLong(linha.substring(inicio - 1, inicio - 1 + tamanho));
+    }
+
+    @Test
+    public void testGeraUmaRemessaPorBanco() throws IOException {
+        FolhaPagamentoService service = new FolhaPagamentoService(emf, diretorio);
+
+        FolhaPagamentoService.Resultado resultado = service.executar(COMPETENCIA);
+
+        assertTrue(resultado.concluida());
+        assertEquals(3, resultado.pagamentos());
+        assertEquals(List.of(service.arquivo(COMPETENCIA, BANCO_UM), service.arquivo(COMPETENCIA, BANCO_DOIS)),
+                resultado.arquivos());
+        assertTrue(service.arquivo(COMPETENCIA, BANCO_DOIS).getFileName().toString()
+                .matches("remessa-202511-BANCO_TESTE_S_A_DOIS-[0-9a-f]{12}\\.txt"));
+
+        List<String> um = linhas(service.arquivo(COMPETENCIA, BANCO_UM));
+        assertEquals(3, um.size());
+        um.forEach(linha -> assertEquals(ArquivoRemessa.TAMANHO_REGISTRO, linha.length()));
+        assertTrue(um.get(0).startsWith("0BANCO TESTE S.A.              202511"));
+        assertEquals(1, campo(um.get(1), 8, 10));
+        assertEquals("JOAO SILVA", um.get(1).substring(17, 57).trim());
+        assertEquals(CalculoFolha.calcular(3200.00).liquido(), campo(um.get(1), 133, 15));
+
+        List<String> dois = linhas(service.arquivo(COMPETENCIA, BANCO_DOIS));
+        assertEquals(4, dois.size());
+        assertEquals(2, campo(dois.get(1), 8, 10));
+        assertEquals(3, campo(dois.get(2), 8, 10));
+        assertEquals(2, campo(dois.get(3), 2, 6));
+        assertEquals(CalculoFolha.calcular(3400.00).liquido() + CalculoFolha.calcular(3200.00).liquido(),
+                campo(dois.get(3), 8, 17));
+
+        assertEquals(resultado.totalLiquido(), campo(um.get(2), 8, 17) + campo(dois.get(3), 8, 17));
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(2, arquivos.count(), "Não devem sobrar arquivos parciais nem de controle");
+        }
+    }
+
+    @Test
+    public void testBancosComOMesmoNomeLegivelNaoDividemArquivo() throws IOException {
+        // Pedro passa para "Banco Teste S/A", que normaliza igual ao banco do João
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            outro.find(DadosBancarios.class, 3L).setBanco("Banco Teste S/A");
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+        FolhaPagamentoService service = new FolhaPagamentoService(emf, diretorio);
+
+        FolhaPagamentoService.Resultado resultado = service.executar(COMPETENCIA);
+
+        assertEquals(3, resultado.arquivos().size());
+        assertNotEquals(service.arquivo(COMPETENCIA, BANCO_UM), service.arquivo(COMPETENCIA, "Banco Teste S/A"));
+        List<String> um = linhas(service.arquivo(COMPETENCIA, BANCO_UM));
+        assertEquals(3, um.size());
+        assertEquals(1, campo(um.get(1), 8, 10));
+        List<String> pedro = linhas(service.arquivo(COMPETENCIA, "Banco Teste S/A"));
+        assertTrue(pedro.get(0).startsWith("0BANCO TESTE S/A "));
+        assertEquals(3, campo(pedro.get(1), 8, 10));
+    }
+
+    @Test
+    public void testRetomaDeOndeParou(@TempDir Path referencia) throws IOException {
+        FolhaPagamentoService interrompida = new FolhaPagamentoService(emf, diretorio, 1);
+
+        FolhaPagamentoService.Resultado parcial = interrompida.executar(COMPETENCIA, 2);
+        assertFalse(parcial.concluida());
+        assertEquals(2, parcial.pagamentos());
+        assertEquals(List.of(interrompida.arquivo(COMPETENCIA, BANCO_UM)), parcial.arquivos());
+
+        // Registro gravado pela metade depois do último ponto de controle
+        Path incompleto = diretorio.resolve(interrompida.arquivo(COMPETENCIA, BANCO_DOIS).getFileName() + ".parcial");
+        Files.writeString(incompleto, "1000003", StandardOpenOption.APPEND);
+
+        FolhaPagamentoService.Resultado retomada = interrompida.executar(COMPETENCIA);
+        assertTrue(retomada.concluida());
+        assertEquals(1, retomada.pagamentos());
+
+        FolhaPagamentoService completa = new FolhaPagamentoService(emf, referencia);
+        completa.executar(COMPETENCIA);
+        for (String banco : List.of(BANCO_UM, BANCO_DOIS)) {
+            assertArrayEquals(Files.readAllBytes(completa.arquivo(COMPETENCIA, banco)),
+                    Files.readAllBytes(interrompida.arquivo(COMPETENCIA, banco)));
+        }
+        assertFalse(Files.exists(incompleto));
+    }
+}
@@ -0,0 +1,133 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.imagem.ArmazemImagens;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImagemPaoServiceTest extends GenericTest {
+
+    @TempDir
+    Path raiz;
+
+    private ArmazemImagens armazem;
+    private ImagemPaoService imagens;
+
+    @BeforeEach
+    public void setUpImagens() throws IOException {
+        armazem = new ArmazemImagens(raiz);
+        imagens = new ImagemPaoService(emf, armazem);
+    }
+
+    private ByteArrayInputStream foto(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Pao buscarEmNovoEntityManager(Long id) {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            return outro.find(Pao.class, id);
+        } finally {
+            outro.close();
+        }
+    }
+
+    @Test
+    public void testDefinirEEnviarImagem() throws IOException {
+        String hash = imagens.definirImagem(1L, foto("foto do pão integral"));
+
+        assertEquals(hash, buscarEmNovoEntityManager(1L).getHashImagem());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        imagens.enviarImagem(1L, 0, Long.MAX_VALUE, Channels.newChannel(saida));
+        assertEquals("foto do pão integral", saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testImagemCompartilhadaSoSaiQuandoNinguemUsa() throws IOException {
+        String hash = imagens.definirImagem(1L, foto("mesma foto"));
+        assertEquals(hash, imagens.definirImagem(4L, foto("mesma foto")));
+
+        imagens.removerImagem(1L);
+        assertNull(imagens.hashImagem(1L));
+        assertTrue(armazem.existe(hash));
+
+        imagens.definirImagem(4L, foto("outra foto"));
+        assertFalse(armazem.existe(hash));
+    }
+
+    @Test
+    public void testPaoSemImagem() {
+        assertNull(imagens.hashImagem(2L));
+        assertThrows(EntityNotFoundException.class,
+                () -> imagens.enviarImagem(2L, 0, 10, Channels.newChannel(new ByteArrayOutputStream())));
+        assertThrows(EntityNotFoundException.class, () -> imagens.definirImagem(999L, foto("x")));
+    }
+
+    @Test
+    public void testTrocaQueFalhaNaoDeixaOrfao() throws IOException {
+        assertThrows(EntityNotFoundException.class, () -> imagens.definirImagem(999L, foto("sem dono")));
+        assertEquals(0, arquivos(), "Nem a imagem nem o temporário deveriam sobrar");
+
+        String usada = imagens.definirImagem(1L, foto("em uso"));
+        assertThrows(EntityNotFoundException.class, () -> imagens.definirImagem(999L, foto("em uso")));
+        assertTrue(armazem.existe(usada), "A imagem de outro pão não pode sair");
+        assertEquals(1, arquivos());
+    }
+
+    private long arquivos() throws IOException {
+        try (Stream<Path> caminhos = Files.walk(raiz)) {
+            return caminhos.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    public void testTrocasConcorrentesDaMesmaImagem() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> primeiro = executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    imagens.definirImagem(1L, foto("disputada"));
+                    imagens.definirImagem(1L, foto("outra " + i));
+                }
+                return null;
+            });
+            Future<?> segundo = executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    imagens.definirImagem(4L, foto("disputada"));
+                    imagens.removerImagem(4L);
+                }
+                return null;
+            });
+            primeiro.get(60, TimeUnit.SECONDS);
+            segundo.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String hash = imagens.definirImagem(4L, foto("disputada"));
+        assertTrue(armazem.existe(hash));
+        assertTrue(armazem.existe(imagens.hashImagem(1L)));
+    }
+}
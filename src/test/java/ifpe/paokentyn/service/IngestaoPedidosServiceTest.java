@@ -0,0 +1,161 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IngestaoPedidosServiceTest extends GenericTest {
+
+    private static ValidatorFactory validatorFactory;
+
+    @BeforeAll
+    public static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    public static void tearDownValidator() {
+        validatorFactory.close();
+    }
+
+    private Pedido novoPedido(int quantidade) {
+        Pao pao = new Pao();
+        pao.setId(1L);
+
+        ItemPedido item = new ItemPedido();
+        item.setPao(pao);
+        item.setQuantidade(quantidade);
+
+        Pedido pedido = new Pedido(5.50 * quantidade, new Date());
+        List<ItemPedido> itens = new ArrayList<>();
+        itens.add(item);
+        pedido.setItens(itens);
+        return pedido;
+    }
+
+    private long contarPedidos() {
+        return em.createQuery("SELECT COUNT(p) FROM Pedido p", Long.class).getSingleResult();
+    }
+
+    @Test
+    public void testGravaPedidosEmGrupos() throws Exception {
+        long antes = contarPedidos();
+
+        List<CompletableFuture<Pedido>> resultados;
+        IngestaoPedidosService service = new IngestaoPedidosService(emf, validatorFactory.getValidator(), 50, 200, 1000);
+        try {
+            resultados = service.submeterTodos(IntStream.rangeClosed(1, 120).mapToObj(this::novoPedido));
+        } finally {
+            service.close();
+        }
+
+        for (CompletableFuture<Pedido> resultado : resultados) {
+            assertTrue(resultado.get().getId() > 0);
+        }
+        assertEquals(120, service.getPedidosGravados());
+        assertTrue(service.getGruposGravados() < 120, "Pedidos deveriam ser gravados em grupos");
+        assertEquals(antes + 120, contarPedidos());
+        assertEquals(120L, em.createQuery(
+                "SELECT COUNT(i) FROM ItemPedido i WHERE i.pedido.id > 2", Long.class).getSingleResult());
+    }
+
+    @Test
+    public void testRejeitaPedidoInvalidoNaSubmissao() throws Exception {
+        try (IngestaoPedidosService service = new IngestaoPedidosService(emf, validatorFactory.getValidator())) {
+            Pedido invalido = novoPedido(0);
+            assertThrows(ConstraintViolationException.class, () -> service.submeter(invalido));
+        }
+    }
+
+    @Test
+    public void testPedidoComFalhaNaoDerrubaGrupo() throws Exception {
+        Pedido comPaoInexistente = novoPedido(1);
+        comPaoInexistente.getItens().get(0).getPao().setId(9999L);
+
+        CompletableFuture<Pedido> ok1;
+        CompletableFuture<Pedido> falho;
+        CompletableFuture<Pedido> ok2;
+        IngestaoPedidosService service = new IngestaoPedidosService(emf, validatorFactory.getValidator(), 10, 500, 100);
+        try {
+            ok1 = service.submeter(novoPedido(1));
+            falho = service.submeter(comPaoInexistente);
+            ok2 = service.submeter(novoPedido(2));
+        } finally {
+            service.close();
+        }
+
+        assertTrue(ok1.get().getId() > 0);
+        assertTrue(ok2.get().getId() > 0);
+        assertThrows(ExecutionException.class, falho::get);
+        assertEquals(1, service.getPedidosComFalha());
+    }
+
+    @Test
+    public void testContrapressaoSemVagas() throws Exception {
+        // Grupo grande e intervalo longo seguram os pedidos enquanto as vagas se esgotam
+        try (IngestaoPedidosService service = new IngestaoPedidosService(emf, validatorFactory.getValidator(), 1000, 2000, 2)) {
+            boolean rejeitado = false;
+            for (int i = 0; i < 10 && !rejeitado; i++) {
+                try {
+                    service.submeter(novoPedido(1), 10, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    rejeitado = true;
+                }
+            }
+            assertTrue(rejeitado, "Sem vagas, pedidos excedentes deveriam ser rejeitados");
+        }
+    }
+
+    @Test
+    public void testSubmissaoConcorrenteAoEncerramentoSempreConclui() throws Exception {
+        List<CompletableFuture<Pedido>> resultados = Collections.synchronizedList(new ArrayList<>());
+        IngestaoPedidosService service = new IngestaoPedidosService(emf, validatorFactory.getValidator(), 20, 10, 1000);
+        ExecutorService submissores = Executors.newFixedThreadPool(4);
+        try {
+            for (int t = 0; t < 4; t++) {
+                submissores.execute(() -> {
+                    try {
+                        while (true) {
+                            resultados.add(service.submeter(novoPedido(1)));
+                        }
+                    } catch (IllegalStateException | InterruptedException e) {
+                        // Serviço encerrado
+                    }
+                });
+            }
+            Thread.sleep(200);
+        } finally {
+            service.close();
+            submissores.shutdown();
+            assertTrue(submissores.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertTrue(resultados.size() > 0);
+        for (CompletableFuture<Pedido> resultado : resultados) {
+            assertTrue(resultado.isDone(), "Todo pedido aceito deve ser concluído no encerramento");
+        }
+        assertEquals(0, service.getPedidosPendentes());
+    }
+}
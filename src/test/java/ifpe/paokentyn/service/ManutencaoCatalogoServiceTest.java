@@ -0,0 +1,200 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.Ingrediente;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.indice.IndiceIngredientes;
+import ifpe.paokentyn.projecao.ConsultasLeitura;
+import ifpe.paokentyn.projecao.LinhaCardapio;
+import ifpe.paokentyn.util.ContadorSql;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ManutencaoCatalogoServiceTest extends GenericTest {
+
+    private ManutencaoCatalogoService manutencao;
+
+    @BeforeEach
+    public void setUpManutencao() {
+        manutencao = new ManutencaoCatalogoService(emf);
+    }
+
+    private <T> T buscarEmNovoEntityManager(Class<T> tipo, Long id) {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            return outro.find(tipo, id);
+        } finally {
+            outro.close();
+        }
+    }
+
+    @Test
+    public void testReajusteGeralEmUmComando() {
+        buscarEmNovoEntityManager(Pao.class, 1L);
+
+        int alterados;
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            alterados = manutencao.reajustarPrecos(10);
+            assertEquals(1, sql.getComandos().stream().filter(c -> c.contains("UPDATE TB_PAO")).count(),
+                    "Comandos: " + sql.getComandos());
+        }
+
+        assertEquals(4, alterados);
+        assertFalse(emf.getCache().contains(Pao.class, 1L));
+        assertEquals(6.05, buscarEmNovoEntityManager(Pao.class, 1L).getPreco());
+        assertEquals(3.30, buscarEmNovoEntityManager(Pao.class, 2L).getPreco());
+    }
+
+    @Test
+    public void testReajustePorIngredienteDespejaSoOsAfetados() {
+        buscarEmNovoEntityManager(Pao.class, 1L);
+        buscarEmNovoEntityManager(Pao.class, 3L);
+
+        int alterados = manutencao.reajustarPrecosComIngrediente(1L, -20);
+
+        assertEquals(1, alterados);
+        assertFalse(emf.getCache().contains(Pao.class, 1L));
+        assertTrue(emf.getCache().contains(Pao.class, 3L));
+        assertEquals(4.40, buscarEmNovoEntityManager(Pao.class, 1L).getPreco());
+        assertEquals(3.50, buscarEmNovoEntityManager(Pao.class, 3L).getPreco());
+    }
+
+    @Test
+    public void testIngredienteSemPaesNaoAlteraNada() {
+        assertEquals(1, manutencao.retirarIngredienteDasReceitas(1L));
+
+        assertEquals(0, manutencao.reajustarPrecosComIngrediente(1L, 5));
+        assertEquals(5.50, buscarEmNovoEntityManager(Pao.class, 1L).getPreco());
+    }
+
+    @Test
+    public void testRetirarIngredienteDasReceitas() {
+        buscarEmNovoEntityManager(Pao.class, 2L).getIngredientes().size();
+        assertTrue(emf.getCache().contains(Pao.class, 2L));
+
+        assertEquals(1, manutencao.retirarIngredienteDasReceitas(2L));
+
+        assertFalse(emf.getCache().contains(Pao.class, 2L));
+        EntityManager outro = emf.createEntityManager();
+        try {
+            Pao pao = outro.find(Pao.class, 2L);
+            assertEquals(1, pao.getIngredientes().size());
+            assertEquals("Polvilho", pao.getIngredientes().get(0).getNome());
+            assertTrue(outro.find(Ingrediente.class, 2L).getPaes().isEmpty());
+        } finally {
+            outro.close();
+        }
+    }
+
+    @Test
+    public void testDesativarPaesComIngrediente() {
+        buscarEmNovoEntityManager(Pao.class, 2L);
+        buscarEmNovoEntityManager(Pao.class, 1L);
+
+        int desativados;
+        try (ContadorSql sql = ContadorSql.registrar(emf)) {
+            desativados = manutencao.desativarPaesComIngrediente(2L);
+            // Os pães saem da receita na própria subconsulta, sem lista de ids
+            assertEquals(1, sql.getComandos().stream()
+                    .filter(c -> c.contains("UPDATE TB_PAO") && c.contains("TB_PAO_INGREDIENTE")).count(),
+                    "Comandos: " + sql.getComandos());
+            assertTrue(sql.getComandos().get(0).contains("UPDATE TB_PAO"), "Comandos: " + sql.getComandos());
+        }
+
+        assertEquals(1, desativados);
+        assertFalse(emf.getCache().contains(Pao.class, 2L));
+        assertTrue(emf.getCache().contains(Pao.class, 1L));
+        EntityManager outro = emf.createEntityManager();
+        try {
+            Pao pao = outro.find(Pao.class, 2L);
+            assertFalse(pao.getAtivo());
+            assertEquals(2, pao.getIngredientes().size(), "A receita não deveria mudar");
+            assertTrue(outro.find(Pao.class, 1L).getAtivo());
+        } finally {
+            outro.close();
+        }
+
+        assertEquals(0, manutencao.desativarPaesComIngrediente(3L), "Pão já inativo não conta");
+    }
+
+    @Test
+    public void testPaoDesativadoSaiDoCardapioEDosPedidos() throws Exception {
+        try (IndiceIngredientes indice = new IndiceIngredientes(emf)) {
+            assertTrue(indice.todos().contem(2L));
+
+            assertEquals(1, manutencao.desativarPaesComIngrediente(2L));
+
+            assertFalse(indice.todos().contem(2L));
+            assertEquals(3, indice.todos().tamanho());
+        }
+        EntityManager outro = emf.createEntityManager();
+        try {
+            assertEquals(List.of(1L, 3L, 4L), new ConsultasLeitura(outro).cardapio().stream()
+                    .map(LinhaCardapio::id).sorted().toList());
+        } finally {
+            outro.close();
+        }
+
+        Pao pao = new Pao();
+        pao.setId(2L);
+        ItemPedido item = new ItemPedido();
+        item.setPao(pao);
+        item.setQuantidade(1);
+        Pedido pedido = new Pedido(3.0, new Date());
+        pedido.setItens(new ArrayList<>(List.of(item)));
+        long pedidos = em.createQuery("SELECT COUNT(p) FROM Pedido p", Long.class).getSingleResult();
+        ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+        try (RecepcaoPedidosService recepcao = new RecepcaoPedidosService(emf, validatorFactory.getValidator())) {
+            ExecutionException falha = assertThrows(ExecutionException.class,
+                    () -> recepcao.submeter(pedido).get(30, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, falha.getCause());
+        } finally {
+            validatorFactory.close();
+        }
+        assertEquals(pedidos, em.createQuery("SELECT COUNT(p) FROM Pedido p", Long.class).getSingleResult());
+    }
+
+    @Test
+    public void testExcluirIngredientesSemUso() {
+        assertEquals(0, manutencao.excluirIngredientesSemUso());
+
+        manutencao.retirarIngredienteDasReceitas(4L);
+        buscarEmNovoEntityManager(Ingrediente.class, 4L);
+
+        assertEquals(1, manutencao.excluirIngredientesSemUso());
+        assertFalse(emf.getCache().contains(Ingrediente.class, 4L));
+        assertNull(buscarEmNovoEntityManager(Ingrediente.class, 4L));
+    }
+
+    @Test
+    public void testReajusteQueZeraPrecosNaoPermitido() {
+        assertThrows(IllegalArgumentException.class, () -> manutencao.reajustarPrecos(-100));
+        assertThrows(IllegalArgumentException.class, () -> manutencao.reajustarPrecos(-150));
+        assertThrows(IllegalArgumentException.class, () -> manutencao.reajustarPrecos(Double.NaN));
+    }
+
+    @Test
+    public void testReajusteNaoDesceDeUmCentavo() {
+        assertEquals(4, manutencao.reajustarPrecos(-99.9));
+
+        assertEquals(0.01, buscarEmNovoEntityManager(Pao.class, 2L).getPreco());
+        assertEquals(0.01, buscarEmNovoEntityManager(Pao.class, 1L).getPreco());
+    }
+}
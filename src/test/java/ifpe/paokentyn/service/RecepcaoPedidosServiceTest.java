@@ -0,0 +1,186 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.domain.VendaHora;
+import ifpe.paokentyn.domain.VendaHoraId;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecepcaoPedidosServiceTest extends GenericTest {
+
+    private static ValidatorFactory validatorFactory;
+
+    @BeforeAll
+    public static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    public static void tearDownValidator() {
+        validatorFactory.close();
+    }
+
+    private Pedido novoPedido(int quantidade) {
+        Pao pao = new Pao();
+        pao.setId(1L);
+
+        ItemPedido item = new ItemPedido();
+        item.setPao(pao);
+        item.setQuantidade(quantidade);
+
+        Pedido pedido = new Pedido(5.50 * quantidade, new Date());
+        List<ItemPedido> itens = new ArrayList<>();
+        itens.add(item);
+        pedido.setItens(itens);
+        return pedido;
+    }
+
+    private long contarPedidos() {
+        return em.createQuery("SELECT COUNT(p) FROM Pedido p", Long.class).getSingleResult();
+    }
+
+    @Test
+    public void testPedidosConcorrentesRespeitamAsConexoes() throws Exception {
+        long antes = contarPedidos();
+        List<CompletableFuture<Pedido>> resultados = new ArrayList<>();
+
+        RecepcaoPedidosService service = new RecepcaoPedidosService(emf, validatorFactory.getValidator(), 200, 4);
+        ExecutorService clientes = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompletableFuture<Pedido>>> envios = new ArrayList<>();
+            for (int i = 1; i <= 80; i++) {
+                int quantidade = i;
+                envios.add(clientes.submit(() -> service.submeter(novoPedido(quantidade), 10, TimeUnit.SECONDS)));
+            }
+            for (Future<CompletableFuture<Pedido>> envio : envios) {
+                resultados.add(envio.get());
+            }
+        } finally {
+            clientes.shutdown();
+            service.close();
+        }
+
+        for (CompletableFuture<Pedido> resultado : resultados) {
+            assertTrue(resultado.get().getId() > 0);
+        }
+        assertEquals(80, service.getGravados());
+        assertEquals(0, service.getRejeitados());
+        assertEquals(0, service.getEmAndamento());
+        assertEquals(antes + 80, contarPedidos());
+        assertTrue(service.getVazaoEstimada() > 0);
+        assertEquals(Runtime.version().feature() >= 21, service.isThreadsVirtuais());
+    }
+
+    @Test
+    public void testPedidosConcorrentesNaMesmaLinhaNovaDoResumo() throws Exception {
+        Date agora = new Date();
+        List<CompletableFuture<Pedido>> resultados = new ArrayList<>();
+        RecepcaoPedidosService service = new RecepcaoPedidosService(emf, validatorFactory.getValidator(), 200, 4);
+
+        // O resumo é gravado junto com o pedido: travado, nenhum pedido confirma
+        EntityManager bloqueio = emf.createEntityManager();
+        ExecutorService clientes = Executors.newFixedThreadPool(8);
+        try {
+            bloqueio.getTransaction().begin();
+            bloqueio.createNativeQuery("LOCK TABLE TB_VENDA_HORA IN EXCLUSIVE MODE").executeUpdate();
+
+            List<Future<CompletableFuture<Pedido>>> envios = new ArrayList<>();
+            for (int i = 1; i <= 40; i++) {
+                int quantidade = i;
+                envios.add(clientes.submit(() -> {
+                    Pedido pedido = novoPedido(quantidade);
+                    pedido.setDataPedido(agora);
+                    return service.submeter(pedido, 10, TimeUnit.SECONDS);
+                }));
+            }
+            for (Future<CompletableFuture<Pedido>> envio : envios) {
+                resultados.add(envio.get());
+            }
+            Thread.sleep(500);
+            assertEquals(0, service.getGravados());
+            bloqueio.getTransaction().rollback();
+
+            for (CompletableFuture<Pedido> resultado : resultados) {
+                assertTrue(resultado.get(30, TimeUnit.SECONDS).getId() > 0);
+            }
+        } finally {
+            clientes.shutdown();
+            if (bloqueio.getTransaction().isActive()) {
+                bloqueio.getTransaction().rollback();
+            }
+            bloqueio.close();
+            service.close();
+        }
+
+        assertEquals(40, service.getGravados());
+        assertEquals(0, service.getFalhas());
+        VendaHora linha = em.find(VendaHora.class,
+                new VendaHoraId(VendaHora.SEM_PADARIA, 1L, ResumoVendasService.hora(agora)));
+        assertEquals(820L, linha.getQuantidade());
+        assertEquals(820 * 5.50, linha.getValor(), 0.001);
+        assertEquals(1L, em.createQuery("SELECT COUNT(v) FROM VendaHora v", Long.class).getSingleResult());
+    }
+
+    @Test
+    public void testRejeitaSemVagas() throws Exception {
+        RecepcaoPedidosService service = new RecepcaoPedidosService(emf, validatorFactory.getValidator(), 1, 1);
+        CompletableFuture<Pedido> preso;
+
+        // Segura a linha do pão 1: o pedido aceito fica parado no banco
+        EntityManager bloqueio = emf.createEntityManager();
+        try {
+            bloqueio.getTransaction().begin();
+            bloqueio.createNativeQuery("UPDATE TB_PAO SET NUM_PRECO = NUM_PRECO WHERE ID = 1").executeUpdate();
+
+            preso = service.submeter(novoPedido(1));
+            assertThrows(RejectedExecutionException.class, () -> service.submeter(novoPedido(2)));
+            assertThrows(RejectedExecutionException.class,
+                    () -> service.submeter(novoPedido(3), 50, TimeUnit.MILLISECONDS));
+            assertEquals(1, service.getEmAndamento());
+            assertEquals(2, service.getRejeitados());
+        } finally {
+            bloqueio.getTransaction().rollback();
+            bloqueio.close();
+        }
+
+        assertTrue(preso.get(30, TimeUnit.SECONDS).getId() > 0);
+        service.close();
+        assertEquals(1, service.getGravados());
+        assertThrows(IllegalStateException.class, () -> service.submeter(novoPedido(1)));
+    }
+
+    @Test
+    public void testPedidoInvalidoFalhaNoFuturo() throws Exception {
+        try (RecepcaoPedidosService service = new RecepcaoPedidosService(emf, validatorFactory.getValidator())) {
+            CompletableFuture<Pedido> invalido = service.submeter(novoPedido(0));
+
+            ExecutionException falha = assertThrows(ExecutionException.class, () -> invalido.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(ConstraintViolationException.class, falha.getCause());
+            assertEquals(1, service.getFalhas());
+            assertTrue(service.getConexoes() > 0);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReconciliacaoPrecosServiceTest extends GenericTest {
+
+    private Pedido buscarEmNovoEntityManager(Long id) {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            return outro.find(Pedido.class, id);
+        } finally {
+            outro.close();
+        }
+    }
+
+    private void gravarPedidos(int quantidade) {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            Pao integral = outro.find(Pao.class, 1L);
+            Pao queijo = outro.find(Pao.class, 2L);
+            for (int i = 0; i < quantidade; i++) {
+                // Metade com total certo (2 × 5,50 + 1 × 3,00 = 14,00), metade errada
+                Pedido pedido = new Pedido(i % 2 == 0 ? 14.0 : 99.0, new Date());
+                List<ItemPedido> itens = new ArrayList<>();
+                itens.add(novoItem(pedido, integral, 2));
+                itens.add(novoItem(pedido, queijo, 1));
+                pedido.setItens(itens);
+                outro.persist(pedido);
+            }
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+    }
+
+    private ItemPedido novoItem(Pedido pedido, Pao pao, int quantidade) {
+        ItemPedido item = new ItemPedido();
+        item.setPedido(pedido);
+        item.setPao(pao);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    @Test
+    public void testEncontraDivergenciaNoDataSet() {
+        // Pedido 2: 5 × 3,50 + 5 × 5,50 = 45,00, mas está gravado 55,00
+        ReconciliacaoPrecosService.Resultado resultado = new ReconciliacaoPrecosService(emf).reconciliar(false);
+
+        assertEquals(new ReconciliacaoPrecosService.Resultado(2, 1, 0), resultado);
+        assertEquals(55.00, buscarEmNovoEntityManager(2L).getValorTotal());
+    }
+
+    @Test
+    public void testCorrigeEmParalelo() {
+        gravarPedidos(300);
+
+        ReconciliacaoPrecosService reconciliacao = new ReconciliacaoPrecosService(emf, 40, 4);
+        ReconciliacaoPrecosService.Resultado resultado = reconciliacao.reconciliar(true);
+
+        assertEquals(302, resultado.pedidosVerificados());
+        assertEquals(151, resultado.pedidosDivergentes());
+        assertEquals(151, resultado.pedidosCorrigidos());
+        assertEquals(45.00, buscarEmNovoEntityManager(2L).getValorTotal());
+        assertEquals(0, reconciliacao.reconciliar(false).pedidosDivergentes());
+    }
+
+    // Pedido de 2 × pão integral (11,00) com id escolhido, por SQL nativo
+    private void gravarPedidoNativo(EntityManager outro, long id) {
+        outro.createNativeQuery("INSERT INTO TB_PEDIDO (ID, NUM_VALOR_TOTAL, DT_PEDIDO) VALUES (?, 11.0, CURRENT_TIMESTAMP)")
+                .setParameter(1, id)
+                .executeUpdate();
+        outro.createNativeQuery("INSERT INTO TB_ITEM_PEDIDO (ID, ID_PEDIDO, ID_PAO, NUM_QUANTIDADE) VALUES (?, ?, 1, 2)")
+                .setParameter(1, id + 100_000)
+                .setParameter(2, id)
+                .executeUpdate();
+    }
+
+    @Test
+    public void testPedidosGravadosDentroDoLoteDuranteAReconciliacao() throws Exception {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            gravarPedidoNativo(outro, 1000);
+            gravarPedidoNativo(outro, 3000);
+            outro.getTransaction().commit();
+        } finally {
+            outro.close();
+        }
+        // Um lote só, de 1 a 3000; os pedidos novos caem no meio dele
+        ReconciliacaoPrecosService reconciliacao = new ReconciliacaoPrecosService(emf, 1000, 1);
+
+        AtomicBoolean parar = new AtomicBoolean();
+        CompletableFuture<Void> escritor = CompletableFuture.runAsync(() -> {
+            for (long id = 1001; id < 3000 && !parar.get(); id++) {
+                EntityManager concorrente = emf.createEntityManager();
+                try {
+                    concorrente.getTransaction().begin();
+                    gravarPedidoNativo(concorrente, id);
+                    concorrente.getTransaction().commit();
+                } finally {
+                    concorrente.close();
+                }
+            }
+        });
+        try {
+            for (int i = 0; i < 10; i++) {
+                reconciliacao.reconciliar(true);
+            }
+        } finally {
+            parar.set(true);
+            escritor.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(11.00, buscarEmNovoEntityManager(3000L).getValorTotal());
+        assertEquals(45.00, buscarEmNovoEntityManager(2L).getValorTotal());
+        assertEquals(0L, em.createQuery("SELECT COUNT(p) FROM Pedido p WHERE p.valorTotal = 0", Long.class)
+                .getSingleResult());
+        assertEquals(0, reconciliacao.reconciliar(false).pedidosDivergentes());
+    }
+
+    @Test
+    public void testPedidoSemItensNoMeioDoLote() {
+        EntityManager outro = emf.createEntityManager();
+        Long semItens;
+        try {
+            outro.getTransaction().begin();
+            Pedido pedido = new Pedido(7.0, new Date());
+            pedido.setItens(new ArrayList<>());
+            outro.persist(pedido);
+            outro.getTransaction().commit();
+            semItens = pedido.getId();
+        } finally {
+            outro.close();
+        }
+        gravarPedidos(2);
+
+        ReconciliacaoPrecosService.Resultado resultado = new ReconciliacaoPrecosService(emf).reconciliar(true);
+
+        assertEquals(5, resultado.pedidosVerificados());
+        assertEquals(0.0, buscarEmNovoEntityManager(semItens).getValorTotal());
+        assertEquals(0, new ReconciliacaoPrecosService(emf).reconciliar(false).pedidosDivergentes());
+    }
+}
@@ -0,0 +1,187 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.Fornada;
+import ifpe.paokentyn.domain.GenericTest;
+import ifpe.paokentyn.domain.ItemPedido;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import ifpe.paokentyn.domain.VendaHora;
+import ifpe.paokentyn.projecao.TotalVendas;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResumoVendasServiceTest extends GenericTest {
+
+    private static ValidatorFactory validatorFactory;
+
+    private ResumoVendasService resumo;
+
+    @BeforeAll
+    public static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    public static void tearDownValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    public void setUpResumo() {
+        resumo = new ResumoVendasService(emf);
+    }
+
+    private Date data(int ano, int mes, int dia) {
+        return Date.from(LocalDate.of(ano, mes, dia).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private Pedido novoPedido(Long idPao, Long idFornada, int quantidade) {
+        Pao pao = new Pao();
+        pao.setId(idPao);
+
+        ItemPedido item = new ItemPedido();
+        item.setPao(pao);
+        item.setQuantidade(quantidade);
+        if (idFornada != null) {
+            Fornada fornada = new Fornada();
+            fornada.setId(idFornada);
+            item.setFornada(fornada);
+        }
+
+        Pedido pedido = new Pedido(10.0, new Date());
+        List<ItemPedido> itens = new ArrayList<>();
+        itens.add(item);
+        pedido.setItens(itens);
+        return pedido;
+    }
+
+    private List<VendaHora> linhasDoResumo() {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            return outro.createQuery("SELECT v FROM VendaHora v ORDER BY v.idPadaria, v.idPao, v.hora", VendaHora.class)
+                    .getResultList();
+        } finally {
+            outro.close();
+        }
+    }
+
+    @Test
+    public void testReconstruirAPartirDosPedidos() {
+        assertEquals(4, resumo.reconstruir());
+
+        Date inicio = data(2025, 11, 1);
+        Date fim = data(2025, 12, 1);
+
+        List<TotalVendas> porPao = resumo.totaisPorPao(inicio, fim);
+        assertEquals(3, porPao.size());
+        assertEquals(new TotalVendas(1L, 15L, 82.5), porPao.get(0));
+        assertEquals(new TotalVendas(2L, 5L, 15.0), porPao.get(1));
+        assertEquals(new TotalVendas(3L, 5L, 17.5), porPao.get(2));
+
+        assertEquals(List.of(new TotalVendas(1L, 25L, 115.0)), resumo.totaisPorPadaria(inicio, fim));
+
+        List<TotalVendas> porHora = resumo.totaisPorHora(1L, inicio, fim);
+        assertEquals(List.of(new TotalVendas(2025111009L, 15L, 70.0), new TotalVendas(2025111509L, 10L, 45.0)),
+                porHora);
+    }
+
+    @Test
+    public void testIngestaoAtualizaResumoNaMesmaTransacao() throws Exception {
+        resumo.reconstruir();
+
+        List<CompletableFuture<Pedido>> resultados = new ArrayList<>();
+        try (IngestaoPedidosService ingestao = new IngestaoPedidosService(emf, validatorFactory.getValidator(), 50, 100, 100)) {
+            for (int i = 0; i < 10; i++) {
+                resultados.add(ingestao.submeter(novoPedido(1L, 1L, 2)));
+                resultados.add(ingestao.submeter(novoPedido(2L, 2L, 1)));
+                resultados.add(ingestao.submeter(novoPedido(3L, null, 3)));
+            }
+        }
+        for (CompletableFuture<Pedido> resultado : resultados) {
+            resultado.get();
+        }
+
+        List<VendaHora> incremental = linhasDoResumo();
+        Date agora = new Date();
+        Date umaHoraAtras = new Date(agora.getTime() - 60 * 60 * 1000);
+        List<TotalVendas> porPadaria = resumo.totaisPorPadaria(umaHoraAtras, agora);
+        assertEquals(List.of(new TotalVendas(VendaHora.SEM_PADARIA, 30L, 105.0),
+                new TotalVendas(1L, 20L, 110.0), new TotalVendas(2L, 10L, 30.0)), porPadaria);
+
+        // O resumo incremental bate com o recalculado do zero
+        resumo.reconstruir();
+        List<VendaHora> reconstruido = linhasDoResumo();
+        assertEquals(reconstruido.size(), incremental.size());
+        for (int i = 0; i < reconstruido.size(); i++) {
+            assertEquals(reconstruido.get(i).getHora(), incremental.get(i).getHora());
+            assertEquals(reconstruido.get(i).getQuantidade(), incremental.get(i).getQuantidade());
+            assertEquals(reconstruido.get(i).getValor(), incremental.get(i).getValor(), 0.001);
+        }
+    }
+
+    @Test
+    public void testRegistrarDesfeitoJuntoComATransacao() {
+        EntityManager outro = emf.createEntityManager();
+        try {
+            outro.getTransaction().begin();
+            Pedido pedido = novoPedido(1L, null, 4);
+            pedido.getItens().get(0).setPao(outro.find(Pao.class, 1L));
+            resumo.registrar(outro, List.of(pedido));
+            outro.getTransaction().rollback();
+        } finally {
+            outro.close();
+        }
+
+        assertTrue(linhasDoResumo().isEmpty());
+    }
+
+    @Test
+    public void testLinhaNovaCriadaEmParaleloNaoDerrubaATransacao() throws Exception {
+        EntityManager primeiro = emf.createEntityManager();
+        try {
+            primeiro.getTransaction().begin();
+            Pedido pedido = novoPedido(1L, null, 4);
+            pedido.getItens().get(0).setPao(primeiro.find(Pao.class, 1L));
+            resumo.registrar(primeiro, List.of(pedido));
+
+            // O segundo tenta criar a mesma linha e espera a trava do primeiro
+            CompletableFuture<Void> segundo = CompletableFuture.runAsync(() -> {
+                EntityManager outro = emf.createEntityManager();
+                try {
+                    outro.getTransaction().begin();
+                    Pedido concorrente = novoPedido(1L, null, 6);
+                    concorrente.getItens().get(0).setPao(outro.find(Pao.class, 1L));
+                    resumo.registrar(outro, List.of(concorrente));
+                    outro.getTransaction().commit();
+                } finally {
+                    outro.close();
+                }
+            });
+            Thread.sleep(500);
+            primeiro.getTransaction().commit();
+            segundo.get(30, TimeUnit.SECONDS);
+        } finally {
+            primeiro.close();
+        }
+
+        List<VendaHora> linhas = linhasDoResumo();
+        assertEquals(1, linhas.size());
+        assertEquals(10L, linhas.get(0).getQuantidade());
+        assertEquals(55.0, linhas.get(0).getValor(), 0.001);
+    }
+}
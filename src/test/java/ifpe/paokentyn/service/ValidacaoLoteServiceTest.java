@@ -0,0 +1,106 @@
+package ifpe.paokentyn.service;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.Padaria;
+import ifpe.paokentyn.domain.Pao;
+import ifpe.paokentyn.domain.Pedido;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidacaoLoteServiceTest {
+
+    private static ValidatorFactory factory;
+    private static ValidacaoLoteService service;
+
+    @BeforeAll
+    public static void setUpService() {
+        factory = Validation.buildDefaultValidatorFactory();
+        service = new ValidacaoLoteService(factory, 4);
+    }
+
+    @AfterAll
+    public static void tearDownService() {
+        service.close();
+        factory.close();
+    }
+
+    private static Padaria padaria(String cnpj) {
+        Padaria padaria = new Padaria();
+        padaria.setNome("Padaria Central");
+        padaria.setCep("50000-450");
+        padaria.setCnpj(cnpj);
+        return padaria;
+    }
+
+    @Test
+    public void testLoteMistoIndicaOsObjetosInvalidos() {
+        List<Object> lote = Arrays.asList(
+                padaria("05604099000154"),
+                padaria("12345678901234"),
+                new Pao("Pão Francês", 0.75),
+                null,
+                new Pedido(-1.0, new Date()),
+                new Funcionario());
+
+        ValidacaoLoteService.Violacoes violacoes = service.validar(lote);
+
+        assertEquals(6, violacoes.getObjetos());
+        assertEquals(3, violacoes.getInvalidos());
+        assertArrayEquals(new int[]{1, 4, 5}, violacoes.invalidos());
+        assertTrue(violacoes.isValido(0));
+        assertTrue(violacoes.isValido(3));
+        assertEquals("cnpj", violacoes.campo(0));
+        assertEquals(1, violacoes.mensagensDo(1).size());
+        assertEquals(1, violacoes.mensagensDo(4).size());
+        // padaria, nome, cpf, e-mail e cargo
+        assertEquals(5, violacoes.mensagensDo(5).size());
+        assertEquals(7, violacoes.tamanho());
+    }
+
+    @Test
+    public void testPararNaPrimeiraReportaUmaPorObjeto() {
+        List<Funcionario> lote = List.of(new Funcionario(), new Funcionario());
+
+        ValidacaoLoteService.Violacoes todas = service.validar(lote);
+        ValidacaoLoteService.Violacoes primeiras = service.validar(lote, true);
+
+        assertEquals(10, todas.tamanho());
+        assertEquals(2, primeiras.tamanho());
+        assertEquals(2, primeiras.getInvalidos());
+        assertEquals(List.of(primeiras.mensagem(1)), primeiras.mensagensDo(1));
+    }
+
+    @Test
+    public void testLoteGrandeEmFaixasMantemAOrdem() {
+        List<Pao> lote = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            lote.add(i % 7 == 0 ? new Pao("Pão " + i, 1.0) : new Pao("Pão de Queijo", 1.0 + i));
+        }
+
+        ValidacaoLoteService.Violacoes violacoes = service.validar(lote, true);
+
+        int esperados = (20_000 + 6) / 7;
+        assertEquals(esperados, violacoes.getInvalidos());
+        assertEquals(esperados, violacoes.tamanho());
+        int[] invalidos = violacoes.invalidos();
+        for (int i = 0; i < invalidos.length; i++) {
+            assertEquals(i * 7, invalidos[i]);
+            assertEquals("nomePao", violacoes.campo(i));
+        }
+        assertFalse(violacoes.isValido(19_999));
+        assertTrue(violacoes.isValido(19_998));
+        assertTrue(service.validar(lote.subList(1, 7)).isVazio());
+    }
+}
@@ -0,0 +1,62 @@
+package ifpe.paokentyn.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventManager;
+
+/**
+ * Conta (e guarda) os comandos SQL executados pela sessão do EclipseLink
+ * enquanto estiver registrado.
+ */
+public class ContadorSql extends SessionEventAdapter implements AutoCloseable {
+
+    private final SessionEventManager eventos;
+    private final List<String> comandos = new CopyOnWriteArrayList<>();
+
+    private ContadorSql(SessionEventManager eventos) {
+        this.eventos = eventos;
+    }
+
+    public static ContadorSql registrar(EntityManagerFactory emf) {
+        SessionEventManager eventos = emf.unwrap(JpaEntityManagerFactory.class)
+                .getServerSession().getEventManager();
+        ContadorSql contador = new ContadorSql(eventos);
+        eventos.addListener(contador);
+        return contador;
+    }
+
+    @Override
+    public void preExecuteCall(SessionEvent event) {
+        comandos.add(String.valueOf(event.getCall()));
+    }
+
+    public int getTotal() {
+        return comandos.size();
+    }
+
+    /**
+     * Quantos comandos leram da tabela (ex.: "TB_PAO" não conta TB_PAO_INGREDIENTE).
+     */
+    public long contar(String tabela) {
+        Pattern padrao = Pattern.compile("FROM " + tabela + "\\b");
+        return comandos.stream().filter(c -> padrao.matcher(c).find()).count();
+    }
+
+    public List<String> getComandos() {
+        return comandos;
+    }
+
+    public void zerar() {
+        comandos.clear();
+    }
+
+    @Override
+    public void close() {
+        eventos.removeListener(this);
+    }
+}
@@ -0,0 +1,79 @@
+package ifpe.paokentyn.validation;
+
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.Padaria;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.validator.messageinterpolation.ResourceBundleMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Validação de objetos inválidos (onde a interpolação das mensagens pesa)
+ * com o {@link InterpoladorMensagens} e com o interpolador padrão do
+ * Hibernate Validator, que passa pela EL.
+ *
+ * Roda com: mvn -Pbenchmark test-compile -Djmh.args="-f 1 InterpolacaoBenchmark"
+ *
+ * @author isabe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InterpolacaoBenchmark {
+
+    @Param({"precompilado", "padrao"})
+    public String interpolador;
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private Funcionario funcionario;
+    private Padaria padaria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = Validation.byDefaultProvider().configure()
+                .messageInterpolator("precompilado".equals(interpolador)
+                        ? new InterpoladorMensagens(true)
+                        : new ResourceBundleMessageInterpolator())
+                .buildValidatorFactory();
+        validator = factory.getValidator();
+
+        // Cinco violações: padaria, nome, CPF, e-mail e cargo
+        funcionario = new Funcionario();
+        // Três violações: nome, CEP (@Size) e CNPJ
+        padaria = new Padaria();
+        padaria.setCep("50050-45");
+        padaria.setCnpj("12345678901234");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public void funcionarioInvalido(Blackhole bh) {
+        bh.consume(validator.validate(funcionario));
+    }
+
+    @Benchmark
+    public void padariaInvalida(Blackhole bh) {
+        bh.consume(validator.validate(padaria));
+    }
+}
@@ -0,0 +1,98 @@
+package ifpe.paokentyn.validation;
+
+import ifpe.paokentyn.domain.DadosBancarios;
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.Padaria;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InterpoladorMensagensTest {
+
+    private static ValidatorFactory precompilado;
+    private static ValidatorFactory comEl;
+
+    @BeforeAll
+    public static void setUpFactories() {
+        precompilado = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new InterpoladorMensagens(true))
+                .buildValidatorFactory();
+        comEl = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new InterpoladorMensagens(false))
+                .buildValidatorFactory();
+    }
+
+    @AfterAll
+    public static void tearDownFactories() {
+        precompilado.close();
+        comEl.close();
+    }
+
+    public static class Amostra {
+        @Size(min = 2, max = 5)
+        String codigo = "abcdefgh";
+
+        @Size(max = 3, message = "No máximo {max} letras, não \\{max\\}")
+        String sigla = "ABCD";
+
+        @DecimalMin("10.0")
+        double valor = 1.0;
+    }
+
+    private static Set<String> mensagens(ValidatorFactory factory, Object objeto) {
+        Validator validator = factory.getValidator();
+        return validator.validate(objeto).stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Test
+    public void testMesmasMensagensQueOInterpoladorPadrao() {
+        Padaria padaria = new Padaria();
+        padaria.setCep("57020-00");
+        padaria.setCnpj("12345678901234");
+        DadosBancarios dados = new DadosBancarios();
+        dados.setAgencia("12a4-5");
+
+        for (Object objeto : new Object[] {new Funcionario(), padaria, dados, new Amostra()}) {
+            assertEquals(mensagens(comEl, objeto), mensagens(precompilado, objeto));
+        }
+    }
+
+    @Test
+    public void testMensagensDoProjetoEmPortugues() {
+        Set<String> mensagens = mensagens(precompilado, new Amostra());
+        assertTrue(mensagens.contains("tamanho deve ser entre 2 e 5"), mensagens.toString());
+        assertTrue(mensagens.contains("No máximo 3 letras, não {max}"), mensagens.toString());
+
+        Padaria padaria = new Padaria();
+        padaria.setNome("Padaria Central");
+        padaria.setCep("50050-450");
+        padaria.setCnpj("12345678901234");
+        assertEquals(Set.of("O CNPJ informado é inválido. Verifique os dígitos digitados."),
+                mensagens(precompilado, padaria));
+    }
+
+    @Test
+    public void testRegistradoNaConfiguracaoPadrao() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            InterpoladorMensagens interpolador = assertInstanceOf(InterpoladorMensagens.class,
+                    factory.getMessageInterpolator());
+            assertTrue(interpolador.isPrecompilado());
+            assertTrue(interpolador.getModelosCompilados() > 50);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ifpe.paokentyn.validation;
+
+import ifpe.paokentyn.domain.DadosBancarios;
+import ifpe.paokentyn.domain.Funcionario;
+import ifpe.paokentyn.domain.Padaria;
+import ifpe.paokentyn.domain.Pao;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Custo de cada restrição dos campos validados a cada persist, medido
+ * pelo Hibernate Validator (validateValue, como no pré-persist) e, para
+ * as restrições do projeto, também direto no ConstraintValidator.
+ *
+ * Roda com: mvn -Pbenchmark test-compile -Djmh.args="-f 1 ValidacaoBenchmark"
+ *
+ * @author isabe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidacaoBenchmark {
+
+    @Param({"valido", "invalido"})
+    public String caso;
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private final SemNumeroValidator semNumero = new SemNumeroValidator();
+    private final CepPernambucoValidator cepPernambuco = new CepPernambucoValidator();
+
+    private String nome;
+    private String cep;
+    private String cpf;
+    private String cnpj;
+    private String email;
+    private String agencia;
+    private String conta;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        cepPernambuco.initialize(null);
+        boolean valido = "valido".equals(caso);
+        nome = valido ? "Pão de Queijo Tradicional da Casa" : "Pão de Queijo Tradicional 2";
+        cep = valido ? "50050-450" : "57020-000";
+        cpf = valido ? "12345678909" : "11122233344";
+        cnpj = valido ? "05604099000154" : "12345678901234";
+        email = valido ? "joao.silva@padaria.com.br" : "joao.silva.padaria.com.br";
+        agencia = valido ? "1234-5" : "12a4-5";
+        conta = valido ? "0012345-6" : "00123x5-6";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public boolean semNumeroDireto() {
+        return semNumero.isValid(nome, null);
+    }
+
+    @Benchmark
+    public boolean cepPernambucoDireto() {
+        return cepPernambuco.isValid(cep, null);
+    }
+
+    @Benchmark
+    public void nomePao(Blackhole bh) {
+        bh.consume(validator.validateValue(Pao.class, "nomePao", nome));
+    }
+
+    @Benchmark
+    public void nomeFuncionario(Blackhole bh) {
+        bh.consume(validator.validateValue(Funcionario.class, "nome", nome));
+    }
+
+    @Benchmark
+    public void cepPadaria(Blackhole bh) {
+        bh.consume(validator.validateValue(Padaria.class, "cep", cep));
+    }
+
+    @Benchmark
+    public void cnpjPadaria(Blackhole bh) {
+        bh.consume(validator.validateValue(Padaria.class, "cnpj", cnpj));
+    }
+
+    @Benchmark
+    public void cpfFuncionario(Blackhole bh) {
+        bh.consume(validator.validateValue(Funcionario.class, "cpf", cpf));
+    }
+
+    @Benchmark
+    public void emailFuncionario(Blackhole bh) {
+        bh.consume(validator.validateValue(Funcionario.class, "email", email));
+    }
+
+    @Benchmark
+    public void agenciaDadosBancarios(Blackhole bh) {
+        bh.consume(validator.validateValue(DadosBancarios.class, "agencia", agencia));
+    }
+
+    @Benchmark
+    public void contaDadosBancarios(Blackhole bh) {
+        bh.consume(validator.validateValue(DadosBancarios.class, "conta", conta));
+    }
+}
@@ -0,0 +1,82 @@
+package ifpe.paokentyn.validation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValidadoresTest {
+
+    private final SemNumeroValidator semNumero = new SemNumeroValidator();
+    private final CepPernambucoValidator cepPernambuco = new CepPernambucoValidator();
+
+    @Test
+    public void testSemNumero() {
+        assertTrue(semNumero.isValid(null, null));
+        assertTrue(semNumero.isValid("", null));
+        assertTrue(semNumero.isValid("Pão de Queijo", null));
+        assertFalse(semNumero.isValid("Pão 2", null));
+        assertFalse(semNumero.isValid("9", null));
+        assertFalse(semNumero.isValid("Baguete\n1", null));
+    }
+
+    @Test
+    public void testSemNumeroIgualARegraAntiga() {
+        String[] valores = {"abc", "a1", "١٢", "x\n2", " ", "Pão Francês", "2ª fornada", "²"};
+        for (String valor : valores) {
+            assertEquals(!valor.matches("(?s).*\\d.*"), semNumero.isValid(valor, null), valor);
+        }
+    }
+
+    @Test
+    public void testCepPernambuco() {
+        cepPernambuco.initialize(null);
+        assertTrue(cepPernambuco.isValid(null, null));
+        assertTrue(cepPernambuco.isValid("50050-450", null));
+        assertTrue(cepPernambuco.isValid(" 56999-999 ", null));
+        assertTrue(cepPernambuco.isValid("53990000", null));
+        assertFalse(cepPernambuco.isValid("64000-450", null));
+        assertFalse(cepPernambuco.isValid("49999-999", null));
+        // Alagoas, Paraíba e Rio Grande do Norte também começam com 5
+        assertFalse(cepPernambuco.isValid("57020-000", null));
+        assertFalse(cepPernambuco.isValid("58000-000", null));
+        assertFalse(cepPernambuco.isValid("59000-000", null));
+        // Formato inválido fica para o @Pattern
+        assertTrue(cepPernambuco.isValid("5", null));
+        assertTrue(cepPernambuco.isValid("64000_450", null));
+    }
+
+    @Test
+    public void testFaixasCep() throws Exception {
+        FaixasCep pernambuco = FaixasCep.pernambuco();
+        assertEquals(3, pernambuco.quantidade());
+        assertTrue(pernambuco.contem(50000000));
+        assertTrue(pernambuco.contem(54999999));
+        assertTrue(pernambuco.contem(55000000));
+        assertFalse(pernambuco.contem(57000000));
+        assertFalse(pernambuco.contem(0));
+
+        assertEquals(50050450, FaixasCep.numero("50050-450"));
+        assertEquals(1310100, FaixasCep.numero("01310100"));
+        assertEquals(-1, FaixasCep.numero("5005-0450"));
+        assertEquals(-1, FaixasCep.numero("50050-45"));
+        assertEquals(-1, FaixasCep.numero(""));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dados = new DataOutputStream(bytes);
+        dados.writeBytes("CEPF");
+        dados.writeInt(1);
+        dados.writeInt(2);
+        dados.writeInt(20);
+        dados.writeInt(10);
+        dados.writeInt(1);
+        dados.writeInt(5);
+        assertThrows(IOException.class, () -> FaixasCep.ler(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}